@@ -0,0 +1,61 @@
+#!/bin/bash
+# Compare the platform-thread and virtual-thread request modes on the READ-heavy scenario
+#
+# Starts the service once per mode, runs read-heavy.jmx at each concurrency level
+# and prints throughput, latency percentiles and error rate per run.
+# Needs a running PostgreSQL with data (see docker-compose.yml) and JMeter on the PATH.
+#
+# usage: perf/compare-thread-modes.sh [duration-seconds] [threads...]
+#   e.g. perf/compare-thread-modes.sh 180 50 200 1000 2000
+# Extra JVM options for the service (e.g. -Ddb.url=...) can be passed in JAVA_OPTS.
+set -euo pipefail
+
+cd "$(dirname "$0")/.."
+DURATION=${1:-180}
+shift || true
+LEVELS=${*:-50 200 1000 2000}
+PORT=${PORT:-8080}
+RESULTS=perf/results/$(date +%Y%m%d-%H%M%S)
+mkdir -p "$RESULTS"
+
+mvn -B -q compile dependency:build-classpath -Dmdep.outputFile="$RESULTS/classpath.txt"
+CLASSPATH="target/classes:$(cat "$RESULTS/classpath.txt")"
+
+echo "mode,threads,samples,throughput_rps,mean_ms,p50_ms,p95_ms,p99_ms,error_pct" > "$RESULTS/summary.csv"
+
+for MODE in platform virtual; do
+    java ${JAVA_OPTS:-} -Dserver.threads.mode="$MODE" -Dserver.port="$PORT" -cp "$CLASSPATH" com.example.AppConfig \
+        > "$RESULTS/server-$MODE.log" 2>&1 &
+    SERVER_PID=$!
+    trap 'kill $SERVER_PID 2>/dev/null || true' EXIT
+    until curl -s -o /dev/null "http://localhost:$PORT/api/metrics"; do sleep 1; done
+
+    CATEGORIES=$(curl -s "http://localhost:$PORT/api/categories/count" | tr -dc '0-9')
+    ITEMS=$(curl -s "http://localhost:$PORT/api/items/count" | tr -dc '0-9')
+
+    for THREADS in $LEVELS; do
+        echo "== $MODE threads, $THREADS users, ${DURATION}s"
+        jmeter -n -t perf/read-heavy.jmx -l "$RESULTS/$MODE-$THREADS.jtl" \
+            -Jport="$PORT" -Jthreads="$THREADS" -Jrampup=30 -Jduration="$DURATION" \
+            -Jcategories="$CATEGORIES" -Jitems="$ITEMS" > "$RESULTS/jmeter-$MODE-$THREADS.log"
+        curl -s "http://localhost:$PORT/api/metrics" > "$RESULTS/metrics-$MODE-$THREADS.txt"
+
+        # jtl columns: timeStamp,elapsed,label,responseCode,responseMessage,threadName,dataType,success,...
+        tail -n +2 "$RESULTS/$MODE-$THREADS.jtl" | cut -d, -f1,2,8 | sort -t, -k2,2n | awk -F, \
+            -v mode="$MODE" -v threads="$THREADS" '
+            { el[NR] = $2; sum += $2; if ($3 != "true") err++
+              if (NR == 1 || $1 < first) first = $1; if ($1 > last) last = $1 }
+            END {
+                n = NR; secs = (last - first) / 1000; if (secs <= 0) secs = 1
+                printf "%s,%d,%d,%.1f,%.1f,%d,%d,%d,%.2f\n", mode, threads, n, n / secs, sum / n,
+                    el[int(n * 0.50)], el[int(n * 0.95)], el[int(n * 0.99)], 100 * err / n
+            }' | tee -a "$RESULTS/summary.csv"
+    done
+
+    kill "$SERVER_PID"
+    wait "$SERVER_PID" 2>/dev/null || true
+done
+
+echo
+column -s, -t < "$RESULTS/summary.csv"
+echo "Raw results in $RESULTS"
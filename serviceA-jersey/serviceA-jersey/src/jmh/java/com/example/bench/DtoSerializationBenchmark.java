@@ -0,0 +1,122 @@
+package com.example.bench;
+
+import com.example.dto.CategoryResponseDTO;
+import com.example.dto.CategorySummaryDTO;
+import com.example.dto.ItemResponseDTO;
+import com.example.dto.ItemSummaryDTO;
+import com.example.util.JsonUtil;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Before/after comparison of the JSON writers
+ * "reflective" is the mapper the application used to build (bean serializers,
+ * per-thread buffers); "optimized" is JsonUtil's mapper (DtoJsonModule,
+ * bounded buffer pool). Both write to a discarding stream, like the
+ * JAX-RS provider writes to the response. "smile" and "cbor" write the same
+ * items with JsonUtil's binary mappers
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class DtoSerializationBenchmark {
+
+    @Param({"20", "500"})
+    public int size;
+
+    private List<ItemResponseDTO> items;
+    private CategoryResponseDTO category;
+
+    private ObjectWriter reflectiveItems;
+    private ObjectWriter reflectiveCategory;
+    private ObjectWriter optimizedItems;
+    private ObjectWriter optimizedCategory;
+    private ObjectWriter smileItems;
+    private ObjectWriter cborItems;
+
+    @Setup
+    public void setup() throws IOException {
+        LocalDateTime now = LocalDateTime.of(2024, 5, 1, 12, 30, 15);
+        CategorySummaryDTO summary = new CategorySummaryDTO(1L, "CAT-1", "Hardware");
+        items = new ArrayList<>(size);
+        List<ItemSummaryDTO> summaries = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            BigDecimal price = BigDecimal.valueOf(1999 + i, 2);
+            ItemResponseDTO item = new ItemResponseDTO((long) i, "SKU-" + i, "Item \"" + i + "\"", price, i, now);
+            item.setCategory(summary);
+            items.add(item);
+            summaries.add(new ItemSummaryDTO((long) i, "SKU-" + i, "Item \"" + i + "\"", price, i));
+        }
+        category = new CategoryResponseDTO(1L, "CAT-1", "Hardware", now);
+        category.setItems(summaries);
+
+        ObjectMapper reflective = new ObjectMapper();
+        reflective.registerModule(new JavaTimeModule());
+        TypeReference<List<ItemResponseDTO>> listType = new TypeReference<>() {};
+        reflectiveItems = reflective.writerFor(listType);
+        reflectiveCategory = reflective.writerFor(CategoryResponseDTO.class);
+        optimizedItems = JsonUtil.getMapper().writerFor(listType);
+        optimizedCategory = JsonUtil.rowWriter(CategoryResponseDTO.class);
+        smileItems = JsonUtil.getSmileMapper().writerFor(listType);
+        cborItems = JsonUtil.getCborMapper().writerFor(listType);
+
+        // Both paths must produce the same bytes, or the comparison is meaningless
+        check(reflectiveItems.writeValueAsBytes(items), optimizedItems.writeValueAsBytes(items));
+        check(reflectiveCategory.writeValueAsBytes(category), optimizedCategory.writeValueAsBytes(category));
+    }
+
+    @Benchmark
+    public void itemsReflective() throws IOException {
+        reflectiveItems.writeValue(OutputStream.nullOutputStream(), items);
+    }
+
+    @Benchmark
+    public void itemsOptimized() throws IOException {
+        optimizedItems.writeValue(OutputStream.nullOutputStream(), items);
+    }
+
+    @Benchmark
+    public void itemsSmile() throws IOException {
+        smileItems.writeValue(OutputStream.nullOutputStream(), items);
+    }
+
+    @Benchmark
+    public void itemsCbor() throws IOException {
+        cborItems.writeValue(OutputStream.nullOutputStream(), items);
+    }
+
+    @Benchmark
+    public void categoryReflective() throws IOException {
+        reflectiveCategory.writeValue(OutputStream.nullOutputStream(), category);
+    }
+
+    @Benchmark
+    public void categoryOptimized() throws IOException {
+        optimizedCategory.writeValue(OutputStream.nullOutputStream(), category);
+    }
+
+    private static void check(byte[] expected, byte[] actual) {
+        if (!Arrays.equals(expected, actual)) {
+            throw new IllegalStateException("Serializers disagree:\n" + new String(expected) + "\n" + new String(actual));
+        }
+    }
+}
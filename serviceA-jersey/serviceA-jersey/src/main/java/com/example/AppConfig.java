@@ -1,33 +1,84 @@
 package com.example;
 
+import com.example.config.ApplicationProperties;
+import com.example.config.JerseyConfig;
+import com.example.config.WarmUp;
+import com.example.dao.Storage;
+import com.example.filter.DbConcurrencyFilter;
+import com.example.service.ItemService;
+import com.example.service.RowCounter;
+import com.example.util.DbExecutor;
+import jakarta.servlet.DispatcherType;
 import org.eclipse.jetty.server.Server;
+import org.eclipse.jetty.server.ServerConnector;
+import org.eclipse.jetty.servlet.FilterHolder;
 import org.eclipse.jetty.servlet.ServletContextHandler;
 import org.eclipse.jetty.servlet.ServletHolder;
-import org.glassfish.jersey.jackson.internal.jackson.jaxrs.json.JacksonJaxbJsonProvider;
+import org.eclipse.jetty.util.thread.QueuedThreadPool;
 import org.glassfish.jersey.server.ResourceConfig;
 import org.glassfish.jersey.servlet.ServletContainer;
-import com.fasterxml.jackson.databind.ObjectMapper;
-import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+
+import java.util.EnumSet;
+import java.util.concurrent.Executors;
 
 public class AppConfig {
     public static void main(String[] args) throws Exception {
+        if (WarmUp.isEnabled()) {
+            WarmUp.prepareDatabase();
+        }
+
+        if (ApplicationProperties.getBoolean("search.index.enabled", true)) {
+            long start = System.currentTimeMillis();
+            new ItemService().buildSearchIndex();
+            System.out.println("🔎 Search index built in " + (System.currentTimeMillis() - start) + " ms");
+        }
+
+        RowCounter.startReconciliation();
+
         ResourceConfig config = new ResourceConfig();
+        JerseyConfig.registerComponents(config);
 
-        ObjectMapper mapper = new ObjectMapper();
-        mapper.registerModule(new JavaTimeModule());
-        JacksonJaxbJsonProvider provider = new JacksonJaxbJsonProvider();
-        provider.setMapper(mapper);
-        config.register(provider);
+        // "platform": requests run on the pooled platform threads (Jetty default)
+        // "virtual": each request runs on its own virtual thread, database access
+        // is capped by a semaphore sized to the connection pool
+        boolean virtualThreads = "virtual".equalsIgnoreCase(ApplicationProperties.get("server.threads.mode", "platform"));
+        QueuedThreadPool threadPool = new QueuedThreadPool(ApplicationProperties.getInt("server.threads.max", 200));
+        threadPool.setName("jetty");
+        if (virtualThreads) {
+            threadPool.setVirtualThreadsExecutor(Executors.newVirtualThreadPerTaskExecutor());
+        }
 
-        config.packages("com.example.rest");
+        Server server = new Server(threadPool);
+        ServerConnector connector = new ServerConnector(server);
+        int port = ApplicationProperties.getInt("server.port", 8080);
+        connector.setPort(port);
+        server.addConnector(connector);
 
         ServletHolder servlet = new ServletHolder(new ServletContainer(config));
-        Server server = new Server(8080);
+        // Resources suspend their requests; with server.async.enabled the work runs on DbExecutor
+        servlet.setAsyncSupported(true);
         ServletContextHandler context = new ServletContextHandler(server, "/api");
+        // In async mode DbExecutor already bounds database concurrency; in-memory storage has no pool to protect
+        if (virtualThreads && !DbExecutor.isEnabled() && !Storage.isInMemory()) {
+            int permits = ApplicationProperties.getInt("db.max-concurrency",
+                ApplicationProperties.getInt("db.pool.maximum-pool-size", 20));
+            long timeout = ApplicationProperties.getLong("db.pool.connection-timeout", 20000);
+            context.addFilter(new FilterHolder(new DbConcurrencyFilter(permits, timeout)),
+                "/*", EnumSet.of(DispatcherType.REQUEST));
+        }
         context.addServlet(servlet, "/*");
 
         server.start();
-        System.out.println("🚀 Server started at http://localhost:8080/api/");
+        System.out.println("🚀 Server started at http://localhost:" + port + "/api/ ("
+            + (virtualThreads ? "virtual" : "platform") + " threads, "
+            + Storage.type().name().toLowerCase() + " storage)");
+
+        // /api/health/ready answers 503 until the synthetic requests are done
+        if (WarmUp.isEnabled()) {
+            WarmUp.sendRequests("http://localhost:" + port + "/api");
+        }
+        WarmUp.markReady();
+        System.out.println("✅ Ready");
         server.join();
     }
 }
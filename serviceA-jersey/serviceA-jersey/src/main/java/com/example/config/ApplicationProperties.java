@@ -0,0 +1,88 @@
+package com.example.config;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.List;
+import java.util.Properties;
+import java.util.Set;
+import java.util.TreeSet;
+
+/**
+ * Application settings loaded from application.properties
+ * Any key can be overridden at startup with a JVM system property (-Dkey=value)
+ */
+public final class ApplicationProperties {
+
+    private static final String RESOURCE = "application.properties";
+
+    private static final Properties properties = load();
+
+    private ApplicationProperties() {}
+
+    /**
+     * Get a setting as a string
+     *
+     * @param key Setting key
+     * @param defaultValue Value returned when the key is not set
+     * @return Setting value
+     */
+    public static String get(String key, String defaultValue) {
+        String value = System.getProperty(key);
+        if (value == null) {
+            value = properties.getProperty(key);
+        }
+        return value == null || value.trim().isEmpty() ? defaultValue : value.trim();
+    }
+
+    /**
+     * Get a setting as an int
+     */
+    public static int getInt(String key, int defaultValue) {
+        String value = get(key, null);
+        return value == null ? defaultValue : Integer.parseInt(value);
+    }
+
+    /**
+     * Get a setting as a long
+     */
+    public static long getLong(String key, long defaultValue) {
+        String value = get(key, null);
+        return value == null ? defaultValue : Long.parseLong(value);
+    }
+
+    /**
+     * Get a setting as a boolean
+     */
+    public static boolean getBoolean(String key, boolean defaultValue) {
+        String value = get(key, null);
+        return value == null ? defaultValue : Boolean.parseBoolean(value);
+    }
+
+    /**
+     * Keys of the settings starting with a prefix, from the file and the
+     * JVM system properties
+     */
+    public static Set<String> keys(String prefix) {
+        Set<String> keys = new TreeSet<>();
+        for (Properties source : List.of(properties, System.getProperties())) {
+            for (String key : source.stringPropertyNames()) {
+                if (key.startsWith(prefix)) {
+                    keys.add(key);
+                }
+            }
+        }
+        return keys;
+    }
+
+    private static Properties load() {
+        Properties props = new Properties();
+        try (InputStream in = ApplicationProperties.class.getClassLoader().getResourceAsStream(RESOURCE)) {
+            if (in != null) {
+                props.load(in);
+            }
+        } catch (IOException e) {
+            throw new ExceptionInInitializerError(e);
+        }
+        return props;
+    }
+}
@@ -1,11 +1,53 @@
 package com.example.config;
 
+import com.example.filter.RateLimitFilter;
+import com.example.service.RowCounter;
+import com.example.util.JsonUtil;
+import com.fasterxml.jackson.jakarta.rs.cbor.JacksonCBORProvider;
+import com.fasterxml.jackson.jakarta.rs.smile.JacksonSmileProvider;
 import jakarta.ws.rs.ApplicationPath;
+import org.glassfish.jersey.jackson.internal.jackson.jaxrs.json.JacksonJaxbJsonProvider;
 import org.glassfish.jersey.server.ResourceConfig;
 
 @ApplicationPath("/api")
 public class JerseyConfig extends ResourceConfig {
     public JerseyConfig() {
-        packages("com.example.rest");
+        registerComponents(this);
+        RowCounter.startReconciliation();
+        // Deployed in a container: the database stage runs during servlet init. The
+        // synthetic requests need the URL the container serves, so they only run
+        // when warmup.base-url gives it, once the container takes requests
+        if (WarmUp.isEnabled()) {
+            WarmUp.prepareDatabase();
+            String baseUrl = ApplicationProperties.get("warmup.base-url", "");
+            if (!baseUrl.isBlank()) {
+                Thread sender = new Thread(() -> {
+                    WarmUp.awaitLive(baseUrl);
+                    WarmUp.sendRequests(baseUrl);
+                    WarmUp.markReady();
+                }, "warmup");
+                sender.setDaemon(true);
+                sender.start();
+                return;
+            }
+        }
+        WarmUp.markReady();
+    }
+
+    /**
+     * Register the resources, filters and exception mappers, and the JSON,
+     * Smile and CBOR providers built on the JsonUtil mappers (DTO serializers,
+     * sparse fieldsets), for the WAR deployment and the embedded server alike
+     */
+    public static void registerComponents(ResourceConfig config) {
+        RateLimitFilter.checkSettings();
+        JacksonJaxbJsonProvider provider = new JacksonJaxbJsonProvider();
+        provider.setMapper(JsonUtil.getMapper());
+        config.register(provider);
+        // Binary formats, same mapper configuration as JSON
+        config.register(new JacksonSmileProvider(JsonUtil.getSmileMapper()));
+        config.register(new JacksonCBORProvider(JsonUtil.getCborMapper()));
+
+        config.packages("com.example.rest", "com.example.exception", "com.example.filter");
     }
 }
@@ -0,0 +1,206 @@
+package com.example.config;
+
+import com.example.dao.Storage;
+import com.example.exception.DatabaseException;
+import com.example.util.HibernateUtil;
+import com.example.util.JsonUtil;
+import com.fasterxml.jackson.databind.JsonNode;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Startup warm-up, so that a fresh instance does not serve its first
+ * requests slowly: the SessionFactory is built, the connection pool filled
+ * and every DAO query parsed once, then synthetic GETs are sent to the
+ * running server (resource model, JSON writers, JIT of the hot paths)
+ * /api/health/ready answers 503 until markReady() is called
+ */
+public final class WarmUp {
+
+    private static final boolean ENABLED = ApplicationProperties.getBoolean("warmup.enabled", true);
+
+    private static volatile boolean ready;
+
+    private WarmUp() {}
+
+    public static boolean isEnabled() {
+        return ENABLED;
+    }
+
+    public static boolean isReady() {
+        return ready;
+    }
+
+    /**
+     * Report the service ready to take traffic
+     */
+    public static void markReady() {
+        ready = true;
+    }
+
+    /**
+     * Build the SessionFactory, open warmup.connections pooled connections
+     * and run every DAO query once (nothing to do with the in-memory storage)
+     */
+    public static void prepareDatabase() {
+        if (Storage.isInMemory()) {
+            return;
+        }
+        long start = System.currentTimeMillis();
+        HibernateUtil.getSessionFactory();
+        fillPool(ApplicationProperties.getInt("warmup.connections",
+            ApplicationProperties.getInt("db.pool.minimum-idle", 5)));
+        Storage.itemDAO().warmUpQueries();
+        Storage.categoryDAO().warmUpQueries();
+        System.out.println("🔥 Warm-up: database ready in " + (System.currentTimeMillis() - start) + " ms");
+    }
+
+    /**
+     * Send warmup.requests read-only requests to the running server, spread
+     * over the item and category endpoints, warmup.concurrency at a time
+     * Stops after warmup.max-seconds; failures are reported, not fatal
+     *
+     * @param baseUrl Base URL of the API, e.g. http://localhost:8080/api
+     */
+    public static void sendRequests(String baseUrl) {
+        int total = ApplicationProperties.getInt("warmup.requests", 1000);
+        int concurrency = ApplicationProperties.getInt("warmup.concurrency", 4);
+        int maxSeconds = ApplicationProperties.getInt("warmup.max-seconds", 60);
+        if (total <= 0) {
+            return;
+        }
+
+        long start = System.currentTimeMillis();
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(maxSeconds);
+        HttpClient client = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(5)).build();
+        List<String> paths = paths(client, baseUrl);
+
+        AtomicInteger next = new AtomicInteger();
+        AtomicInteger sent = new AtomicInteger();
+        AtomicInteger failed = new AtomicInteger();
+        ExecutorService workers = Executors.newFixedThreadPool(concurrency);
+        for (int t = 0; t < concurrency; t++) {
+            workers.execute(() -> {
+                int i;
+                while ((i = next.getAndIncrement()) < total && System.nanoTime() < deadline) {
+                    // Every other request accepts gzip, so both writers get compiled
+                    if (send(client, baseUrl + paths.get(i % paths.size()), i % 2 == 1) >= 500) {
+                        failed.incrementAndGet();
+                    }
+                    sent.incrementAndGet();
+                }
+            });
+        }
+        workers.shutdown();
+        try {
+            workers.awaitTermination(maxSeconds + 10L, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        workers.shutdownNow();
+        System.out.println("🔥 Warm-up: " + sent.get() + " requests in " + (System.currentTimeMillis() - start)
+            + " ms (" + failed.get() + " failed)");
+    }
+
+    /**
+     * Wait until /health/live answers, at most warmup.max-seconds
+     * (a container may finish initializing the servlet before it listens)
+     *
+     * @param baseUrl Base URL of the API, e.g. http://localhost:8080/api
+     */
+    public static void awaitLive(String baseUrl) {
+        HttpClient client = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(5)).build();
+        long deadline = System.nanoTime()
+            + TimeUnit.SECONDS.toNanos(ApplicationProperties.getInt("warmup.max-seconds", 60));
+        while (send(client, baseUrl + "/health/live", false) != 200 && System.nanoTime() < deadline) {
+            try {
+                Thread.sleep(200);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+    }
+
+    /**
+     * Paths of the synthetic requests, using ids of rows that exist
+     * (ids that do not only exercise the 404 path)
+     */
+    private static List<String> paths(HttpClient client, String baseUrl) {
+        long itemId = firstId(client, baseUrl + "/items?size=1");
+        long categoryId = firstId(client, baseUrl + "/categories?size=1");
+
+        List<String> paths = new ArrayList<>();
+        paths.add("/items?page=0&size=20");
+        paths.add("/items?size=20&after=");
+        paths.add("/items?size=20&fields=sku,stock");
+        paths.add("/items/" + itemId);
+        paths.add("/items/" + itemId + "?fields=sku,stock");
+        paths.add("/items/by-category/" + categoryId + "?limit=50");
+        paths.add("/items/search?keyword=a");
+        paths.add("/items/count");
+        paths.add("/categories?page=0&size=20");
+        paths.add("/categories/" + categoryId);
+        paths.add("/categories/" + categoryId + "/with-items?limit=50");
+        paths.add("/categories/count");
+        return paths;
+    }
+
+    private static long firstId(HttpClient client, String url) {
+        try {
+            HttpResponse<String> response = client.send(
+                HttpRequest.newBuilder(URI.create(url)).build(), HttpResponse.BodyHandlers.ofString());
+            JsonNode rows = JsonUtil.getMapper().readTree(response.body());
+            if (rows.isArray() && rows.size() > 0) {
+                return rows.get(0).path("id").asLong(1);
+            }
+        } catch (Exception e) {
+            System.err.println("Warm-up: could not read " + url + ": " + e.getMessage());
+        }
+        return 1;
+    }
+
+    private static int send(HttpClient client, String url, boolean gzip) {
+        HttpRequest.Builder request = HttpRequest.newBuilder(URI.create(url)).timeout(Duration.ofSeconds(30));
+        if (gzip) {
+            request.header("Accept-Encoding", "gzip");
+        }
+        try {
+            return client.send(request.build(), HttpResponse.BodyHandlers.discarding()).statusCode();
+        } catch (Exception e) {
+            return 599;
+        }
+    }
+
+    private static void fillPool(int connections) {
+        // Hold them all at once, so the pool has to open that many
+        List<Connection> held = new ArrayList<>();
+        try {
+            for (int i = 0; i < connections; i++) {
+                held.add(HibernateUtil.getDataSource().getConnection());
+            }
+        } catch (SQLException e) {
+            throw new DatabaseException("Error filling the connection pool", e);
+        } finally {
+            for (Connection connection : held) {
+                try {
+                    connection.close();
+                } catch (SQLException e) {
+                    System.err.println("Warm-up: could not release a connection: " + e.getMessage());
+                }
+            }
+        }
+    }
+}
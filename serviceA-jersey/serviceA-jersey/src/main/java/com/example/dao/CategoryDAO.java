@@ -1,213 +1,151 @@
 package com.example.dao;
 
-import com.example.exception.DatabaseException;
+import com.example.dto.ItemFields;
+import com.example.dto.ItemSummaryDTO;
 import com.example.model.Category;
-import com.example.model.Item;
-import com.example.util.HibernateUtil;
-import org.hibernate.Session;
-import org.hibernate.Transaction;
-import org.hibernate.query.Query;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
+import java.util.function.Consumer;
 
 /**
  * Data Access Object for Category entity
- * Handles all database operations for Category
+ * Implemented by HibernateCategoryDAO (the database) and InMemoryCategoryDAO;
+ * Storage picks one at startup. Failures are reported as DatabaseException
  */
-public class CategoryDAO {
+public interface CategoryDAO {
 
     /**
      * Find all categories with pagination
-     * 
+     *
      * @param page Page number (0-based)
      * @param size Number of items per page
-     * @return List of categories
+     * @return List of categories ordered by id
      */
-    public List<Category> findAll(int page, int size) {
-        try (Session session = HibernateUtil.getSessionFactory().openSession()) {
-            Query<Category> query = session.createQuery("FROM Category ORDER BY id", Category.class);
-            query.setFirstResult(page * size);
-            query.setMaxResults(size);
-            return query.list();
-        } catch (Exception e) {
-            throw new DatabaseException("Error fetching categories", e);
-        }
-    }
+    List<Category> findAll(int page, int size);
+
+    /**
+     * Find the categories that follow a given id (keyset pagination)
+     *
+     * @param afterId Last id already returned (null for the first page)
+     * @param limit Maximum number of categories to return
+     * @return List of categories ordered by id
+     */
+    List<Category> findAllAfter(Long afterId, int limit);
 
     /**
      * Find a category by ID
-     * 
+     *
      * @param id Category ID
      * @return Optional containing the category if found
      */
-    public Optional<Category> findById(Long id) {
-        try (Session session = HibernateUtil.getSessionFactory().openSession()) {
-            Category category = session.get(Category.class, id);
-            return Optional.ofNullable(category);
-        } catch (Exception e) {
-            throw new DatabaseException("Error fetching category by id: " + id, e);
-        }
-    }
+    Optional<Category> findById(Long id);
+
+    /**
+     * Read the last modification time of a category, without loading it
+     *
+     * @param id Category ID
+     * @return updatedAt of the category, or empty if the category does not
+     *         exist or has never been stamped
+     */
+    Optional<LocalDateTime> findUpdatedAt(Long id);
 
     /**
      * Find a category by code
-     * 
+     *
      * @param code Category code
      * @return Optional containing the category if found
      */
-    public Optional<Category> findByCode(String code) {
-        try (Session session = HibernateUtil.getSessionFactory().openSession()) {
-            Query<Category> query = session.createQuery(
-                "FROM Category WHERE code = :code", Category.class);
-            query.setParameter("code", code);
-            return query.uniqueResultOptional();
-        } catch (Exception e) {
-            throw new DatabaseException("Error fetching category by code: " + code, e);
-        }
-    }
+    Optional<Category> findByCode(String code);
 
     /**
      * Save a new category
-     * 
+     *
      * @param category Category to save
      * @return Saved category with generated ID
      */
-    public Category save(Category category) {
-        Transaction transaction = null;
-        try (Session session = HibernateUtil.getSessionFactory().openSession()) {
-            transaction = session.beginTransaction();
-            category.setUpdatedAt(LocalDateTime.now());
-            session.persist(category);
-            transaction.commit();
-            return category;
-        } catch (Exception e) {
-            if (transaction != null) {
-                transaction.rollback();
-            }
-            throw new DatabaseException("Error saving category", e);
-        }
-    }
+    Category save(Category category);
 
     /**
      * Update an existing category
-     * 
+     *
      * @param category Category to update
      * @return Updated category
      */
-    public Category update(Category category) {
-        Transaction transaction = null;
-        try (Session session = HibernateUtil.getSessionFactory().openSession()) {
-            transaction = session.beginTransaction();
-            category.setUpdatedAt(LocalDateTime.now());
-            Category updated = session.merge(category);
-            transaction.commit();
-            return updated;
-        } catch (Exception e) {
-            if (transaction != null) {
-                transaction.rollback();
-            }
-            throw new DatabaseException("Error updating category", e);
-        }
-    }
+    Category update(Category category);
 
     /**
      * Delete a category by ID
-     * 
+     *
      * @param id Category ID
      * @return true if deleted, false if not found
      */
-    public boolean delete(Long id) {
-        Transaction transaction = null;
-        try (Session session = HibernateUtil.getSessionFactory().openSession()) {
-            transaction = session.beginTransaction();
-            Category category = session.get(Category.class, id);
-            if (category != null) {
-                session.remove(category);
-                transaction.commit();
-                return true;
-            }
-            transaction.commit();
-            return false;
-        } catch (Exception e) {
-            if (transaction != null) {
-                transaction.rollback();
-            }
-            throw new DatabaseException("Error deleting category", e);
-        }
-    }
-
-    /**
-     * Find all items belonging to a category
-     * 
+    boolean delete(Long id);
+
+    /**
+     * Stream one bounded page of the items belonging to a category
+     *
+     * @param categoryId Category ID
+     * @param afterId Last item id already returned (null for the first page)
+     * @param limit Maximum number of items to read
+     * @param fields Item summary fields to select
+     * @param action Callback invoked for each item summary, in id order
+     */
+    void forEachItemSummaryInCategory(Long categoryId, Long afterId, int limit, ItemFields fields,
+                                      Consumer<ItemSummaryDTO> action);
+
+    /**
+     * Count the items belonging to a category
+     *
      * @param categoryId Category ID
-     * @return List of items
+     * @return Number of items
      */
-    public List<Item> findItemsByCategory(Long categoryId) {
-        try (Session session = HibernateUtil.getSessionFactory().openSession()) {
-            Query<Item> query = session.createQuery(
-                "FROM Item WHERE category.id = :catId ORDER BY id", Item.class);
-            query.setParameter("catId", categoryId);
-            return query.getResultList();
-        } catch (Exception e) {
-            throw new DatabaseException("Error fetching items for category: " + categoryId, e);
-        }
-    }
+    long countItems(Long categoryId);
 
     /**
      * Count total number of categories
-     * 
+     *
      * @return Total count
      */
-    public long count() {
-        try (Session session = HibernateUtil.getSessionFactory().openSession()) {
-            Query<Long> query = session.createQuery("SELECT COUNT(c) FROM Category c", Long.class);
-            return query.getSingleResult();
-        } catch (Exception e) {
-            throw new DatabaseException("Error counting categories", e);
-        }
-    }
+    long count();
+
+    /**
+     * Cheap estimate of the number of categories
+     *
+     * @return Estimated count, or empty if none is available
+     */
+    Optional<Long> estimateCount();
 
     /**
      * Check if a category exists by ID
-     * 
+     *
      * @param id Category ID
      * @return true if exists
      */
-    public boolean existsById(Long id) {
-        try (Session session = HibernateUtil.getSessionFactory().openSession()) {
-            Query<Long> query = session.createQuery(
-                "SELECT COUNT(c) FROM Category c WHERE c.id = :id", Long.class);
-            query.setParameter("id", id);
-            return query.getSingleResult() > 0;
-        } catch (Exception e) {
-            throw new DatabaseException("Error checking category existence", e);
-        }
-    }
+    boolean existsById(Long id);
+
+    /**
+     * Find which of the given category IDs exist
+     *
+     * @param ids Category IDs to check
+     * @return Subset of the IDs that exist
+     */
+    Set<Long> findExistingIds(Collection<Long> ids);
 
     /**
      * Check if a category code already exists
-     * 
+     *
      * @param code Category code
      * @param excludeId ID to exclude (for updates)
      * @return true if code exists
      */
-    public boolean existsByCode(String code, Long excludeId) {
-        try (Session session = HibernateUtil.getSessionFactory().openSession()) {
-            String hql = excludeId == null 
-                ? "SELECT COUNT(c) FROM Category c WHERE c.code = :code"
-                : "SELECT COUNT(c) FROM Category c WHERE c.code = :code AND c.id != :excludeId";
-            
-            Query<Long> query = session.createQuery(hql, Long.class);
-            query.setParameter("code", code);
-            if (excludeId != null) {
-                query.setParameter("excludeId", excludeId);
-            }
-            
-            return query.getSingleResult() > 0;
-        } catch (Exception e) {
-            throw new DatabaseException("Error checking category code uniqueness", e);
-        }
-    }
+    boolean existsByCode(String code, Long excludeId);
+
+    /**
+     * Run each read query once at startup (see ItemDAO.warmUpQueries)
+     */
+    void warmUpQueries();
 }
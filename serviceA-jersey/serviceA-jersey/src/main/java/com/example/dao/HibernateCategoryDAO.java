@@ -0,0 +1,407 @@
+package com.example.dao;
+
+import com.example.dto.ItemFields;
+import com.example.dto.ItemSummaryDTO;
+import com.example.exception.DatabaseException;
+import com.example.model.Category;
+import com.example.util.HibernateUtil;
+import org.hibernate.ScrollMode;
+import org.hibernate.ScrollableResults;
+import org.hibernate.StatelessSession;
+import org.hibernate.Transaction;
+import org.hibernate.query.Query;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.Consumer;
+
+/**
+ * CategoryDAO backed by Hibernate
+ * Handles all database operations for Category
+ */
+public class HibernateCategoryDAO implements CategoryDAO {
+
+    // Maximum number of values bound in one IN (...) list
+    private static final int IN_CHUNK_SIZE = 1000;
+
+    // Items listed inside a category, selected straight into summary DTOs
+    private static final String SUMMARY_PROJECTION =
+        "SELECT new com.example.dto.ItemSummaryDTO(i.id, i.sku, i.name, i.price, i.stock) FROM Item i";
+
+    /**
+     * Find all categories with pagination
+     * 
+     * @param page Page number (0-based)
+     * @param size Number of items per page
+     * @return List of categories
+     */
+    @Override
+    public List<Category> findAll(int page, int size) {
+        try {
+            return Sessions.read(session -> {
+                Query<Category> query = session.createQuery("FROM Category ORDER BY id", Category.class);
+                query.setFirstResult(page * size);
+                query.setMaxResults(size);
+                return query.list();
+            });
+        } catch (Exception e) {
+            throw new DatabaseException("Error fetching categories", e);
+        }
+    }
+
+    /**
+     * Find the categories that follow a given id (keyset pagination)
+     * Seeks on the primary key, so the cost does not grow with the page depth
+     * 
+     * @param afterId Last id already returned (null for the first page)
+     * @param limit Maximum number of categories to return
+     * @return List of categories ordered by id
+     */
+    @Override
+    public List<Category> findAllAfter(Long afterId, int limit) {
+        try {
+            return Sessions.read(session -> {
+                String hql = afterId == null
+                    ? "FROM Category c ORDER BY c.id"
+                    : "FROM Category c WHERE c.id > :afterId ORDER BY c.id";
+
+                Query<Category> query = session.createQuery(hql, Category.class);
+                if (afterId != null) {
+                    query.setParameter("afterId", afterId);
+                }
+                query.setMaxResults(limit);
+                return query.list();
+            });
+        } catch (Exception e) {
+            throw new DatabaseException("Error fetching categories after id: " + afterId, e);
+        }
+    }
+
+    /**
+     * Find a category by ID
+     * 
+     * @param id Category ID
+     * @return Optional containing the category if found
+     */
+    @Override
+    public Optional<Category> findById(Long id) {
+        try {
+            return Sessions.read(session -> {
+                Category category = session.get(Category.class, id);
+                return Optional.ofNullable(category);
+            });
+        } catch (Exception e) {
+            throw new DatabaseException("Error fetching category by id: " + id, e);
+        }
+    }
+
+    /**
+     * Read the last modification time of a category, without loading it
+     * (from the second-level cache when it is enabled)
+     * 
+     * @param id Category ID
+     * @return updatedAt of the category, or empty if the category does not
+     *         exist or has never been stamped
+     */
+    @Override
+    public Optional<LocalDateTime> findUpdatedAt(Long id) {
+        try {
+            return Sessions.read(session -> {
+                if (HibernateUtil.isSecondLevelCacheEnabled()) {
+                    Category category = session.get(Category.class, id);
+                    return Optional.ofNullable(category == null ? null : category.getUpdatedAt());
+                }
+                Query<LocalDateTime> query = session.createQuery(
+                    "SELECT c.updatedAt FROM Category c WHERE c.id = :id", LocalDateTime.class);
+                query.setParameter("id", id);
+                return query.uniqueResultOptional();
+            });
+        } catch (Exception e) {
+            throw new DatabaseException("Error fetching category version: " + id, e);
+        }
+    }
+
+    /**
+     * Find a category by code
+     * 
+     * @param code Category code
+     * @return Optional containing the category if found
+     */
+    @Override
+    public Optional<Category> findByCode(String code) {
+        try {
+            return Sessions.read(session -> {
+                Query<Category> query = session.createQuery(
+                    "FROM Category WHERE code = :code", Category.class);
+                query.setParameter("code", code);
+                return query.uniqueResultOptional();
+            });
+        } catch (Exception e) {
+            throw new DatabaseException("Error fetching category by code: " + code, e);
+        }
+    }
+
+    /**
+     * Save a new category
+     * 
+     * @param category Category to save
+     * @return Saved category with generated ID
+     */
+    @Override
+    public Category save(Category category) {
+        try {
+            return Sessions.write(session -> {
+                category.setUpdatedAt(LocalDateTime.now());
+                session.persist(category);
+                return category;
+            });
+        } catch (Exception e) {
+            throw new DatabaseException("Error saving category", e);
+        }
+    }
+
+    /**
+     * Update an existing category
+     * 
+     * @param category Category to update
+     * @return Updated category
+     */
+    @Override
+    public Category update(Category category) {
+        try {
+            return Sessions.write(session -> {
+                category.setUpdatedAt(LocalDateTime.now());
+                return session.merge(category);
+            });
+        } catch (Exception e) {
+            throw new DatabaseException("Error updating category", e);
+        }
+    }
+
+    /**
+     * Delete a category by ID
+     * 
+     * @param id Category ID
+     * @return true if deleted, false if not found
+     */
+    @Override
+    public boolean delete(Long id) {
+        try {
+            return Sessions.write(session -> {
+                Category category = session.get(Category.class, id);
+                if (category == null) {
+                    return false;
+                }
+                session.remove(category);
+                return true;
+            });
+        } catch (Exception e) {
+            throw new DatabaseException("Error deleting category", e);
+        }
+    }
+
+    /**
+     * Stream one bounded page of the items belonging to a category
+     * Only the requested columns are selected, straight into summary DTOs;
+     * rows are handed to the callback as they are read, never collected
+     * 
+     * @param categoryId Category ID
+     * @param afterId Last item id already returned (null for the first page)
+     * @param limit Maximum number of items to read
+     * @param fields Item summary fields to select
+     * @param action Callback invoked for each item summary, in id order
+     */
+    @Override
+    public void forEachItemSummaryInCategory(Long categoryId, Long afterId, int limit, ItemFields fields,
+                                             Consumer<ItemSummaryDTO> action) {
+        try (StatelessSession session = HibernateUtil.getSessionFactory().openStatelessSession()) {
+            String where = afterId == null
+                ? " WHERE i.category.id = :catId ORDER BY i.id"
+                : " WHERE i.category.id = :catId AND i.id > :afterId ORDER BY i.id";
+
+            Query<ItemSummaryDTO> query = fields.isAll()
+                ? session.createQuery(SUMMARY_PROJECTION + where, ItemSummaryDTO.class)
+                : session.createQuery(ItemProjection.selectFrom(fields) + where, Object[].class)
+                    .setTupleTransformer((row, aliases) -> ItemProjection.toSummary(row, fields));
+            query.setParameter("catId", categoryId);
+            if (afterId != null) {
+                query.setParameter("afterId", afterId);
+            }
+            query.setMaxResults(limit);
+            query.setFetchSize(Math.min(limit, 500));
+
+            Transaction transaction = session.beginTransaction();
+            try (ScrollableResults<ItemSummaryDTO> results = query.scroll(ScrollMode.FORWARD_ONLY)) {
+                while (results.next()) {
+                    action.accept(results.get());
+                }
+                transaction.commit();
+            } catch (RuntimeException e) {
+                transaction.rollback();
+                throw e;
+            }
+        } catch (Exception e) {
+            throw new DatabaseException("Error fetching items for category: " + categoryId, e);
+        }
+    }
+
+    /**
+     * Count the items belonging to a category
+     * 
+     * @param categoryId Category ID
+     * @return Number of items
+     */
+    @Override
+    public long countItems(Long categoryId) {
+        try {
+            return Sessions.read(session -> {
+                Query<Long> query = session.createQuery(
+                    "SELECT COUNT(i) FROM Item i WHERE i.category.id = :catId", Long.class);
+                query.setParameter("catId", categoryId);
+                return query.getSingleResult();
+            });
+        } catch (Exception e) {
+            throw new DatabaseException("Error counting items for category: " + categoryId, e);
+        }
+    }
+
+    /**
+     * Count total number of categories
+     * 
+     * @return Total count
+     */
+    @Override
+    public long count() {
+        try {
+            return Sessions.read(session -> {
+                Query<Long> query = session.createQuery("SELECT COUNT(c) FROM Category c", Long.class);
+                return query.getSingleResult();
+            });
+        } catch (Exception e) {
+            throw new DatabaseException("Error counting categories", e);
+        }
+    }
+
+    /**
+     * Planner estimate of the number of categorys (PostgreSQL pg_class.reltuples)
+     * Cheap on any table size, but only as fresh as the last ANALYZE
+     * 
+     * @return Estimated count, or empty if the table was never analyzed
+     */
+    @Override
+    public Optional<Long> estimateCount() {
+        try {
+            return Sessions.read(session -> {
+                Long estimate = session.createNativeQuery(
+                        "SELECT CAST(reltuples AS bigint) FROM pg_class WHERE oid = to_regclass('category')", Long.class)
+                    .uniqueResult();
+                return estimate == null || estimate < 0 ? Optional.empty() : Optional.of(estimate);
+            });
+        } catch (Exception e) {
+            throw new DatabaseException("Error estimating category count", e);
+        }
+    }
+
+    /**
+     * Check if a category exists by ID
+     * 
+     * @param id Category ID
+     * @return true if exists
+     */
+    @Override
+    public boolean existsById(Long id) {
+        try {
+            return Sessions.read(session -> {
+                // Lookup by id, answered by the second-level cache when it is enabled
+                return session.get(Category.class, id) != null;
+            });
+        } catch (Exception e) {
+            throw new DatabaseException("Error checking category existence", e);
+        }
+    }
+
+    /**
+     * Find which of the given category IDs exist, with one set-based query
+     * per chunk of IN_CHUNK_SIZE values
+     * 
+     * @param ids Category IDs to check
+     * @return Subset of the IDs that exist
+     */
+    @Override
+    public Set<Long> findExistingIds(Collection<Long> ids) {
+        Set<Long> existing = new HashSet<>();
+        if (ids.isEmpty()) {
+            return existing;
+        }
+        try {
+            return Sessions.read(session -> {
+                List<Long> values = new ArrayList<>(ids);
+                for (int start = 0; start < values.size(); start += IN_CHUNK_SIZE) {
+                    Query<Long> query = session.createQuery(
+                        "SELECT c.id FROM Category c WHERE c.id IN :ids", Long.class);
+                    query.setParameter("ids", values.subList(start, Math.min(start + IN_CHUNK_SIZE, values.size())));
+                    existing.addAll(query.getResultList());
+                }
+                return existing;
+            });
+        } catch (Exception e) {
+            throw new DatabaseException("Error checking category existence", e);
+        }
+    }
+
+    /**
+     * Run each read query of this DAO once, with placeholder arguments
+     * (see HibernateItemDAO.warmUpQueries)
+     */
+    @Override
+    public void warmUpQueries() {
+        String code = "warm-up";
+        findAll(0, 1);
+        findAllAfter(null, 1);
+        findAllAfter(0L, 1);
+        findById(0L);
+        findUpdatedAt(0L);
+        findByCode(code);
+        forEachItemSummaryInCategory(0L, null, 1, ItemFields.ALL, item -> {});
+        forEachItemSummaryInCategory(0L, 0L, 1, ItemFields.ALL, item -> {});
+        countItems(0L);
+        count();
+        existsById(0L);
+        findExistingIds(List.of(0L));
+        existsByCode(code, null);
+        existsByCode(code, 0L);
+    }
+
+    /**
+     * Check if a category code already exists
+     * 
+     * @param code Category code
+     * @param excludeId ID to exclude (for updates)
+     * @return true if code exists
+     */
+    @Override
+    public boolean existsByCode(String code, Long excludeId) {
+        try {
+            return Sessions.read(session -> {
+                String hql = excludeId == null 
+                    ? "SELECT COUNT(c) FROM Category c WHERE c.code = :code"
+                    : "SELECT COUNT(c) FROM Category c WHERE c.code = :code AND c.id != :excludeId";
+            
+                Query<Long> query = session.createQuery(hql, Long.class);
+                query.setParameter("code", code);
+                if (excludeId != null) {
+                    query.setParameter("excludeId", excludeId);
+                }
+            
+                return query.getSingleResult() > 0;
+            });
+        } catch (Exception e) {
+            throw new DatabaseException("Error checking category code uniqueness", e);
+        }
+    }
+}
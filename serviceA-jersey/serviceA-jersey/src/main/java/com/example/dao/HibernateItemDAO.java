@@ -0,0 +1,865 @@
+package com.example.dao;
+
+import com.example.dto.ItemFields;
+import com.example.dto.ItemResponseDTO;
+import com.example.exception.DatabaseException;
+import com.example.mapper.ItemMapper;
+import com.example.model.Item;
+import com.example.util.HibernateUtil;
+import com.example.util.Prefetcher;
+import com.example.util.UnitOfWork;
+import org.hibernate.Hibernate;
+import org.hibernate.LockMode;
+import org.hibernate.ScrollMode;
+import org.hibernate.ScrollableResults;
+import org.hibernate.Session;
+import org.hibernate.SharedSessionContract;
+import org.hibernate.StatelessSession;
+import org.hibernate.Transaction;
+import org.hibernate.engine.spi.SharedSessionContractImplementor;
+import org.hibernate.query.Query;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
+
+/**
+ * ItemDAO backed by Hibernate
+ * Handles all database operations for Item
+ */
+public class HibernateItemDAO implements ItemDAO {
+
+    // Maximum number of values bound in one IN (...) list
+    private static final int IN_CHUNK_SIZE = 1000;
+
+    // Read path: item and category columns selected straight into the response DTO,
+    // no managed entity and no dirty-checking snapshot per row
+    private static final String RESPONSE_PROJECTION =
+        "SELECT new com.example.dto.ItemResponseDTO(i.id, i.sku, i.name, i.price, i.stock, i.updatedAt, "
+            + "c.id, c.code, c.name) FROM Item i LEFT JOIN i.category c";
+
+    /**
+     * Find all items with pagination, selected straight into response DTOs
+     * 
+     * @param page Page number (0-based)
+     * @param size Number of items per page
+     * @param fields Fields to select
+     * @return List of item DTOs
+     */
+    @Override
+    public List<ItemResponseDTO> findAllAsDTO(int page, int size, ItemFields fields) {
+        try {
+            return Sessions.project(session -> {
+                Query<ItemResponseDTO> query = projection(session, " ORDER BY i.id", fields, fields);
+                query.setFirstResult(page * size);
+                query.setMaxResults(size);
+                return query.list();
+            });
+        } catch (Exception e) {
+            throw new DatabaseException("Error fetching items", e);
+        }
+    }
+
+    /**
+     * Find the items that follow a given id (keyset pagination), selected
+     * straight into response DTOs
+     * Seeks on the primary key, so the cost does not grow with the page depth
+     * 
+     * @param afterId Last id already returned (null for the first page)
+     * @param limit Maximum number of items to return
+     * @param fields Fields to select
+     * @return List of item DTOs ordered by id
+     */
+    @Override
+    public List<ItemResponseDTO> findAllAfterAsDTO(Long afterId, int limit, ItemFields fields) {
+        try {
+            return Sessions.project(session -> {
+                String where = afterId == null
+                    ? " ORDER BY i.id"
+                    : " WHERE i.id > :afterId ORDER BY i.id";
+
+                Query<ItemResponseDTO> query = projection(session, where, fields, fields);
+                if (afterId != null) {
+                    query.setParameter("afterId", afterId);
+                }
+                query.setMaxResults(limit);
+                return query.list();
+            });
+        } catch (Exception e) {
+            throw new DatabaseException("Error fetching items after id: " + afterId, e);
+        }
+    }
+
+    /**
+     * Stream every item ordered by id without materialising the result
+     * Runs on a StatelessSession with a forward-only cursor and selects
+     * straight into DTOs, so memory stays constant whatever the table size
+     * 
+     * @param fetchSize Number of rows fetched per round trip
+     * @param fields Fields to select
+     * @param action Callback invoked for each item DTO, in id order
+     */
+    @Override
+    public void forEachAsDTO(int fetchSize, ItemFields fields, Consumer<ItemResponseDTO> action) {
+        try (StatelessSession session = HibernateUtil.getSessionFactory().openStatelessSession()) {
+            Query<ItemResponseDTO> query = projection(session, " ORDER BY i.id", fields, fields);
+            query.setFetchSize(fetchSize);
+            // Read on a prefetcher thread (exports): a failing consumer cancels the statement,
+            // as the driver ignores interrupts while it waits for the next rows
+            Prefetcher.onCancel(() -> ((SharedSessionContractImplementor) session).getJdbcCoordinator().cancelLastQuery());
+            scroll(session, query, action);
+        } catch (Exception e) {
+            throw new DatabaseException("Error streaming items", e);
+        }
+    }
+
+    /**
+     * Find an item by ID
+     * 
+     * @param id Item ID
+     * @return Optional containing the item if found
+     */
+    @Override
+    public Optional<Item> findById(Long id) {
+        try {
+            return Sessions.read(session -> {
+                if (HibernateUtil.isSecondLevelCacheEnabled()) {
+                    // Item and category both come from the second-level cache when present
+                    Item item = session.get(Item.class, id);
+                    if (item != null) {
+                        Hibernate.initialize(item.getCategory());
+                    }
+                    return Optional.ofNullable(item);
+                }
+                // Use JOIN FETCH to eagerly load the category relationship
+                Query<Item> query = session.createQuery(
+                    "FROM Item i LEFT JOIN FETCH i.category WHERE i.id = :id", Item.class);
+                query.setParameter("id", id);
+                return query.uniqueResultOptional();
+            });
+        } catch (Exception e) {
+            throw new DatabaseException("Error fetching item by id: " + id, e);
+        }
+    }
+
+    /**
+     * Find an item by ID as a response DTO
+     * Without the second-level cache, one projection query on a StatelessSession;
+     * with it, the entity path, which is answered from the cache. updatedAt is
+     * always read, even when not requested, for the response validators
+     * 
+     * @param id Item ID
+     * @param fields Fields to select
+     * @return Optional containing the item DTO if found
+     */
+    @Override
+    public Optional<ItemResponseDTO> findDTOById(Long id, ItemFields fields) {
+        if (HibernateUtil.isSecondLevelCacheEnabled()) {
+            return findById(id).map(item -> {
+                ItemResponseDTO dto = ItemMapper.toResponseDTO(item);
+                dto.setFields(fields.isAll() ? null : fields);
+                return dto;
+            });
+        }
+        try {
+            return Sessions.project(session -> projection(
+                    session, " WHERE i.id = :id", fields.with(ItemFields.Field.UPDATED_AT), fields)
+                .setParameter("id", id)
+                .uniqueResultOptional());
+        } catch (Exception e) {
+            throw new DatabaseException("Error fetching item by id: " + id, e);
+        }
+    }
+
+    /**
+     * Read the last modification time of an item, without loading the item
+     * and its category (from the second-level cache when it is enabled)
+     * 
+     * @param id Item ID
+     * @return updatedAt of the item, or empty if the item does not exist or
+     *         has never been stamped
+     */
+    @Override
+    public Optional<LocalDateTime> findUpdatedAt(Long id) {
+        try {
+            return Sessions.read(session -> {
+                if (HibernateUtil.isSecondLevelCacheEnabled()) {
+                    Item item = session.get(Item.class, id);
+                    return Optional.ofNullable(item == null ? null : item.getUpdatedAt());
+                }
+                Query<LocalDateTime> query = session.createQuery(
+                    "SELECT i.updatedAt FROM Item i WHERE i.id = :id", LocalDateTime.class);
+                query.setParameter("id", id);
+                return query.uniqueResultOptional();
+            });
+        } catch (Exception e) {
+            throw new DatabaseException("Error fetching item version: " + id, e);
+        }
+    }
+
+    /**
+     * Find an item by SKU
+     * 
+     * @param sku Item SKU
+     * @return Optional containing the item if found
+     */
+    @Override
+    public Optional<Item> findBySku(String sku) {
+        try {
+            return Sessions.read(session -> {
+                Query<Item> query = session.createQuery(
+                    "FROM Item i LEFT JOIN FETCH i.category WHERE i.sku = :sku", Item.class);
+                query.setParameter("sku", sku);
+                return query.uniqueResultOptional();
+            });
+        } catch (Exception e) {
+            throw new DatabaseException("Error fetching item by SKU: " + sku, e);
+        }
+    }
+
+    /**
+     * Save a new item
+     * 
+     * @param item Item to save
+     * @return Saved item with generated ID
+     */
+    @Override
+    public Item save(Item item) {
+        try {
+            return Sessions.write(session -> {
+                item.setUpdatedAt(LocalDateTime.now());
+                session.persist(item);
+                return item;
+            });
+        } catch (Exception e) {
+            throw new DatabaseException("Error saving item", e);
+        }
+    }
+
+    /**
+     * Insert many items in one session and transaction using JDBC batching
+     * Items use IDENTITY ids, which turn off Hibernate's own insert batching,
+     * so rows go through a batched PreparedStatement on the session connection.
+     * ON CONFLICT DO NOTHING skips the rows whose SKU was inserted since the
+     * caller checked it; generated keys come back with their SKU, so only the
+     * rows actually inserted get an id
+     * 
+     * @param items Items to insert (their category must be set)
+     * @param batchSize Number of rows sent per JDBC batch
+     * @return The same items, with their generated IDs; skipped ones keep a null ID
+     */
+    @Override
+    public List<Item> saveAll(List<Item> items, int batchSize) {
+        try {
+            return Sessions.write(session -> {
+                LocalDateTime now = LocalDateTime.now();
+                session.doWork(connection -> {
+                    try (PreparedStatement statement = connection.prepareStatement(
+                            "INSERT INTO item (sku, name, price, stock, updatedAt, category_id) VALUES (?, ?, ?, ?, ?, ?)"
+                                + " ON CONFLICT DO NOTHING",
+                            new String[] {"id", "sku"})) {
+                        for (int start = 0; start < items.size(); start += batchSize) {
+                            List<Item> chunk = items.subList(start, Math.min(start + batchSize, items.size()));
+                            Map<String, Item> bySku = new HashMap<>();
+                            for (Item item : chunk) {
+                                bySku.put(item.getSku(), item);
+                                item.setUpdatedAt(now);
+                                statement.setString(1, item.getSku());
+                                statement.setString(2, item.getName());
+                                statement.setBigDecimal(3, item.getPrice());
+                                statement.setInt(4, item.getStock());
+                                statement.setTimestamp(5, Timestamp.valueOf(now));
+                                statement.setLong(6, item.getCategory().getId());
+                                statement.addBatch();
+                            }
+                            statement.executeBatch();
+                            try (ResultSet keys = statement.getGeneratedKeys()) {
+                                while (keys.next()) {
+                                    Item item = bySku.get(keys.getString(2));
+                                    if (item == null) {
+                                        throw new SQLException("Generated key for unknown SKU " + keys.getString(2));
+                                    }
+                                    item.setId(keys.getLong(1));
+                                }
+                            }
+                        }
+                    }
+                });
+                return items;
+            });
+        } catch (Exception e) {
+            throw new DatabaseException("Error saving items batch", e);
+        }
+    }
+
+    /**
+     * Update an existing item
+     * 
+     * @param item Item to update
+     * @return Updated item
+     */
+    @Override
+    public Item update(Item item) {
+        try {
+            return Sessions.write(session -> {
+                item.setUpdatedAt(LocalDateTime.now());
+                return session.merge(item);
+            });
+        } catch (Exception e) {
+            throw new DatabaseException("Error updating item", e);
+        }
+    }
+
+    /**
+     * Add a (possibly negative) quantity to the stock of an item so that
+     * concurrent adjustments cannot overwrite each other and the stock can
+     * never go below zero
+     * Without the second-level cache, one conditional UPDATE in plain JDBC.
+     * With it, the row is read with SELECT ... FOR UPDATE and changed through
+     * the entity, so Hibernate soft-locks the cached copy until the commit:
+     * a plain JDBC update would let the cache serve the old stock (and the
+     * old updatedAt behind the ETags) until its entry expires
+     * 
+     * @param id Item ID
+     * @param delta Quantity to add to the stock
+     * @return The updated item, or empty if the item does not exist or has
+     *         not enough stock
+     */
+    @Override
+    public Optional<Item> adjustStock(Long id, int delta) {
+        try {
+            return Sessions.write(session -> {
+                // JDBC does not flush: push pending changes, and forget any copy of
+                // the row the session already holds so that the reload sees the new stock
+                session.flush();
+                session.evict(session.getReference(Item.class, id));
+                if (HibernateUtil.isSecondLevelCacheEnabled()) {
+                    return adjustLocked(session, id, delta);
+                }
+                int updated = session.doReturningWork(connection -> {
+                    try (PreparedStatement statement = connection.prepareStatement(
+                            "UPDATE item SET stock = stock + ?, updatedAt = ? WHERE id = ? AND stock + ? >= 0")) {
+                        statement.setInt(1, delta);
+                        statement.setTimestamp(2, Timestamp.valueOf(LocalDateTime.now()));
+                        statement.setLong(3, id);
+                        statement.setInt(4, delta);
+                        return statement.executeUpdate();
+                    }
+                });
+                if (updated == 0) {
+                    return Optional.<Item>empty();
+                }
+                return session.createQuery(
+                        "FROM Item i LEFT JOIN FETCH i.category WHERE i.id = :id", Item.class)
+                    .setParameter("id", id)
+                    .uniqueResultOptional();
+            });
+        } catch (Exception e) {
+            throw new DatabaseException("Error adjusting stock of item: " + id, e);
+        }
+    }
+
+    /**
+     * Take stock from several items in one transaction, all or nothing
+     * Without the second-level cache, every line is a conditional UPDATE sent
+     * in one JDBC batch; with it, the rows are locked and changed through the
+     * entities (see adjustStock). Rows are locked in the iteration order, so
+     * callers should pass ids sorted to keep concurrent reservations from
+     * deadlocking
+     * 
+     * @param quantities Quantity to take per item ID
+     * @param batchSize Number of statements sent per JDBC batch
+     * @return IDs whose line could not be applied (unknown item or not enough
+     *         stock); when not empty, nothing was reserved
+     */
+    @Override
+    public List<Long> reserveStock(Map<Long, Integer> quantities, int batchSize) {
+        try {
+            return Sessions.write(session -> {
+                List<Long> ids = new ArrayList<>(quantities.keySet());
+                if (HibernateUtil.isSecondLevelCacheEnabled()) {
+                    return reserveLocked(session, quantities, ids, batchSize);
+                }
+                List<Long> failed = new ArrayList<>();
+                Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+                session.doWork(connection -> {
+                    try (PreparedStatement statement = connection.prepareStatement(
+                            "UPDATE item SET stock = stock - ?, updatedAt = ? WHERE id = ? AND stock >= ?")) {
+                        for (int start = 0; start < ids.size(); start += batchSize) {
+                            List<Long> chunk = ids.subList(start, Math.min(start + batchSize, ids.size()));
+                            for (Long id : chunk) {
+                                int quantity = quantities.get(id);
+                                statement.setInt(1, quantity);
+                                statement.setTimestamp(2, now);
+                                statement.setLong(3, id);
+                                statement.setInt(4, quantity);
+                                statement.addBatch();
+                            }
+                            int[] counts = statement.executeBatch();
+                            for (int k = 0; k < counts.length; k++) {
+                                if (counts[k] == 0) {
+                                    failed.add(chunk.get(k));
+                                }
+                            }
+                        }
+                    }
+                });
+                if (!failed.isEmpty()) {
+                    // All or nothing: the lines already applied go away with the transaction
+                    UnitOfWork.current().setRollbackOnly();
+                }
+                return failed;
+            });
+        } catch (Exception e) {
+            throw new DatabaseException("Error reserving stock", e);
+        }
+    }
+
+    // Cached path of adjustStock: SELECT ... FOR UPDATE skips the cache, and the
+    // entity change soft-locks the cached copy until the commit replaces it
+    private static Optional<Item> adjustLocked(Session session, Long id, int delta) {
+        Item item = session.get(Item.class, id, LockMode.PESSIMISTIC_WRITE);
+        if (item == null || (long) item.getStock() + delta < 0) {
+            return Optional.empty();
+        }
+        item.setStock(item.getStock() + delta);
+        item.setUpdatedAt(LocalDateTime.now());
+        Hibernate.initialize(item.getCategory());
+        return Optional.of(item);
+    }
+
+    // Cached path of reserveStock: every line is checked before any entity is
+    // changed, so a failed reservation leaves nothing to flush
+    private static List<Long> reserveLocked(Session session, Map<Long, Integer> quantities,
+                                            List<Long> ids, int batchSize) {
+        Map<Long, Item> locked = new HashMap<>();
+        for (int start = 0; start < ids.size(); start += batchSize) {
+            session.createQuery("FROM Item i WHERE i.id IN :ids ORDER BY i.id", Item.class)
+                .setParameter("ids", ids.subList(start, Math.min(start + batchSize, ids.size())))
+                .setHibernateLockMode(LockMode.PESSIMISTIC_WRITE)
+                .getResultList()
+                .forEach(item -> locked.put(item.getId(), item));
+        }
+        List<Long> failed = new ArrayList<>();
+        for (Long id : ids) {
+            Item item = locked.get(id);
+            if (item == null || item.getStock() < quantities.get(id)) {
+                failed.add(id);
+            }
+        }
+        if (failed.isEmpty()) {
+            LocalDateTime now = LocalDateTime.now();
+            for (Long id : ids) {
+                Item item = locked.get(id);
+                item.setStock(item.getStock() - quantities.get(id));
+                item.setUpdatedAt(now);
+            }
+        }
+        return failed;
+    }
+
+    /**
+     * Read the current stock of the given items
+     * 
+     * @param ids Item IDs
+     * @return Stock per item ID, for the items that exist
+     */
+    @Override
+    public Map<Long, Integer> findStocks(Collection<Long> ids) {
+        Map<Long, Integer> stocks = new HashMap<>();
+        if (ids.isEmpty()) {
+            return stocks;
+        }
+        try {
+            return Sessions.read(session -> {
+                List<Long> values = new ArrayList<>(ids);
+                for (int start = 0; start < values.size(); start += IN_CHUNK_SIZE) {
+                    Query<Object[]> query = session.createQuery(
+                        "SELECT i.id, i.stock FROM Item i WHERE i.id IN :ids", Object[].class);
+                    query.setParameter("ids", values.subList(start, Math.min(start + IN_CHUNK_SIZE, values.size())));
+                    for (Object[] row : query.getResultList()) {
+                        stocks.put((Long) row[0], (Integer) row[1]);
+                    }
+                }
+                return stocks;
+            });
+        } catch (Exception e) {
+            throw new DatabaseException("Error fetching item stocks", e);
+        }
+    }
+
+    /**
+     * Delete an item by ID
+     * 
+     * @param id Item ID
+     * @return true if deleted, false if not found
+     */
+    @Override
+    public boolean delete(Long id) {
+        try {
+            return Sessions.write(session -> {
+                Item item = session.get(Item.class, id);
+                if (item == null) {
+                    return false;
+                }
+                session.remove(item);
+                return true;
+            });
+        } catch (Exception e) {
+            throw new DatabaseException("Error deleting item", e);
+        }
+    }
+
+    /**
+     * Search items by name (case-insensitive)
+     * 
+     * @param keyword Search keyword
+     * @param limit Maximum number of items to return
+     * @return List of matching items
+     */
+    @Override
+    public List<Item> searchByName(String keyword, int limit) {
+        try {
+            return Sessions.read(session -> {
+                Query<Item> query = session.createQuery(
+                    "FROM Item i LEFT JOIN FETCH i.category WHERE LOWER(i.name) LIKE LOWER(:kw) ORDER BY i.id", Item.class);
+                query.setParameter("kw", "%" + keyword + "%");
+                query.setMaxResults(limit);
+                return query.getResultList();
+            });
+        } catch (Exception e) {
+            throw new DatabaseException("Error searching items by name", e);
+        }
+    }
+
+    /**
+     * Find items by IDs
+     * 
+     * @param ids Item IDs
+     * @return Items found, in no particular order
+     */
+    @Override
+    public List<Item> findByIds(Collection<Long> ids) {
+        if (ids.isEmpty()) {
+            return new ArrayList<>();
+        }
+        try {
+            return Sessions.read(session -> {
+                if (HibernateUtil.isSecondLevelCacheEnabled()) {
+                    // Only the ids missing from the second-level cache are read from the database
+                    List<Item> items = new ArrayList<>(ids.size());
+                    for (Item item : session.byMultipleIds(Item.class).multiLoad(new ArrayList<>(ids))) {
+                        if (item != null) {
+                            Hibernate.initialize(item.getCategory());
+                            items.add(item);
+                        }
+                    }
+                    return items;
+                }
+                Query<Item> query = session.createQuery(
+                    "FROM Item i LEFT JOIN FETCH i.category WHERE i.id IN :ids", Item.class);
+                query.setParameter("ids", ids);
+                return query.getResultList();
+            });
+        } catch (Exception e) {
+            throw new DatabaseException("Error fetching items by ids", e);
+        }
+    }
+
+    /**
+     * Stream the id and name of every item (used to build the search index)
+     * 
+     * @param fetchSize Number of rows fetched per round trip
+     * @param action Callback receiving each (id, name) pair, in id order
+     */
+    @Override
+    public void forEachName(int fetchSize, BiConsumer<Long, String> action) {
+        try (StatelessSession session = HibernateUtil.getSessionFactory().openStatelessSession()) {
+            Query<Object[]> query = session.createQuery(
+                "SELECT i.id, i.name FROM Item i ORDER BY i.id", Object[].class);
+            query.setFetchSize(fetchSize);
+            scroll(session, query, row -> action.accept((Long) row[0], (String) row[1]));
+        } catch (Exception e) {
+            throw new DatabaseException("Error streaming item names", e);
+        }
+    }
+
+    /**
+     * Stream one bounded page of the items of a category (keyset pagination)
+     * Rows are selected straight into DTOs and handed to the callback as
+     * they are read, never collected
+     * 
+     * @param categoryId Category ID
+     * @param afterId Last id already returned (null for the first page)
+     * @param limit Maximum number of items to read
+     * @param fields Fields to select
+     * @param action Callback invoked for each item DTO, in id order
+     */
+    @Override
+    public void forEachAsDTOByCategory(Long categoryId, Long afterId, int limit, ItemFields fields,
+                                       Consumer<ItemResponseDTO> action) {
+        try (StatelessSession session = HibernateUtil.getSessionFactory().openStatelessSession()) {
+            // Filter on the foreign key, so that the category is only joined when selected
+            String where = afterId == null
+                ? " WHERE i.category.id = :catId ORDER BY i.id"
+                : " WHERE i.category.id = :catId AND i.id > :afterId ORDER BY i.id";
+
+            Query<ItemResponseDTO> query = projection(session, where, fields, fields);
+            query.setParameter("catId", categoryId);
+            if (afterId != null) {
+                query.setParameter("afterId", afterId);
+            }
+            query.setMaxResults(limit);
+            query.setFetchSize(Math.min(limit, 500));
+            scroll(session, query, action);
+        } catch (Exception e) {
+            throw new DatabaseException("Error fetching items by category", e);
+        }
+    }
+
+    /**
+     * Find the smallest and largest item id
+     * 
+     * @return Id range, or empty if there is no item
+     */
+    @Override
+    public Optional<IdRange> findIdRange() {
+        try {
+            return Sessions.read(session -> {
+                Object[] row = session.createQuery("SELECT MIN(i.id), MAX(i.id) FROM Item i", Object[].class)
+                    .getSingleResult();
+                return row[0] == null ? Optional.empty() : Optional.of(new IdRange((Long) row[0], (Long) row[1]));
+            });
+        } catch (Exception e) {
+            throw new DatabaseException("Error fetching item id range", e);
+        }
+    }
+
+    /**
+     * Stream the category, price and stock of the items of an id range
+     * Plain JDBC on a stateless session of its own: columns are read as
+     * primitives (price already in cents), no entity or BigDecimal per row
+     * 
+     * @param fromId First id of the range (inclusive)
+     * @param toId End of the range (exclusive)
+     * @param fetchSize Number of rows read at a time
+     * @param action Callback receiving each line
+     */
+    @Override
+    public void forEachStockLine(long fromId, long toId, int fetchSize, StockLineConsumer action) {
+        try (StatelessSession session = HibernateUtil.getSessionFactory().openStatelessSession()) {
+            // Inside a transaction, so that PostgreSQL honours the fetch size instead of reading the whole range
+            Transaction transaction = session.beginTransaction();
+            try {
+                session.doWork(connection -> {
+                    try (PreparedStatement statement = connection.prepareStatement(
+                            "SELECT COALESCE(category_id, 0), COALESCE(CAST(price * 100 AS BIGINT), -1), stock"
+                                + " FROM item WHERE id >= ? AND id < ?")) {
+                        statement.setLong(1, fromId);
+                        statement.setLong(2, toId);
+                        statement.setFetchSize(fetchSize);
+                        try (ResultSet rows = statement.executeQuery()) {
+                            while (rows.next()) {
+                                action.accept(rows.getLong(1), rows.getLong(2), rows.getInt(3));
+                            }
+                        }
+                    }
+                });
+                transaction.commit();
+            } catch (RuntimeException e) {
+                transaction.rollback();
+                throw e;
+            }
+        } catch (Exception e) {
+            throw new DatabaseException("Error scanning items " + fromId + " to " + toId, e);
+        }
+    }
+
+    /**
+     * Count total number of items
+     * 
+     * @return Total count
+     */
+    @Override
+    public long count() {
+        try {
+            return Sessions.read(session -> {
+                Query<Long> query = session.createQuery("SELECT COUNT(i) FROM Item i", Long.class);
+                return query.getSingleResult();
+            });
+        } catch (Exception e) {
+            throw new DatabaseException("Error counting items", e);
+        }
+    }
+
+    /**
+     * Planner estimate of the number of items (PostgreSQL pg_class.reltuples)
+     * Cheap on any table size, but only as fresh as the last ANALYZE
+     * 
+     * @return Estimated count, or empty if the table was never analyzed
+     */
+    @Override
+    public Optional<Long> estimateCount() {
+        try {
+            return Sessions.read(session -> {
+                Long estimate = session.createNativeQuery(
+                        "SELECT CAST(reltuples AS bigint) FROM pg_class WHERE oid = to_regclass('item')", Long.class)
+                    .uniqueResult();
+                return estimate == null || estimate < 0 ? Optional.empty() : Optional.of(estimate);
+            });
+        } catch (Exception e) {
+            throw new DatabaseException("Error estimating item count", e);
+        }
+    }
+
+    /**
+     * Check if an item exists by ID
+     * 
+     * @param id Item ID
+     * @return true if exists
+     */
+    @Override
+    public boolean existsById(Long id) {
+        try {
+            return Sessions.read(session -> {
+                // Lookup by id, answered by the second-level cache when it is enabled
+                return session.get(Item.class, id) != null;
+            });
+        } catch (Exception e) {
+            throw new DatabaseException("Error checking item existence", e);
+        }
+    }
+
+    /**
+     * Find which of the given SKUs are already taken, with one set-based query
+     * per chunk of IN_CHUNK_SIZE values
+     * 
+     * @param skus SKUs to check
+     * @return Subset of the SKUs that already exist
+     */
+    @Override
+    public Set<String> findExistingSkus(Collection<String> skus) {
+        Set<String> existing = new HashSet<>();
+        if (skus.isEmpty()) {
+            return existing;
+        }
+        try {
+            return Sessions.read(session -> {
+                List<String> values = new ArrayList<>(skus);
+                for (int start = 0; start < values.size(); start += IN_CHUNK_SIZE) {
+                    Query<String> query = session.createQuery(
+                        "SELECT i.sku FROM Item i WHERE i.sku IN :skus", String.class);
+                    query.setParameter("skus", values.subList(start, Math.min(start + IN_CHUNK_SIZE, values.size())));
+                    existing.addAll(query.getResultList());
+                }
+                return existing;
+            });
+        } catch (Exception e) {
+            throw new DatabaseException("Error checking item SKU uniqueness", e);
+        }
+    }
+
+    /**
+     * Check if an item SKU already exists
+     * 
+     * @param sku Item SKU
+     * @param excludeId ID to exclude (for updates)
+     * @return true if SKU exists
+     */
+    @Override
+    public boolean existsBySku(String sku, Long excludeId) {
+        try {
+            return Sessions.read(session -> {
+                String hql = excludeId == null 
+                    ? "SELECT COUNT(i) FROM Item i WHERE i.sku = :sku"
+                    : "SELECT COUNT(i) FROM Item i WHERE i.sku = :sku AND i.id != :excludeId";
+            
+                Query<Long> query = session.createQuery(hql, Long.class);
+                query.setParameter("sku", sku);
+                if (excludeId != null) {
+                    query.setParameter("excludeId", excludeId);
+                }
+            
+                return query.getSingleResult() > 0;
+            });
+        } catch (Exception e) {
+            throw new DatabaseException("Error checking item SKU uniqueness", e);
+        }
+    }
+
+    /**
+     * Run each read query of this DAO once, with placeholder arguments
+     * Hibernate parses the HQL and caches its plan on first use, so this
+     * moves that cost (and the first JDBC round trips) out of the first requests
+     */
+    @Override
+    public void warmUpQueries() {
+        String sku = "warm-up";
+        Consumer<ItemResponseDTO> ignore = item -> {};
+        findAllAsDTO(0, 1, ItemFields.ALL);
+        findAllAfterAsDTO(null, 1, ItemFields.ALL);
+        findAllAfterAsDTO(0L, 1, ItemFields.ALL);
+        findDTOById(0L, ItemFields.ALL);
+        findById(0L);
+        findUpdatedAt(0L);
+        findBySku(sku);
+        findStocks(List.of(0L));
+        searchByName(sku, 1);
+        findByIds(List.of(0L));
+        forEachAsDTOByCategory(0L, null, 1, ItemFields.ALL, ignore);
+        forEachAsDTOByCategory(0L, 0L, 1, ItemFields.ALL, ignore);
+        findIdRange();
+        count();
+        existsById(0L);
+        findExistingSkus(List.of(sku));
+        existsBySku(sku, null);
+        existsBySku(sku, 0L);
+    }
+
+    /**
+     * Projection query returning response DTOs
+     * The full representation keeps the constructor expression; a sparse
+     * fieldset selects only its columns, mapped by ItemProjection
+     * 
+     * @param where Clauses appended after the FROM (filters, ordering)
+     * @param selected Fields to read from the database
+     * @param fields Fields to serialize (a subset of the selected ones)
+     */
+    private static Query<ItemResponseDTO> projection(SharedSessionContract session, String where,
+                                                     ItemFields selected, ItemFields fields) {
+        if (fields.isAll()) {
+            return session.createQuery(RESPONSE_PROJECTION + where, ItemResponseDTO.class);
+        }
+        return session.createQuery(ItemProjection.selectFrom(selected) + where, Object[].class)
+            .setTupleTransformer((row, aliases) -> ItemProjection.toResponse(row, selected, fields));
+    }
+
+    /**
+     * Run a query through a forward-only cursor inside a read transaction
+     * (PostgreSQL only honours the fetch size when autocommit is off)
+     */
+    private static <T> void scroll(StatelessSession session, Query<T> query, Consumer<T> action) {
+        Transaction transaction = session.beginTransaction();
+        try (ScrollableResults<T> results = query.scroll(ScrollMode.FORWARD_ONLY)) {
+            while (results.next()) {
+                action.accept(results.get());
+            }
+            transaction.commit();
+        } catch (RuntimeException e) {
+            transaction.rollback();
+            throw e;
+        }
+    }
+}
@@ -0,0 +1,199 @@
+package com.example.dao;
+
+import com.example.dao.InMemoryStore.CategoryRow;
+import com.example.dto.ItemFields;
+import com.example.dto.ItemSummaryDTO;
+import com.example.exception.DatabaseException;
+import com.example.model.Category;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.Consumer;
+
+/**
+ * CategoryDAO kept in memory (storage.type=memory), see InMemoryItemDAO
+ * Unique codes and the item foreign key are enforced like in the database
+ */
+public class InMemoryCategoryDAO implements CategoryDAO {
+
+    private final InMemoryStore store = InMemoryStore.getInstance();
+
+    @Override
+    public List<Category> findAll(int page, int size) {
+        return store.read(() -> {
+            List<Category> result = new ArrayList<>(size);
+            long from = (long) page * size;
+            for (long i = from; i < store.categoryIds.size() && i < from + size; i++) {
+                result.add(InMemoryStore.toCategory(store.categories.get(store.categoryIds.get((int) i))));
+            }
+            return result;
+        });
+    }
+
+    @Override
+    public List<Category> findAllAfter(Long afterId, int limit) {
+        return store.read(() -> {
+            List<Category> result = new ArrayList<>(limit);
+            int from = afterId == null ? 0 : store.categoryIds.indexAfter(afterId);
+            for (int i = from; i < store.categoryIds.size() && result.size() < limit; i++) {
+                result.add(InMemoryStore.toCategory(store.categories.get(store.categoryIds.get(i))));
+            }
+            return result;
+        });
+    }
+
+    @Override
+    public Optional<Category> findById(Long id) {
+        return store.read(() -> Optional.ofNullable(store.categories.get(id)).map(InMemoryStore::toCategory));
+    }
+
+    @Override
+    public Optional<LocalDateTime> findUpdatedAt(Long id) {
+        return store.read(() -> Optional.ofNullable(store.categories.get(id)).map(CategoryRow::updatedAt));
+    }
+
+    @Override
+    public Optional<Category> findByCode(String code) {
+        return store.read(() -> Optional.ofNullable(store.categoryIdsByCode.get(code))
+            .map(id -> InMemoryStore.toCategory(store.categories.get(id))));
+    }
+
+    @Override
+    public Category save(Category category) {
+        return store.write(() -> {
+            checkRow(category, null, "Error saving category");
+            category.setId(store.nextCategoryId());
+            category.setUpdatedAt(LocalDateTime.now());
+            store.putCategory(toRow(category));
+            return category;
+        });
+    }
+
+    @Override
+    public Category update(Category category) {
+        return store.write(() -> {
+            if (category.getId() == null || store.categories.get(category.getId()) == null) {
+                throw new DatabaseException("Error updating category",
+                    new IllegalStateException("No category with id " + category.getId()));
+            }
+            checkRow(category, category.getId(), "Error updating category");
+            category.setUpdatedAt(LocalDateTime.now());
+            CategoryRow row = toRow(category);
+            store.putCategory(row);
+            return InMemoryStore.toCategory(row);
+        });
+    }
+
+    @Override
+    public boolean delete(Long id) {
+        return store.write(() -> {
+            if (store.categories.get(id) == null) {
+                return false;
+            }
+            LongSortedSet items = store.itemIdsByCategory.get(id);
+            if (items != null && items.size() > 0) {
+                // Same outcome as the foreign key of the item table
+                throw new DatabaseException("Error deleting category",
+                    new IllegalStateException("Category " + id + " still has items"));
+            }
+            store.removeCategory(id);
+            return true;
+        });
+    }
+
+    @Override
+    public void forEachItemSummaryInCategory(Long categoryId, Long afterId, int limit, ItemFields fields,
+                                             Consumer<ItemSummaryDTO> action) {
+        List<ItemSummaryDTO> page = store.read(() -> {
+            List<ItemSummaryDTO> result = new ArrayList<>();
+            LongSortedSet ids = store.itemIdsByCategory.get(categoryId);
+            if (ids == null) {
+                return result;
+            }
+            for (int i = afterId == null ? 0 : ids.indexAfter(afterId); i < ids.size() && result.size() < limit; i++) {
+                result.add(InMemoryStore.toSummary(store.items.get(ids.get(i)), fields));
+            }
+            return result;
+        });
+        page.forEach(action);
+    }
+
+    @Override
+    public long countItems(Long categoryId) {
+        return store.read(() -> {
+            LongSortedSet ids = store.itemIdsByCategory.get(categoryId);
+            return ids == null ? 0L : (long) ids.size();
+        });
+    }
+
+    @Override
+    public long count() {
+        return store.read(() -> (long) store.categories.size());
+    }
+
+    @Override
+    public Optional<Long> estimateCount() {
+        return Optional.of(count());
+    }
+
+    @Override
+    public boolean existsById(Long id) {
+        return store.read(() -> store.categories.get(id) != null);
+    }
+
+    @Override
+    public Set<Long> findExistingIds(Collection<Long> ids) {
+        return store.read(() -> {
+            Set<Long> existing = new HashSet<>();
+            for (Long id : ids) {
+                if (store.categories.get(id) != null) {
+                    existing.add(id);
+                }
+            }
+            return existing;
+        });
+    }
+
+    @Override
+    public boolean existsByCode(String code, Long excludeId) {
+        return store.read(() -> {
+            Long id = store.categoryIdsByCode.get(code);
+            return id != null && !id.equals(excludeId);
+        });
+    }
+
+    @Override
+    public void warmUpQueries() {
+        // No query to parse and no connection to open
+    }
+
+    /**
+     * Check the constraints of the category table (write lock held)
+     *
+     * @param excludeId Category being updated, null for inserts
+     * @throws DatabaseException on a violation, as the database would
+     */
+    private void checkRow(Category category, Long excludeId, String message) {
+        String violation = null;
+        if (category.getCode() == null || category.getName() == null) {
+            violation = "Code and name cannot be null";
+        } else {
+            Long owner = store.categoryIdsByCode.get(category.getCode());
+            if (owner != null && !owner.equals(excludeId)) {
+                violation = "Duplicate code " + category.getCode();
+            }
+        }
+        if (violation != null) {
+            throw new DatabaseException(message, new IllegalStateException(violation));
+        }
+    }
+
+    private static CategoryRow toRow(Category category) {
+        return new CategoryRow(category.getId(), category.getCode(), category.getName(), category.getUpdatedAt());
+    }
+}
@@ -0,0 +1,360 @@
+package com.example.dao;
+
+import com.example.dao.InMemoryStore.ItemRow;
+import com.example.dto.ItemFields;
+import com.example.dto.ItemResponseDTO;
+import com.example.exception.DatabaseException;
+import com.example.model.Item;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
+
+/**
+ * ItemDAO kept in memory (storage.type=memory), to measure the HTTP and JSON
+ * stack without a database
+ * The constraints of the item table are checked the same way (unique SKU,
+ * existing category), and violations are reported as DatabaseException like
+ * the database ones. Changes apply at once and are undone if the request's
+ * unit of work rolls back (see InMemoryStore)
+ */
+public class InMemoryItemDAO implements ItemDAO {
+
+    private final InMemoryStore store = InMemoryStore.getInstance();
+
+    @Override
+    public List<ItemResponseDTO> findAllAsDTO(int page, int size, ItemFields fields) {
+        return store.read(() -> {
+            List<ItemResponseDTO> result = new ArrayList<>(size);
+            long from = (long) page * size;
+            for (long i = from; i < store.itemIds.size() && i < from + size; i++) {
+                result.add(store.toResponse(store.items.get(store.itemIds.get((int) i)), fields));
+            }
+            return result;
+        });
+    }
+
+    @Override
+    public List<ItemResponseDTO> findAllAfterAsDTO(Long afterId, int limit, ItemFields fields) {
+        return store.read(() -> {
+            List<ItemResponseDTO> result = new ArrayList<>(limit);
+            int from = afterId == null ? 0 : store.itemIds.indexAfter(afterId);
+            for (int i = from; i < store.itemIds.size() && result.size() < limit; i++) {
+                result.add(store.toResponse(store.items.get(store.itemIds.get(i)), fields));
+            }
+            return result;
+        });
+    }
+
+    @Override
+    public void forEachAsDTO(int fetchSize, ItemFields fields, Consumer<ItemResponseDTO> action) {
+        // Chunks copied under the lock, handed out after it: a slow consumer never holds writers back
+        List<ItemResponseDTO> chunk = findAllAfterAsDTO(null, fetchSize, fields);
+        while (!chunk.isEmpty()) {
+            chunk.forEach(action);
+            chunk = findAllAfterAsDTO(chunk.get(chunk.size() - 1).getId(), fetchSize, fields);
+        }
+    }
+
+    @Override
+    public Optional<Item> findById(Long id) {
+        return store.read(() -> Optional.ofNullable(store.items.get(id)).map(store::toItem));
+    }
+
+    @Override
+    public Optional<ItemResponseDTO> findDTOById(Long id, ItemFields fields) {
+        return store.read(() -> Optional.ofNullable(store.items.get(id)).map(row -> store.toResponse(row, fields)));
+    }
+
+    @Override
+    public Optional<LocalDateTime> findUpdatedAt(Long id) {
+        return store.read(() -> Optional.ofNullable(store.items.get(id)).map(ItemRow::updatedAt));
+    }
+
+    @Override
+    public Optional<Item> findBySku(String sku) {
+        return store.read(() -> Optional.ofNullable(store.itemIdsBySku.get(sku))
+            .map(id -> store.toItem(store.items.get(id))));
+    }
+
+    @Override
+    public Item save(Item item) {
+        return store.write(() -> {
+            checkRow(item, null, "Error saving item");
+            LocalDateTime now = LocalDateTime.now();
+            item.setId(store.nextItemId());
+            item.setUpdatedAt(now);
+            store.putItem(toRow(item));
+            return item;
+        });
+    }
+
+    @Override
+    public List<Item> saveAll(List<Item> items, int batchSize) {
+        return store.write(() -> {
+            // Taken SKUs are skipped like ON CONFLICT DO NOTHING; any other violation fails the whole batch
+            Set<String> skus = new HashSet<>();
+            List<Item> inserted = new ArrayList<>(items.size());
+            for (Item item : items) {
+                if (item.getSku() != null && (store.itemIdsBySku.containsKey(item.getSku()) || !skus.add(item.getSku()))) {
+                    continue;
+                }
+                checkRow(item, null, "Error saving items batch");
+                inserted.add(item);
+            }
+            LocalDateTime now = LocalDateTime.now();
+            for (Item item : inserted) {
+                item.setId(store.nextItemId());
+                item.setUpdatedAt(now);
+                store.putItem(toRow(item));
+            }
+            return items;
+        });
+    }
+
+    @Override
+    public Item update(Item item) {
+        return store.write(() -> {
+            if (item.getId() == null || store.items.get(item.getId()) == null) {
+                throw new DatabaseException("Error updating item",
+                    new IllegalStateException("No item with id " + item.getId()));
+            }
+            checkRow(item, item.getId(), "Error updating item");
+            item.setUpdatedAt(LocalDateTime.now());
+            ItemRow row = toRow(item);
+            store.putItem(row);
+            return store.toItem(row);
+        });
+    }
+
+    @Override
+    public Optional<Item> adjustStock(Long id, int delta) {
+        return store.write(() -> {
+            ItemRow row = store.items.get(id);
+            if (row == null || (long) row.stock() + delta < 0) {
+                return Optional.<Item>empty();
+            }
+            ItemRow updated = row.withStock(row.stock() + delta, LocalDateTime.now());
+            store.putItem(updated);
+            return Optional.of(store.toItem(updated));
+        });
+    }
+
+    @Override
+    public List<Long> reserveStock(Map<Long, Integer> quantities, int batchSize) {
+        return store.write(() -> {
+            List<Long> failed = new ArrayList<>();
+            for (Map.Entry<Long, Integer> line : quantities.entrySet()) {
+                ItemRow row = store.items.get(line.getKey());
+                if (row == null || row.stock() < line.getValue()) {
+                    failed.add(line.getKey());
+                }
+            }
+            if (failed.isEmpty()) {
+                LocalDateTime now = LocalDateTime.now();
+                for (Map.Entry<Long, Integer> line : quantities.entrySet()) {
+                    ItemRow row = store.items.get(line.getKey());
+                    store.putItem(row.withStock(row.stock() - line.getValue(), now));
+                }
+            }
+            return failed;
+        });
+    }
+
+    @Override
+    public Map<Long, Integer> findStocks(Collection<Long> ids) {
+        return store.read(() -> {
+            Map<Long, Integer> stocks = new HashMap<>();
+            for (Long id : ids) {
+                ItemRow row = store.items.get(id);
+                if (row != null) {
+                    stocks.put(id, row.stock());
+                }
+            }
+            return stocks;
+        });
+    }
+
+    @Override
+    public boolean delete(Long id) {
+        return store.write(() -> store.removeItem(id) != null);
+    }
+
+    @Override
+    public List<Item> searchByName(String keyword, int limit) {
+        String needle = keyword.toLowerCase(Locale.ROOT);
+        return store.read(() -> {
+            List<Item> result = new ArrayList<>();
+            for (int i = 0; i < store.itemIds.size() && result.size() < limit; i++) {
+                ItemRow row = store.items.get(store.itemIds.get(i));
+                if (row.name().toLowerCase(Locale.ROOT).contains(needle)) {
+                    result.add(store.toItem(row));
+                }
+            }
+            return result;
+        });
+    }
+
+    @Override
+    public List<Item> findByIds(Collection<Long> ids) {
+        return store.read(() -> {
+            List<Item> result = new ArrayList<>(ids.size());
+            for (Long id : ids) {
+                ItemRow row = store.items.get(id);
+                if (row != null) {
+                    result.add(store.toItem(row));
+                }
+            }
+            return result;
+        });
+    }
+
+    @Override
+    public void forEachName(int fetchSize, BiConsumer<Long, String> action) {
+        long afterId = 0;
+        while (true) {
+            long after = afterId;
+            List<ItemRow> chunk = store.read(() -> {
+                List<ItemRow> rows = new ArrayList<>(fetchSize);
+                for (int i = store.itemIds.indexAfter(after); i < store.itemIds.size() && rows.size() < fetchSize; i++) {
+                    rows.add(store.items.get(store.itemIds.get(i)));
+                }
+                return rows;
+            });
+            if (chunk.isEmpty()) {
+                return;
+            }
+            chunk.forEach(row -> action.accept(row.id(), row.name()));
+            afterId = chunk.get(chunk.size() - 1).id();
+        }
+    }
+
+    @Override
+    public void forEachAsDTOByCategory(Long categoryId, Long afterId, int limit, ItemFields fields,
+                                       Consumer<ItemResponseDTO> action) {
+        List<ItemResponseDTO> page = store.read(() -> {
+            List<ItemResponseDTO> result = new ArrayList<>();
+            LongSortedSet ids = store.itemIdsByCategory.get(categoryId);
+            if (ids == null) {
+                return result;
+            }
+            for (int i = afterId == null ? 0 : ids.indexAfter(afterId); i < ids.size() && result.size() < limit; i++) {
+                result.add(store.toResponse(store.items.get(ids.get(i)), fields));
+            }
+            return result;
+        });
+        page.forEach(action);
+    }
+
+    @Override
+    public Optional<IdRange> findIdRange() {
+        return store.read(() -> store.itemIds.size() == 0
+            ? Optional.<IdRange>empty()
+            : Optional.of(new IdRange(store.itemIds.get(0), store.itemIds.get(store.itemIds.size() - 1))));
+    }
+
+    @Override
+    public void forEachStockLine(long fromId, long toId, int fetchSize, StockLineConsumer action) {
+        long afterId = fromId - 1;
+        while (true) {
+            long after = afterId;
+            // Rows are immutable: a chunk of them is copied under the lock, read after it
+            List<ItemRow> chunk = store.read(() -> {
+                List<ItemRow> rows = new ArrayList<>(fetchSize);
+                for (int i = store.itemIds.indexAfter(after);
+                     i < store.itemIds.size() && store.itemIds.get(i) < toId && rows.size() < fetchSize; i++) {
+                    rows.add(store.items.get(store.itemIds.get(i)));
+                }
+                return rows;
+            });
+            for (ItemRow row : chunk) {
+                // Prices are stored to the cent (see ItemRow), like the column the SQL scan reads
+                action.accept(row.categoryId(), row.price() == null ? -1 : row.price().unscaledValue().longValueExact(),
+                    row.stock());
+            }
+            if (chunk.size() < fetchSize) {
+                return;
+            }
+            afterId = chunk.get(chunk.size() - 1).id();
+        }
+    }
+
+    @Override
+    public long count() {
+        return store.read(() -> (long) store.items.size());
+    }
+
+    @Override
+    public Optional<Long> estimateCount() {
+        return Optional.of(count());
+    }
+
+    @Override
+    public boolean existsById(Long id) {
+        return store.read(() -> store.items.get(id) != null);
+    }
+
+    @Override
+    public Set<String> findExistingSkus(Collection<String> skus) {
+        return store.read(() -> {
+            Set<String> existing = new HashSet<>();
+            for (String sku : skus) {
+                if (store.itemIdsBySku.containsKey(sku)) {
+                    existing.add(sku);
+                }
+            }
+            return existing;
+        });
+    }
+
+    @Override
+    public boolean existsBySku(String sku, Long excludeId) {
+        return store.read(() -> {
+            Long id = store.itemIdsBySku.get(sku);
+            return id != null && !id.equals(excludeId);
+        });
+    }
+
+    @Override
+    public void warmUpQueries() {
+        // No query to parse and no connection to open
+    }
+
+    /**
+     * Check the constraints of the item table (write lock held)
+     *
+     * @param excludeId Item being updated, null for inserts
+     * @throws DatabaseException on a violation, as the database would
+     */
+    private void checkRow(Item item, Long excludeId, String message) {
+        String violation = null;
+        if (item.getSku() == null || item.getName() == null) {
+            violation = "SKU and name cannot be null";
+        } else if (item.getCategory() == null || item.getCategory().getId() == null
+                || store.categories.get(item.getCategory().getId()) == null) {
+            violation = "Unknown category " + (item.getCategory() == null ? null : item.getCategory().getId());
+        } else {
+            Long owner = store.itemIdsBySku.get(item.getSku());
+            if (owner != null && !owner.equals(excludeId)) {
+                violation = "Duplicate SKU " + item.getSku();
+            }
+        }
+        if (violation != null) {
+            throw new DatabaseException(message, new IllegalStateException(violation));
+        }
+    }
+
+    private static ItemRow toRow(Item item) {
+        return new ItemRow(item.getId(), item.getSku(), item.getName(), item.getPrice(), item.getStock(),
+            item.getUpdatedAt(), item.getCategory().getId());
+    }
+}
@@ -0,0 +1,267 @@
+package com.example.dao;
+
+import com.example.dto.ItemFields;
+import com.example.dto.ItemResponseDTO;
+import com.example.dto.ItemSummaryDTO;
+import com.example.model.Category;
+import com.example.model.Item;
+import com.example.util.UnitOfWork;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Supplier;
+
+/**
+ * Tables of the in-memory storage, shared by InMemoryItemDAO and
+ * InMemoryCategoryDAO
+ * Rows are immutable records in maps keyed by primitive ids, with id-ordered
+ * sets for the walks and secondary indexes on item SKU, category code and
+ * item category. Entities handed out are copies: callers may change them,
+ * nothing is stored before save/update. One read-write lock guards the
+ * whole store; callbacks run outside of it
+ * Writes apply at once and are undone if the request's unit of work rolls
+ * back, so the store agrees with the after-commit updates (search index,
+ * counters, change feed) that only run on commit. Other requests can see a
+ * write before it commits; a later write to the same row wins over the undo
+ */
+final class InMemoryStore {
+
+    record ItemRow(long id, String sku, String name, BigDecimal price, int stock,
+                   LocalDateTime updatedAt, long categoryId) {
+
+        // Stored like the NUMERIC(10, 2) column: rounded half-up to the cent
+        ItemRow {
+            price = price == null ? null : price.setScale(2, RoundingMode.HALF_UP);
+        }
+
+        ItemRow withStock(int newStock, LocalDateTime now) {
+            return new ItemRow(id, sku, name, price, newStock, now, categoryId);
+        }
+    }
+
+    record CategoryRow(long id, String code, String name, LocalDateTime updatedAt) {}
+
+    private static final InMemoryStore INSTANCE = new InMemoryStore();
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    final LongMap<ItemRow> items = new LongMap<>(1024);
+    final LongSortedSet itemIds = new LongSortedSet();
+    final Map<String, Long> itemIdsBySku = new HashMap<>();
+    final LongMap<LongSortedSet> itemIdsByCategory = new LongMap<>(64);
+
+    final LongMap<CategoryRow> categories = new LongMap<>(64);
+    final LongSortedSet categoryIds = new LongSortedSet();
+    final Map<String, Long> categoryIdsByCode = new HashMap<>();
+
+    private long lastItemId;
+    private long lastCategoryId;
+
+    private InMemoryStore() {}
+
+    static InMemoryStore getInstance() {
+        return INSTANCE;
+    }
+
+    <T> T read(Supplier<T> work) {
+        lock.readLock().lock();
+        try {
+            return work.get();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    <T> T write(Supplier<T> work) {
+        lock.writeLock().lock();
+        try {
+            return work.get();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // Mutators below expect the write lock to be held
+
+    long nextItemId() {
+        return ++lastItemId;
+    }
+
+    long nextCategoryId() {
+        return ++lastCategoryId;
+    }
+
+    /**
+     * Insert or replace an item row, keeping the indexes in step
+     */
+    void putItem(ItemRow row) {
+        ItemRow previous = storeItem(row);
+        UnitOfWork.afterRollback(() -> undoItem(row.id(), row, previous));
+    }
+
+    ItemRow removeItem(long id) {
+        ItemRow row = dropItem(id);
+        if (row != null) {
+            UnitOfWork.afterRollback(() -> undoItem(id, null, row));
+        }
+        return row;
+    }
+
+    void putCategory(CategoryRow row) {
+        CategoryRow previous = storeCategory(row);
+        UnitOfWork.afterRollback(() -> undoCategory(row.id(), row, previous));
+    }
+
+    CategoryRow removeCategory(long id) {
+        CategoryRow row = dropCategory(id);
+        if (row != null) {
+            UnitOfWork.afterRollback(() -> undoCategory(id, null, row));
+        }
+        return row;
+    }
+
+    /**
+     * Put back the row a rolled back write replaced, unless the row changed
+     * since (a later write wins, as it would have waited for the row lock) or
+     * its SKU was taken meanwhile
+     *
+     * @param written Row the write left, null if it removed the row
+     * @param previous Row before the write, null if it inserted the row
+     */
+    private void undoItem(long id, ItemRow written, ItemRow previous) {
+        write(() -> {
+            if (items.get(id) != written) {
+                return null;
+            }
+            if (previous == null) {
+                dropItem(id);
+            } else {
+                Long owner = itemIdsBySku.get(previous.sku());
+                if (owner == null || owner == id) {
+                    storeItem(previous);
+                }
+            }
+            return null;
+        });
+    }
+
+    private void undoCategory(long id, CategoryRow written, CategoryRow previous) {
+        write(() -> {
+            if (categories.get(id) != written) {
+                return null;
+            }
+            if (previous == null) {
+                dropCategory(id);
+            } else {
+                Long owner = categoryIdsByCode.get(previous.code());
+                if (owner == null || owner == id) {
+                    storeCategory(previous);
+                }
+            }
+            return null;
+        });
+    }
+
+    private ItemRow storeItem(ItemRow row) {
+        ItemRow previous = items.put(row.id(), row);
+        if (previous != null) {
+            itemIdsBySku.remove(previous.sku());
+            if (previous.categoryId() != row.categoryId()) {
+                itemsOf(previous.categoryId()).remove(row.id());
+            }
+        }
+        itemIds.add(row.id());
+        itemIdsBySku.put(row.sku(), row.id());
+        itemsOf(row.categoryId()).add(row.id());
+        return previous;
+    }
+
+    private ItemRow dropItem(long id) {
+        ItemRow row = items.remove(id);
+        if (row != null) {
+            itemIds.remove(id);
+            itemIdsBySku.remove(row.sku());
+            itemsOf(row.categoryId()).remove(id);
+        }
+        return row;
+    }
+
+    private CategoryRow storeCategory(CategoryRow row) {
+        CategoryRow previous = categories.put(row.id(), row);
+        if (previous != null) {
+            categoryIdsByCode.remove(previous.code());
+        }
+        categoryIds.add(row.id());
+        categoryIdsByCode.put(row.code(), row.id());
+        return previous;
+    }
+
+    private CategoryRow dropCategory(long id) {
+        CategoryRow row = categories.remove(id);
+        if (row != null) {
+            categoryIds.remove(id);
+            categoryIdsByCode.remove(row.code());
+            itemIdsByCategory.remove(id);
+        }
+        return row;
+    }
+
+    /**
+     * Ids of the items of a category, in id order (created on first use)
+     */
+    LongSortedSet itemsOf(long categoryId) {
+        LongSortedSet ids = itemIdsByCategory.get(categoryId);
+        if (ids == null) {
+            ids = new LongSortedSet();
+            itemIdsByCategory.put(categoryId, ids);
+        }
+        return ids;
+    }
+
+    // Conversions, under the read or write lock
+
+    Item toItem(ItemRow row) {
+        Item item = new Item();
+        item.setId(row.id());
+        item.setSku(row.sku());
+        item.setName(row.name());
+        item.setPrice(row.price());
+        item.setStock(row.stock());
+        item.setUpdatedAt(row.updatedAt());
+        CategoryRow category = categories.get(row.categoryId());
+        if (category != null) {
+            item.setCategory(toCategory(category));
+        }
+        return item;
+    }
+
+    ItemResponseDTO toResponse(ItemRow row, ItemFields fields) {
+        CategoryRow category = categories.get(row.categoryId());
+        ItemResponseDTO item = category == null
+            ? new ItemResponseDTO(row.id(), row.sku(), row.name(), row.price(), row.stock(), row.updatedAt())
+            : new ItemResponseDTO(row.id(), row.sku(), row.name(), row.price(), row.stock(), row.updatedAt(),
+                category.id(), category.code(), category.name());
+        // Every field is at hand: the fieldset only narrows the serialization
+        item.setFields(fields.isAll() ? null : fields);
+        return item;
+    }
+
+    static ItemSummaryDTO toSummary(ItemRow row, ItemFields fields) {
+        ItemSummaryDTO item = new ItemSummaryDTO(row.id(), row.sku(), row.name(), row.price(), row.stock());
+        item.setFields(fields.isAll() ? null : fields);
+        return item;
+    }
+
+    static Category toCategory(CategoryRow row) {
+        Category category = new Category();
+        category.setId(row.id());
+        category.setCode(row.code());
+        category.setName(row.name());
+        category.setUpdatedAt(row.updatedAt());
+        return category;
+    }
+}
@@ -1,234 +1,270 @@
 package com.example.dao;
 
-import com.example.exception.DatabaseException;
+import com.example.dto.ItemFields;
+import com.example.dto.ItemResponseDTO;
 import com.example.model.Item;
-import com.example.util.HibernateUtil;
-import org.hibernate.Session;
-import org.hibernate.Transaction;
-import org.hibernate.query.Query;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
 
 /**
  * Data Access Object for Item entity
- * Handles all database operations for Item
+ * Implemented by HibernateItemDAO (the database) and InMemoryItemDAO;
+ * Storage picks one at startup. Failures are reported as DatabaseException
  */
-public class ItemDAO {
+public interface ItemDAO {
 
     /**
-     * Find all items with pagination
-     * 
+     * Smallest and largest item id
+     */
+    record IdRange(long min, long max) {}
+
+    /**
+     * Receives the stock lines of forEachStockLine, as primitives
+     */
+    @FunctionalInterface
+    interface StockLineConsumer {
+
+        /**
+         * @param categoryId Category of the item, 0 if it has none
+         * @param priceCents Unit price in cents, -1 if the item has no price
+         * @param stock Units in stock
+         */
+        void accept(long categoryId, long priceCents, int stock);
+    }
+
+    /**
+     * Find all items with pagination, as response DTOs
+     *
      * @param page Page number (0-based)
      * @param size Number of items per page
-     * @return List of items
-     */
-    public List<Item> findAll(int page, int size) {
-        try (Session session = HibernateUtil.getSessionFactory().openSession()) {
-            // Use JOIN FETCH to eagerly load the category relationship
-            Query<Item> query = session.createQuery(
-                "FROM Item i LEFT JOIN FETCH i.category ORDER BY i.id", Item.class);
-            query.setFirstResult(page * size);
-            query.setMaxResults(size);
-            return query.list();
-        } catch (Exception e) {
-            throw new DatabaseException("Error fetching items", e);
-        }
-    }
+     * @param fields Fields to select
+     * @return List of item DTOs ordered by id
+     */
+    List<ItemResponseDTO> findAllAsDTO(int page, int size, ItemFields fields);
 
     /**
-     * Find an item by ID
-     * 
+     * Find the items that follow a given id (keyset pagination), as response DTOs
+     *
+     * @param afterId Last id already returned (null for the first page)
+     * @param limit Maximum number of items to return
+     * @param fields Fields to select
+     * @return List of item DTOs ordered by id
+     */
+    List<ItemResponseDTO> findAllAfterAsDTO(Long afterId, int limit, ItemFields fields);
+
+    /**
+     * Stream every item ordered by id without materialising the result
+     *
+     * @param fetchSize Number of rows read at a time
+     * @param fields Fields to select
+     * @param action Callback invoked for each item DTO, in id order
+     */
+    void forEachAsDTO(int fetchSize, ItemFields fields, Consumer<ItemResponseDTO> action);
+
+    /**
+     * Find an item by ID, with its category
+     *
      * @param id Item ID
      * @return Optional containing the item if found
      */
-    public Optional<Item> findById(Long id) {
-        try (Session session = HibernateUtil.getSessionFactory().openSession()) {
-            // Use JOIN FETCH to eagerly load the category relationship
-            Query<Item> query = session.createQuery(
-                "FROM Item i LEFT JOIN FETCH i.category WHERE i.id = :id", Item.class);
-            query.setParameter("id", id);
-            return query.uniqueResultOptional();
-        } catch (Exception e) {
-            throw new DatabaseException("Error fetching item by id: " + id, e);
-        }
-    }
+    Optional<Item> findById(Long id);
+
+    /**
+     * Find an item by ID as a response DTO
+     * updatedAt is always read, even when not requested, for the response validators
+     *
+     * @param id Item ID
+     * @param fields Fields to select
+     * @return Optional containing the item DTO if found
+     */
+    Optional<ItemResponseDTO> findDTOById(Long id, ItemFields fields);
+
+    /**
+     * Read the last modification time of an item, without loading it
+     *
+     * @param id Item ID
+     * @return updatedAt of the item, or empty if the item does not exist or
+     *         has never been stamped
+     */
+    Optional<LocalDateTime> findUpdatedAt(Long id);
 
     /**
      * Find an item by SKU
-     * 
+     *
      * @param sku Item SKU
      * @return Optional containing the item if found
      */
-    public Optional<Item> findBySku(String sku) {
-        try (Session session = HibernateUtil.getSessionFactory().openSession()) {
-            Query<Item> query = session.createQuery(
-                "FROM Item i LEFT JOIN FETCH i.category WHERE i.sku = :sku", Item.class);
-            query.setParameter("sku", sku);
-            return query.uniqueResultOptional();
-        } catch (Exception e) {
-            throw new DatabaseException("Error fetching item by SKU: " + sku, e);
-        }
-    }
+    Optional<Item> findBySku(String sku);
 
     /**
      * Save a new item
-     * 
-     * @param item Item to save
+     *
+     * @param item Item to save (its category must be set)
      * @return Saved item with generated ID
      */
-    public Item save(Item item) {
-        Transaction transaction = null;
-        try (Session session = HibernateUtil.getSessionFactory().openSession()) {
-            transaction = session.beginTransaction();
-            item.setUpdatedAt(LocalDateTime.now());
-            session.persist(item);
-            transaction.commit();
-            return item;
-        } catch (Exception e) {
-            if (transaction != null) {
-                transaction.rollback();
-            }
-            throw new DatabaseException("Error saving item", e);
-        }
-    }
+    Item save(Item item);
+
+    /**
+     * Insert many items at once
+     * Items whose SKU is taken by then (e.g. by a concurrent insert) are
+     * skipped instead of failing the whole batch
+     *
+     * @param items Items to insert (their category must be set)
+     * @param batchSize Number of rows sent per batch
+     * @return The same items, with their generated IDs; skipped ones keep a null ID
+     */
+    List<Item> saveAll(List<Item> items, int batchSize);
 
     /**
      * Update an existing item
-     * 
+     *
      * @param item Item to update
      * @return Updated item
      */
-    public Item update(Item item) {
-        Transaction transaction = null;
-        try (Session session = HibernateUtil.getSessionFactory().openSession()) {
-            transaction = session.beginTransaction();
-            item.setUpdatedAt(LocalDateTime.now());
-            Item updated = session.merge(item);
-            transaction.commit();
-            return updated;
-        } catch (Exception e) {
-            if (transaction != null) {
-                transaction.rollback();
-            }
-            throw new DatabaseException("Error updating item", e);
-        }
-    }
+    Item update(Item item);
+
+    /**
+     * Add a (possibly negative) quantity to the stock of an item, atomically,
+     * without ever going below zero
+     *
+     * @param id Item ID
+     * @param delta Quantity to add to the stock
+     * @return The updated item, or empty if the item does not exist or has
+     *         not enough stock
+     */
+    Optional<Item> adjustStock(Long id, int delta);
+
+    /**
+     * Take stock from several items, all or nothing
+     *
+     * @param quantities Quantity to take per item ID, in locking order
+     * @param batchSize Number of statements sent per batch
+     * @return IDs whose line could not be applied (unknown item or not enough
+     *         stock); when not empty, nothing was reserved
+     */
+    List<Long> reserveStock(Map<Long, Integer> quantities, int batchSize);
+
+    /**
+     * Read the current stock of the given items
+     *
+     * @param ids Item IDs
+     * @return Stock per item ID, for the items that exist
+     */
+    Map<Long, Integer> findStocks(Collection<Long> ids);
 
     /**
      * Delete an item by ID
-     * 
+     *
      * @param id Item ID
      * @return true if deleted, false if not found
      */
-    public boolean delete(Long id) {
-        Transaction transaction = null;
-        try (Session session = HibernateUtil.getSessionFactory().openSession()) {
-            transaction = session.beginTransaction();
-            Item item = session.get(Item.class, id);
-            if (item != null) {
-                session.remove(item);
-                transaction.commit();
-                return true;
-            }
-            transaction.commit();
-            return false;
-        } catch (Exception e) {
-            if (transaction != null) {
-                transaction.rollback();
-            }
-            throw new DatabaseException("Error deleting item", e);
-        }
-    }
+    boolean delete(Long id);
 
     /**
      * Search items by name (case-insensitive)
-     * 
+     *
      * @param keyword Search keyword
-     * @return List of matching items
-     */
-    public List<Item> searchByName(String keyword) {
-        try (Session session = HibernateUtil.getSessionFactory().openSession()) {
-            Query<Item> query = session.createQuery(
-                "FROM Item i LEFT JOIN FETCH i.category WHERE LOWER(i.name) LIKE LOWER(:kw) ORDER BY i.id", Item.class);
-            query.setParameter("kw", "%" + keyword + "%");
-            return query.getResultList();
-        } catch (Exception e) {
-            throw new DatabaseException("Error searching items by name", e);
-        }
-    }
+     * @param limit Maximum number of items to return
+     * @return List of matching items ordered by id
+     */
+    List<Item> searchByName(String keyword, int limit);
 
     /**
-     * Find items by category ID
-     * 
+     * Find items by IDs
+     *
+     * @param ids Item IDs
+     * @return Items found, in no particular order
+     */
+    List<Item> findByIds(Collection<Long> ids);
+
+    /**
+     * Stream the id and name of every item (used to build the search index)
+     *
+     * @param fetchSize Number of rows read at a time
+     * @param action Callback receiving each (id, name) pair, in id order
+     */
+    void forEachName(int fetchSize, BiConsumer<Long, String> action);
+
+    /**
+     * Stream one bounded page of the items of a category (keyset pagination)
+     *
      * @param categoryId Category ID
-     * @return List of items
-     */
-    public List<Item> findByCategoryId(Long categoryId) {
-        try (Session session = HibernateUtil.getSessionFactory().openSession()) {
-            Query<Item> query = session.createQuery(
-                "FROM Item i LEFT JOIN FETCH i.category WHERE i.category.id = :catId ORDER BY i.id", Item.class);
-            query.setParameter("catId", categoryId);
-            return query.getResultList();
-        } catch (Exception e) {
-            throw new DatabaseException("Error fetching items by category", e);
-        }
-    }
+     * @param afterId Last id already returned (null for the first page)
+     * @param limit Maximum number of items to read
+     * @param fields Fields to select
+     * @param action Callback invoked for each item DTO, in id order
+     */
+    void forEachAsDTOByCategory(Long categoryId, Long afterId, int limit, ItemFields fields,
+                                Consumer<ItemResponseDTO> action);
+
+    /**
+     * Find the smallest and largest item id
+     *
+     * @return Id range, or empty if there is no item
+     */
+    Optional<IdRange> findIdRange();
+
+    /**
+     * Stream the category, price and stock of the items of an id range,
+     * in no particular order (inventory report scan)
+     * Each call reads on its own connection, so ranges can be scanned in parallel
+     *
+     * @param fromId First id of the range (inclusive)
+     * @param toId End of the range (exclusive)
+     * @param fetchSize Number of rows read at a time
+     * @param action Callback receiving each line
+     */
+    void forEachStockLine(long fromId, long toId, int fetchSize, StockLineConsumer action);
 
     /**
      * Count total number of items
-     * 
+     *
      * @return Total count
      */
-    public long count() {
-        try (Session session = HibernateUtil.getSessionFactory().openSession()) {
-            Query<Long> query = session.createQuery("SELECT COUNT(i) FROM Item i", Long.class);
-            return query.getSingleResult();
-        } catch (Exception e) {
-            throw new DatabaseException("Error counting items", e);
-        }
-    }
+    long count();
+
+    /**
+     * Cheap estimate of the number of items
+     *
+     * @return Estimated count, or empty if none is available
+     */
+    Optional<Long> estimateCount();
 
     /**
      * Check if an item exists by ID
-     * 
+     *
      * @param id Item ID
      * @return true if exists
      */
-    public boolean existsById(Long id) {
-        try (Session session = HibernateUtil.getSessionFactory().openSession()) {
-            Query<Long> query = session.createQuery(
-                "SELECT COUNT(i) FROM Item i WHERE i.id = :id", Long.class);
-            query.setParameter("id", id);
-            return query.getSingleResult() > 0;
-        } catch (Exception e) {
-            throw new DatabaseException("Error checking item existence", e);
-        }
-    }
+    boolean existsById(Long id);
+
+    /**
+     * Find which of the given SKUs are already taken
+     *
+     * @param skus SKUs to check
+     * @return Subset of the SKUs that already exist
+     */
+    Set<String> findExistingSkus(Collection<String> skus);
 
     /**
      * Check if an item SKU already exists
-     * 
+     *
      * @param sku Item SKU
      * @param excludeId ID to exclude (for updates)
      * @return true if SKU exists
      */
-    public boolean existsBySku(String sku, Long excludeId) {
-        try (Session session = HibernateUtil.getSessionFactory().openSession()) {
-            String hql = excludeId == null 
-                ? "SELECT COUNT(i) FROM Item i WHERE i.sku = :sku"
-                : "SELECT COUNT(i) FROM Item i WHERE i.sku = :sku AND i.id != :excludeId";
-            
-            Query<Long> query = session.createQuery(hql, Long.class);
-            query.setParameter("sku", sku);
-            if (excludeId != null) {
-                query.setParameter("excludeId", excludeId);
-            }
-            
-            return query.getSingleResult() > 0;
-        } catch (Exception e) {
-            throw new DatabaseException("Error checking item SKU uniqueness", e);
-        }
-    }
+    boolean existsBySku(String sku, Long excludeId);
+
+    /**
+     * Run each read query once at startup, so that the first requests do not
+     * pay for query parsing and first connections
+     */
+    void warmUpQueries();
 }
@@ -0,0 +1,96 @@
+package com.example.dao;
+
+import com.example.dto.CategorySummaryDTO;
+import com.example.dto.ItemFields;
+import com.example.dto.ItemFields.Field;
+import com.example.dto.ItemResponseDTO;
+import com.example.dto.ItemSummaryDTO;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * HQL select lists for sparse fieldsets, and the mapping of their rows
+ * Only the columns of the selected fields are read; the category is only
+ * joined when it is selected. Queries alias the item "i" and, when joined,
+ * the category "c"
+ */
+final class ItemProjection {
+
+    private ItemProjection() {}
+
+    /**
+     * "SELECT ... FROM Item i [LEFT JOIN i.category c]" for the selected fields
+     */
+    static String selectFrom(ItemFields selected) {
+        StringBuilder hql = new StringBuilder("SELECT ");
+        for (Field field : selected.toSet()) {
+            if (hql.length() > "SELECT ".length()) {
+                hql.append(", ");
+            }
+            hql.append(switch (field) {
+                case ID -> "i.id";
+                case SKU -> "i.sku";
+                case NAME -> "i.name";
+                case PRICE -> "i.price";
+                case STOCK -> "i.stock";
+                case UPDATED_AT -> "i.updatedAt";
+                case CATEGORY -> "c.id, c.code, c.name";
+            });
+        }
+        hql.append(selected.contains(Field.CATEGORY) ? " FROM Item i LEFT JOIN i.category c" : " FROM Item i");
+        return hql.toString();
+    }
+
+    /**
+     * Build a response DTO from a row of selectFrom(selected)
+     *
+     * @param row Selected columns
+     * @param selected Fields that were selected
+     * @param fields Fields to serialize (a subset of the selected ones)
+     */
+    static ItemResponseDTO toResponse(Object[] row, ItemFields selected, ItemFields fields) {
+        ItemResponseDTO item = new ItemResponseDTO();
+        int k = 0;
+        for (Field field : selected.toSet()) {
+            switch (field) {
+                case ID -> item.setId((Long) row[k++]);
+                case SKU -> item.setSku((String) row[k++]);
+                case NAME -> item.setName((String) row[k++]);
+                case PRICE -> item.setPrice((BigDecimal) row[k++]);
+                case STOCK -> item.setStock((Integer) row[k++]);
+                case UPDATED_AT -> item.setUpdatedAt((LocalDateTime) row[k++]);
+                case CATEGORY -> {
+                    Long categoryId = (Long) row[k++];
+                    String code = (String) row[k++];
+                    String name = (String) row[k++];
+                    if (categoryId != null) {
+                        item.setCategory(new CategorySummaryDTO(categoryId, code, name));
+                    }
+                }
+            }
+        }
+        item.setFields(fields);
+        return item;
+    }
+
+    /**
+     * Build a summary DTO from a row of selectFrom(selected)
+     */
+    static ItemSummaryDTO toSummary(Object[] row, ItemFields selected) {
+        ItemSummaryDTO item = new ItemSummaryDTO();
+        int k = 0;
+        for (Field field : selected.toSet()) {
+            switch (field) {
+                case ID -> item.setId((Long) row[k++]);
+                case SKU -> item.setSku((String) row[k++]);
+                case NAME -> item.setName((String) row[k++]);
+                case PRICE -> item.setPrice((BigDecimal) row[k++]);
+                case STOCK -> item.setStock((Integer) row[k++]);
+                default -> throw new IllegalArgumentException("Not an item summary field: " + field);
+            }
+        }
+        item.setFields(selected);
+        return item;
+    }
+}
@@ -0,0 +1,61 @@
+package com.example.dao;
+
+import java.util.Arrays;
+
+/**
+ * Sorted set of primitive longs in one array, for the id-ordered walks
+ * (pages, keyset pagination, items of a category)
+ * Generated ids only grow, so inserts append; removals shift the tail.
+ * Not thread-safe: InMemoryStore guards it with its lock
+ */
+final class LongSortedSet {
+
+    private long[] values = new long[16];
+    private int size;
+
+    int size() {
+        return size;
+    }
+
+    long get(int index) {
+        return values[index];
+    }
+
+    boolean add(long value) {
+        int at;
+        if (size == 0 || values[size - 1] < value) {
+            at = size;
+        } else {
+            int i = Arrays.binarySearch(values, 0, size, value);
+            if (i >= 0) {
+                return false;
+            }
+            at = -i - 1;
+        }
+        if (size == values.length) {
+            values = Arrays.copyOf(values, size * 2);
+        }
+        System.arraycopy(values, at, values, at + 1, size - at);
+        values[at] = value;
+        size++;
+        return true;
+    }
+
+    boolean remove(long value) {
+        int i = Arrays.binarySearch(values, 0, size, value);
+        if (i < 0) {
+            return false;
+        }
+        System.arraycopy(values, i + 1, values, i, size - i - 1);
+        size--;
+        return true;
+    }
+
+    /**
+     * Index of the first value greater than the given one (size if none)
+     */
+    int indexAfter(long value) {
+        int i = Arrays.binarySearch(values, 0, size, value);
+        return i >= 0 ? i + 1 : -i - 1;
+    }
+}
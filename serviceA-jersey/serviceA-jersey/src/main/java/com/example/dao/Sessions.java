@@ -0,0 +1,73 @@
+package com.example.dao;
+
+import com.example.util.HibernateUtil;
+import com.example.util.UnitOfWork;
+import org.hibernate.Session;
+import org.hibernate.SharedSessionContract;
+import org.hibernate.StatelessSession;
+
+import java.util.function.Function;
+
+/**
+ * Session access shared by the DAOs
+ * Inside a request unit of work every call reuses its session and
+ * transaction; outside of one, each call gets its own short-lived session
+ */
+final class Sessions {
+
+    private Sessions() {}
+
+    /**
+     * Run read-only work
+     *
+     * @param work Query run on the session
+     * @return Result of the work
+     */
+    static <T> T read(Function<Session, T> work) {
+        UnitOfWork unit = UnitOfWork.current();
+        if (unit != null) {
+            return work.apply(unit.session());
+        }
+        try (Session session = HibernateUtil.getSessionFactory().openSession()) {
+            return work.apply(session);
+        }
+    }
+
+    /**
+     * Run a read-only projection query
+     * Outside of a unit of work it runs on a StatelessSession: no persistence
+     * context, no snapshots, rows go straight to the caller
+     *
+     * @param work Query run on the session
+     * @return Result of the work
+     */
+    static <T> T project(Function<SharedSessionContract, T> work) {
+        UnitOfWork unit = UnitOfWork.current();
+        if (unit != null) {
+            return work.apply(unit.session());
+        }
+        try (StatelessSession session = HibernateUtil.getSessionFactory().openStatelessSession()) {
+            return work.apply(session);
+        }
+    }
+
+    /**
+     * Run work that changes data
+     * Joins the bound unit of work (committed with the request), or runs in a
+     * unit of work of its own committed right away. Work can call
+     * UnitOfWork.current().setRollbackOnly() to discard its changes
+     *
+     * @param work Changes made on the session
+     * @return Result of the work
+     */
+    static <T> T write(Function<Session, T> work) {
+        if (UnitOfWork.current() != null) {
+            return work.apply(UnitOfWork.current().session());
+        }
+        try (UnitOfWork unit = UnitOfWork.begin()) {
+            T result = work.apply(unit.session());
+            unit.commit();
+            return result;
+        }
+    }
+}
@@ -0,0 +1,44 @@
+package com.example.dao;
+
+import com.example.config.ApplicationProperties;
+
+import java.util.Locale;
+
+/**
+ * Storage backend of the DAOs, chosen at startup with storage.type
+ * "hibernate" (default): the database through Hibernate
+ * "memory": in-memory tables, no database at all, to measure what the
+ * HTTP and serialization layers cost on their own. Data is lost on restart
+ */
+public final class Storage {
+
+    public enum Type { HIBERNATE, MEMORY }
+
+    private static final Type TYPE = parse(ApplicationProperties.get("storage.type", "hibernate"));
+
+    private Storage() {}
+
+    public static Type type() {
+        return TYPE;
+    }
+
+    public static boolean isInMemory() {
+        return TYPE == Type.MEMORY;
+    }
+
+    public static ItemDAO itemDAO() {
+        return TYPE == Type.MEMORY ? new InMemoryItemDAO() : new HibernateItemDAO();
+    }
+
+    public static CategoryDAO categoryDAO() {
+        return TYPE == Type.MEMORY ? new InMemoryCategoryDAO() : new HibernateCategoryDAO();
+    }
+
+    private static Type parse(String value) {
+        try {
+            return Type.valueOf(value.trim().toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new IllegalStateException("Unknown storage.type: " + value + " (expected hibernate or memory)");
+        }
+    }
+}
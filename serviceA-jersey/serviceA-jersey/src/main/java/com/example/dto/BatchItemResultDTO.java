@@ -0,0 +1,76 @@
+package com.example.dto;
+
+/**
+ * DTO for the outcome of one element of a batch request
+ */
+public class BatchItemResultDTO {
+
+    public static final String CREATED = "CREATED";
+    public static final String REJECTED = "REJECTED";
+
+    private int index;
+    private String status;
+    private Long id;
+    private String sku;
+    private String error;
+
+    // Constructors
+    public BatchItemResultDTO() {}
+
+    public BatchItemResultDTO(int index, String status, Long id, String sku, String error) {
+        this.index = index;
+        this.status = status;
+        this.id = id;
+        this.sku = sku;
+        this.error = error;
+    }
+
+    public static BatchItemResultDTO created(int index, Long id, String sku) {
+        return new BatchItemResultDTO(index, CREATED, id, sku, null);
+    }
+
+    public static BatchItemResultDTO rejected(int index, String sku, String error) {
+        return new BatchItemResultDTO(index, REJECTED, null, sku, error);
+    }
+
+    // Getters and Setters
+    public int getIndex() {
+        return index;
+    }
+
+    public void setIndex(int index) {
+        this.index = index;
+    }
+
+    public String getStatus() {
+        return status;
+    }
+
+    public void setStatus(String status) {
+        this.status = status;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public String getSku() {
+        return sku;
+    }
+
+    public void setSku(String sku) {
+        this.sku = sku;
+    }
+
+    public String getError() {
+        return error;
+    }
+
+    public void setError(String error) {
+        this.error = error;
+    }
+}
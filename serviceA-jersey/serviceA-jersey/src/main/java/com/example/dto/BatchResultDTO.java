@@ -0,0 +1,47 @@
+package com.example.dto;
+
+import java.util.List;
+
+/**
+ * DTO for the response of a batch request: totals plus one result per element,
+ * in the order of the request
+ */
+public class BatchResultDTO {
+    private int created;
+    private int rejected;
+    private List<BatchItemResultDTO> results;
+
+    // Constructors
+    public BatchResultDTO() {}
+
+    public BatchResultDTO(int created, int rejected, List<BatchItemResultDTO> results) {
+        this.created = created;
+        this.rejected = rejected;
+        this.results = results;
+    }
+
+    // Getters and Setters
+    public int getCreated() {
+        return created;
+    }
+
+    public void setCreated(int created) {
+        this.created = created;
+    }
+
+    public int getRejected() {
+        return rejected;
+    }
+
+    public void setRejected(int rejected) {
+        this.rejected = rejected;
+    }
+
+    public List<BatchItemResultDTO> getResults() {
+        return results;
+    }
+
+    public void setResults(List<BatchItemResultDTO> results) {
+        this.results = results;
+    }
+}
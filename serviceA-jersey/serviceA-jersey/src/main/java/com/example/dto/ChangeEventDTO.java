@@ -0,0 +1,94 @@
+package com.example.dto;
+
+import com.fasterxml.jackson.annotation.JsonFormat;
+import java.time.LocalDateTime;
+
+/**
+ * DTO for one committed change, as sent by the change feed
+ */
+public class ChangeEventDTO {
+
+    public static final String ITEM = "item";
+    public static final String CATEGORY = "category";
+
+    public static final String CREATED = "created";
+    public static final String UPDATED = "updated";
+    public static final String DELETED = "deleted";
+    public static final String STOCK = "stock";
+
+    private long id;
+    private String entity;
+    private String action;
+    private Long entityId;
+    private Integer stock;
+    @JsonFormat(pattern = "yyyy-MM-dd'T'HH:mm:ss")
+    private LocalDateTime timestamp;
+
+    // Constructors
+    public ChangeEventDTO() {}
+
+    public ChangeEventDTO(long id, String entity, String action, Long entityId, Integer stock, LocalDateTime timestamp) {
+        this.id = id;
+        this.entity = entity;
+        this.action = action;
+        this.entityId = entityId;
+        this.stock = stock;
+        this.timestamp = timestamp;
+    }
+
+    /**
+     * SSE event name, e.g. "item.updated"
+     */
+    public String name() {
+        return entity + "." + action;
+    }
+
+    // Getters and Setters
+    public long getId() {
+        return id;
+    }
+
+    public void setId(long id) {
+        this.id = id;
+    }
+
+    public String getEntity() {
+        return entity;
+    }
+
+    public void setEntity(String entity) {
+        this.entity = entity;
+    }
+
+    public String getAction() {
+        return action;
+    }
+
+    public void setAction(String action) {
+        this.action = action;
+    }
+
+    public Long getEntityId() {
+        return entityId;
+    }
+
+    public void setEntityId(Long entityId) {
+        this.entityId = entityId;
+    }
+
+    public Integer getStock() {
+        return stock;
+    }
+
+    public void setStock(Integer stock) {
+        this.stock = stock;
+    }
+
+    public LocalDateTime getTimestamp() {
+        return timestamp;
+    }
+
+    public void setTimestamp(LocalDateTime timestamp) {
+        this.timestamp = timestamp;
+    }
+}
@@ -0,0 +1,37 @@
+package com.example.dto;
+
+import java.util.List;
+
+/**
+ * DTO for a page fetched with keyset (cursor) pagination
+ * nextCursor is null when there is nothing left to read
+ */
+public class CursorPageDTO<T> {
+    private List<T> items;
+    private String nextCursor;
+
+    // Constructors
+    public CursorPageDTO() {}
+
+    public CursorPageDTO(List<T> items, String nextCursor) {
+        this.items = items;
+        this.nextCursor = nextCursor;
+    }
+
+    // Getters and Setters
+    public List<T> getItems() {
+        return items;
+    }
+
+    public void setItems(List<T> items) {
+        this.items = items;
+    }
+
+    public String getNextCursor() {
+        return nextCursor;
+    }
+
+    public void setNextCursor(String nextCursor) {
+        this.nextCursor = nextCursor;
+    }
+}
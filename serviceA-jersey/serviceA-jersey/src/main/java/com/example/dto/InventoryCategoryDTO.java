@@ -0,0 +1,109 @@
+package com.example.dto;
+
+import java.math.BigDecimal;
+
+/**
+ * DTO for the stock of one category in the inventory report
+ * Prices are null when the category has no priced item; categoryId, code
+ * and name are null on the line gathering items without a known category
+ */
+public class InventoryCategoryDTO {
+    private Long categoryId;
+    private String code;
+    private String name;
+    private long itemCount;
+    private long stockUnits;
+    private BigDecimal stockValue;
+    private BigDecimal minPrice;
+    private BigDecimal maxPrice;
+    private BigDecimal avgPrice;
+
+    // Constructors
+    public InventoryCategoryDTO() {}
+
+    public InventoryCategoryDTO(Long categoryId, String code, String name, long itemCount, long stockUnits,
+                                BigDecimal stockValue, BigDecimal minPrice, BigDecimal maxPrice, BigDecimal avgPrice) {
+        this.categoryId = categoryId;
+        this.code = code;
+        this.name = name;
+        this.itemCount = itemCount;
+        this.stockUnits = stockUnits;
+        this.stockValue = stockValue;
+        this.minPrice = minPrice;
+        this.maxPrice = maxPrice;
+        this.avgPrice = avgPrice;
+    }
+
+    // Getters and Setters
+    public Long getCategoryId() {
+        return categoryId;
+    }
+
+    public void setCategoryId(Long categoryId) {
+        this.categoryId = categoryId;
+    }
+
+    public String getCode() {
+        return code;
+    }
+
+    public void setCode(String code) {
+        this.code = code;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public void setName(String name) {
+        this.name = name;
+    }
+
+    public long getItemCount() {
+        return itemCount;
+    }
+
+    public void setItemCount(long itemCount) {
+        this.itemCount = itemCount;
+    }
+
+    public long getStockUnits() {
+        return stockUnits;
+    }
+
+    public void setStockUnits(long stockUnits) {
+        this.stockUnits = stockUnits;
+    }
+
+    public BigDecimal getStockValue() {
+        return stockValue;
+    }
+
+    public void setStockValue(BigDecimal stockValue) {
+        this.stockValue = stockValue;
+    }
+
+    public BigDecimal getMinPrice() {
+        return minPrice;
+    }
+
+    public void setMinPrice(BigDecimal minPrice) {
+        this.minPrice = minPrice;
+    }
+
+    public BigDecimal getMaxPrice() {
+        return maxPrice;
+    }
+
+    public void setMaxPrice(BigDecimal maxPrice) {
+        this.maxPrice = maxPrice;
+    }
+
+    public BigDecimal getAvgPrice() {
+        return avgPrice;
+    }
+
+    public void setAvgPrice(BigDecimal avgPrice) {
+        this.avgPrice = avgPrice;
+    }
+}
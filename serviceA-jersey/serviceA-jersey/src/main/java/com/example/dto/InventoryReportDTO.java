@@ -0,0 +1,82 @@
+package com.example.dto;
+
+import com.fasterxml.jackson.annotation.JsonFormat;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * DTO for the inventory report: catalog totals plus one line per category,
+ * in category id order
+ */
+public class InventoryReportDTO {
+    @JsonFormat(pattern = "yyyy-MM-dd'T'HH:mm:ss")
+    private LocalDateTime generatedAt;
+    private long durationMs;
+    private long itemCount;
+    private long stockUnits;
+    private BigDecimal stockValue;
+    private List<InventoryCategoryDTO> categories;
+
+    // Constructors
+    public InventoryReportDTO() {}
+
+    public InventoryReportDTO(LocalDateTime generatedAt, long durationMs, long itemCount, long stockUnits,
+                              BigDecimal stockValue, List<InventoryCategoryDTO> categories) {
+        this.generatedAt = generatedAt;
+        this.durationMs = durationMs;
+        this.itemCount = itemCount;
+        this.stockUnits = stockUnits;
+        this.stockValue = stockValue;
+        this.categories = categories;
+    }
+
+    // Getters and Setters
+    public LocalDateTime getGeneratedAt() {
+        return generatedAt;
+    }
+
+    public void setGeneratedAt(LocalDateTime generatedAt) {
+        this.generatedAt = generatedAt;
+    }
+
+    public long getDurationMs() {
+        return durationMs;
+    }
+
+    public void setDurationMs(long durationMs) {
+        this.durationMs = durationMs;
+    }
+
+    public long getItemCount() {
+        return itemCount;
+    }
+
+    public void setItemCount(long itemCount) {
+        this.itemCount = itemCount;
+    }
+
+    public long getStockUnits() {
+        return stockUnits;
+    }
+
+    public void setStockUnits(long stockUnits) {
+        this.stockUnits = stockUnits;
+    }
+
+    public BigDecimal getStockValue() {
+        return stockValue;
+    }
+
+    public void setStockValue(BigDecimal stockValue) {
+        this.stockValue = stockValue;
+    }
+
+    public List<InventoryCategoryDTO> getCategories() {
+        return categories;
+    }
+
+    public void setCategories(List<InventoryCategoryDTO> categories) {
+        this.categories = categories;
+    }
+}
@@ -0,0 +1,160 @@
+package com.example.dto;
+
+import com.example.exception.ValidationException;
+
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.Set;
+import java.util.StringJoiner;
+
+/**
+ * Item fields requested with the "fields" query parameter (sparse fieldset)
+ * The DAOs select only these columns and the DTO serializers write only
+ * these properties. The id is always part of the selection: cursors and
+ * ETags are built from it
+ */
+public final class ItemFields {
+
+    /**
+     * Selectable item fields, in serialization order
+     */
+    public enum Field {
+        ID("id"),
+        SKU("sku"),
+        NAME("name"),
+        PRICE("price"),
+        STOCK("stock"),
+        UPDATED_AT("updatedAt"),
+        CATEGORY("category");
+
+        private final String jsonName;
+
+        Field(String jsonName) {
+            this.jsonName = jsonName;
+        }
+
+        public String getJsonName() {
+            return jsonName;
+        }
+    }
+
+    // Every field: the full representation, no narrowing
+    public static final ItemFields ALL = new ItemFields(EnumSet.allOf(Field.class));
+
+    // Fields of ItemSummaryDTO (items listed inside a category)
+    private static final Set<Field> SUMMARY_FIELDS =
+        EnumSet.of(Field.ID, Field.SKU, Field.NAME, Field.PRICE, Field.STOCK);
+
+    private final Set<Field> fields;
+
+    private ItemFields(Set<Field> fields) {
+        this.fields = Collections.unmodifiableSet(fields);
+    }
+
+    /**
+     * Parse a fieldset for ItemResponseDTO
+     *
+     * @param value Comma-separated field names (null or blank for every field)
+     * @return Requested fields
+     * @throws ValidationException if a name is unknown
+     */
+    public static ItemFields forItems(String value) {
+        return parse(value, EnumSet.allOf(Field.class));
+    }
+
+    /**
+     * Parse a fieldset for ItemSummaryDTO (no updatedAt, no category)
+     *
+     * @param value Comma-separated field names (null or blank for every field)
+     * @return Requested fields
+     * @throws ValidationException if a name is unknown
+     */
+    public static ItemFields forSummaries(String value) {
+        return parse(value, SUMMARY_FIELDS);
+    }
+
+    private static ItemFields parse(String value, Set<Field> available) {
+        if (value == null || value.isBlank()) {
+            return ALL;
+        }
+        EnumSet<Field> selected = EnumSet.of(Field.ID);
+        for (String name : value.split(",")) {
+            String trimmed = name.trim();
+            if (trimmed.isEmpty()) {
+                continue;
+            }
+            Field field = find(trimmed, available);
+            if (field == null) {
+                throw new ValidationException("Unknown field '" + trimmed + "', expected some of " + names(available));
+            }
+            selected.add(field);
+        }
+        // Asking for everything is the full representation, and takes its fast path
+        return selected.containsAll(available) ? ALL : new ItemFields(selected);
+    }
+
+    private static Field find(String name, Set<Field> available) {
+        for (Field field : available) {
+            if (field.jsonName.equals(name)) {
+                return field;
+            }
+        }
+        return null;
+    }
+
+    private static String names(Set<Field> fields) {
+        StringJoiner joiner = new StringJoiner(",");
+        for (Field field : fields) {
+            joiner.add(field.jsonName);
+        }
+        return joiner.toString();
+    }
+
+    /**
+     * The same selection plus one field (e.g. a column needed server-side)
+     */
+    public ItemFields with(Field field) {
+        if (fields.contains(field)) {
+            return this;
+        }
+        EnumSet<Field> copy = EnumSet.copyOf(fields);
+        copy.add(field);
+        return copy.size() == Field.values().length ? ALL : new ItemFields(copy);
+    }
+
+    public boolean contains(Field field) {
+        return fields.contains(field);
+    }
+
+    /**
+     * Whether this is the full representation
+     */
+    public boolean isAll() {
+        return this == ALL;
+    }
+
+    /**
+     * Selected fields, in serialization order
+     */
+    public Set<Field> toSet() {
+        return fields;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        return o instanceof ItemFields && fields.equals(((ItemFields) o).fields);
+    }
+
+    @Override
+    public int hashCode() {
+        return fields.hashCode();
+    }
+
+    /**
+     * Comma-separated field names, e.g. "id,sku,stock"
+     */
+    @Override
+    public String toString() {
+        return names(fields);
+    }
+}
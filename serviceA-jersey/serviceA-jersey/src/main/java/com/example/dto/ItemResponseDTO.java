@@ -1,6 +1,7 @@
 package com.example.dto;
 
 import com.fasterxml.jackson.annotation.JsonFormat;
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
 
@@ -19,6 +20,10 @@ public class ItemResponseDTO {
     
     private CategorySummaryDTO category;
 
+    // Fields to serialize (sparse fieldset); null for every field
+    @JsonIgnore
+    private ItemFields fields;
+
     // Constructors
     public ItemResponseDTO() {}
 
@@ -31,6 +36,15 @@ public class ItemResponseDTO {
         this.updatedAt = updatedAt;
     }
 
+    // Used by the HQL projections (SELECT new ...); the category columns are null when there is none
+    public ItemResponseDTO(Long id, String sku, String name, BigDecimal price, int stock, LocalDateTime updatedAt,
+                           Long categoryId, String categoryCode, String categoryName) {
+        this(id, sku, name, price, stock, updatedAt);
+        if (categoryId != null) {
+            this.category = new CategorySummaryDTO(categoryId, categoryCode, categoryName);
+        }
+    }
+
     // Getters and Setters
     public Long getId() {
         return id;
@@ -87,4 +101,12 @@ public class ItemResponseDTO {
     public void setCategory(CategorySummaryDTO category) {
         this.category = category;
     }
+
+    public ItemFields getFields() {
+        return fields;
+    }
+
+    public void setFields(ItemFields fields) {
+        this.fields = fields;
+    }
 }
@@ -1,5 +1,6 @@
 package com.example.dto;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import java.math.BigDecimal;
 
 /**
@@ -12,6 +13,10 @@ public class ItemSummaryDTO {
     private BigDecimal price;
     private int stock;
 
+    // Fields to serialize (sparse fieldset); null for every field
+    @JsonIgnore
+    private ItemFields fields;
+
     // Constructors
     public ItemSummaryDTO() {}
 
@@ -63,4 +68,12 @@ public class ItemSummaryDTO {
     public void setStock(int stock) {
         this.stock = stock;
     }
+
+    public ItemFields getFields() {
+        return fields;
+    }
+
+    public void setFields(ItemFields fields) {
+        this.fields = fields;
+    }
 }
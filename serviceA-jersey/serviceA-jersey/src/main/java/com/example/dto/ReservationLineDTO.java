@@ -0,0 +1,34 @@
+package com.example.dto;
+
+/**
+ * DTO for one line of a stock reservation: how many units of which item
+ */
+public class ReservationLineDTO {
+    private Long itemId;
+    private int quantity;
+
+    // Constructors
+    public ReservationLineDTO() {}
+
+    public ReservationLineDTO(Long itemId, int quantity) {
+        this.itemId = itemId;
+        this.quantity = quantity;
+    }
+
+    // Getters and Setters
+    public Long getItemId() {
+        return itemId;
+    }
+
+    public void setItemId(Long itemId) {
+        this.itemId = itemId;
+    }
+
+    public int getQuantity() {
+        return quantity;
+    }
+
+    public void setQuantity(int quantity) {
+        this.quantity = quantity;
+    }
+}
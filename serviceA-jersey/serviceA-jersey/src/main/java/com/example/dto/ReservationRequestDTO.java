@@ -0,0 +1,26 @@
+package com.example.dto;
+
+import java.util.List;
+
+/**
+ * DTO for reserving stock on several items at once
+ */
+public class ReservationRequestDTO {
+    private List<ReservationLineDTO> lines;
+
+    // Constructors
+    public ReservationRequestDTO() {}
+
+    public ReservationRequestDTO(List<ReservationLineDTO> lines) {
+        this.lines = lines;
+    }
+
+    // Getters and Setters
+    public List<ReservationLineDTO> getLines() {
+        return lines;
+    }
+
+    public void setLines(List<ReservationLineDTO> lines) {
+        this.lines = lines;
+    }
+}
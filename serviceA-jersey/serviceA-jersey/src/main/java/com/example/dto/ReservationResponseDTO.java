@@ -0,0 +1,37 @@
+package com.example.dto;
+
+import java.util.List;
+
+/**
+ * DTO for a successful reservation: the reserved lines (one per item,
+ * ordered by item id) and the total number of units
+ */
+public class ReservationResponseDTO {
+    private List<ReservationLineDTO> lines;
+    private long totalQuantity;
+
+    // Constructors
+    public ReservationResponseDTO() {}
+
+    public ReservationResponseDTO(List<ReservationLineDTO> lines, long totalQuantity) {
+        this.lines = lines;
+        this.totalQuantity = totalQuantity;
+    }
+
+    // Getters and Setters
+    public List<ReservationLineDTO> getLines() {
+        return lines;
+    }
+
+    public void setLines(List<ReservationLineDTO> lines) {
+        this.lines = lines;
+    }
+
+    public long getTotalQuantity() {
+        return totalQuantity;
+    }
+
+    public void setTotalQuantity(long totalQuantity) {
+        this.totalQuantity = totalQuantity;
+    }
+}
@@ -1,6 +1,7 @@
 package com.example.exception;
 
 import jakarta.ws.rs.core.Context;
+import jakarta.ws.rs.core.MediaType;
 import jakarta.ws.rs.core.Response;
 import jakarta.ws.rs.core.UriInfo;
 import jakarta.ws.rs.ext.ExceptionMapper;
@@ -28,6 +29,7 @@ public class GenericExceptionMapper implements ExceptionMapper<Exception> {
         );
         
         return Response.status(Response.Status.INTERNAL_SERVER_ERROR)
+                .type(MediaType.APPLICATION_JSON)
                 .entity(error)
                 .build();
     }
@@ -1,6 +1,7 @@
 package com.example.exception;
 
 import jakarta.ws.rs.core.Context;
+import jakarta.ws.rs.core.MediaType;
 import jakarta.ws.rs.core.Response;
 import jakarta.ws.rs.core.UriInfo;
 import jakarta.ws.rs.ext.ExceptionMapper;
@@ -25,6 +26,7 @@ public class ResourceNotFoundExceptionMapper implements ExceptionMapper<Resource
         );
         
         return Response.status(Response.Status.NOT_FOUND)
+                .type(MediaType.APPLICATION_JSON)
                 .entity(error)
                 .build();
     }
@@ -0,0 +1,19 @@
+package com.example.exception;
+
+/**
+ * Exception thrown when a request is shed because the server is saturated
+ * (work queue full, or no database slot freed in time)
+ */
+public class ServerBusyException extends RuntimeException {
+    
+    private final int retryAfterSeconds;
+    
+    public ServerBusyException(String message, int retryAfterSeconds) {
+        super(message);
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+    
+    public int getRetryAfterSeconds() {
+        return retryAfterSeconds;
+    }
+}
@@ -0,0 +1,36 @@
+package com.example.exception;
+
+import jakarta.ws.rs.core.Context;
+import jakarta.ws.rs.core.HttpHeaders;
+import jakarta.ws.rs.core.MediaType;
+import jakarta.ws.rs.core.Response;
+import jakarta.ws.rs.core.UriInfo;
+import jakarta.ws.rs.ext.ExceptionMapper;
+import jakarta.ws.rs.ext.Provider;
+
+/**
+ * Global exception mapper for ServerBusyException
+ * Answers 503 with a Retry-After header so clients back off
+ */
+@Provider
+public class ServerBusyExceptionMapper implements ExceptionMapper<ServerBusyException> {
+    
+    @Context
+    private UriInfo uriInfo;
+    
+    @Override
+    public Response toResponse(ServerBusyException exception) {
+        ErrorResponse error = new ErrorResponse(
+            Response.Status.SERVICE_UNAVAILABLE.getStatusCode(),
+            "Service Unavailable",
+            exception.getMessage(),
+            uriInfo != null ? uriInfo.getPath() : null
+        );
+        
+        return Response.status(Response.Status.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, exception.getRetryAfterSeconds())
+                .type(MediaType.APPLICATION_JSON)
+                .entity(error)
+                .build();
+    }
+}
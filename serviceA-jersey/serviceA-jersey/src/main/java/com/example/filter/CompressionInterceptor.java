@@ -0,0 +1,254 @@
+package com.example.filter;
+
+import com.example.config.ApplicationProperties;
+import com.example.util.MetricsUtil;
+import io.micrometer.core.instrument.Counter;
+import jakarta.ws.rs.core.Context;
+import jakarta.ws.rs.core.EntityTag;
+import jakarta.ws.rs.core.HttpHeaders;
+import jakarta.ws.rs.core.MediaType;
+import jakarta.ws.rs.core.MultivaluedMap;
+import jakarta.ws.rs.ext.Provider;
+import jakarta.ws.rs.ext.WriterInterceptor;
+import jakarta.ws.rs.ext.WriterInterceptorContext;
+
+import java.io.ByteArrayOutputStream;
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Locale;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Compresses response bodies with gzip when the client accepts it
+ * The body is held back until it reaches the minimum size: smaller bodies
+ * are sent as is, larger ones (including streamed ones) are compressed on the fly
+ */
+@Provider
+public class CompressionInterceptor implements WriterInterceptor {
+
+    private static final boolean ENABLED = ApplicationProperties.getBoolean("compression.enabled", true);
+    private static final int MIN_SIZE = ApplicationProperties.getInt("compression.min-size", 1024);
+    private static final int LEVEL = ApplicationProperties.getInt("compression.level", 6);
+
+    private static final Counter rawBytes = Counter.builder("http.compression.raw.bytes")
+            .description("Size of the compressed responses before compression")
+            .baseUnit("bytes")
+            .register(MetricsUtil.getRegistry());
+    private static final Counter compressedBytes = Counter.builder("http.compression.compressed.bytes")
+            .description("Size of the compressed responses on the wire")
+            .baseUnit("bytes")
+            .register(MetricsUtil.getRegistry());
+    private static final Counter compressed = responses("compressed");
+    private static final Counter belowThreshold = responses("below_threshold");
+
+    @Context
+    private HttpHeaders requestHeaders;
+
+    @Override
+    public void aroundWriteTo(WriterInterceptorContext context) throws IOException {
+        MultivaluedMap<String, Object> headers = context.getHeaders();
+        // Event streams must reach the client event by event, not once a gzip block fills up
+        if (!ENABLED || headers.containsKey(HttpHeaders.CONTENT_ENCODING)
+                || MediaType.SERVER_SENT_EVENTS_TYPE.isCompatible(context.getMediaType())) {
+            context.proceed();
+            return;
+        }
+        // The representation depends on Accept-Encoding, whatever this client sent
+        headers.add(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+        if (!acceptsGzip(requestHeaders.getHeaderString(HttpHeaders.ACCEPT_ENCODING))) {
+            context.proceed();
+            return;
+        }
+
+        ThresholdGzipOutputStream stream = new ThresholdGzipOutputStream(context.getOutputStream(), headers);
+        context.setOutputStream(stream);
+        boolean written = false;
+        try {
+            context.proceed();
+            written = true;
+        } finally {
+            if (written) {
+                stream.close();
+            } else {
+                // After a failure, neither the held-back body nor a gzip trailer (which would
+                // make a cut body look complete) is sent, but the deflater is still released
+                stream.discard();
+            }
+        }
+    }
+
+    /**
+     * Whether an Accept-Encoding value allows gzip (q=0 means "not acceptable")
+     * An explicit gzip or x-gzip entry decides; "*" only applies when neither is listed
+     */
+    static boolean acceptsGzip(String acceptEncoding) {
+        if (acceptEncoding == null) {
+            return false;
+        }
+        double gzip = -1;
+        double any = -1;
+        for (String part : acceptEncoding.split(",")) {
+            String[] tokens = part.trim().split(";");
+            String coding = tokens[0].trim().toLowerCase(Locale.ROOT);
+            if (coding.equals("gzip") || coding.equals("x-gzip")) {
+                gzip = Math.max(gzip, quality(tokens));
+            } else if (coding.equals("*")) {
+                any = Math.max(any, quality(tokens));
+            }
+        }
+        return (gzip >= 0 ? gzip : any) > 0;
+    }
+
+    private static double quality(String[] tokens) {
+        double q = 1.0;
+        for (int i = 1; i < tokens.length; i++) {
+            String param = tokens[i].trim();
+            if (param.startsWith("q=")) {
+                try {
+                    q = Double.parseDouble(param.substring(2));
+                } catch (NumberFormatException e) {
+                    q = 0;
+                }
+            }
+        }
+        return q;
+    }
+
+    private static Counter responses(String result) {
+        return Counter.builder("http.compression.responses")
+                .description("Responses from clients accepting gzip, by outcome")
+                .tag("result", result)
+                .register(MetricsUtil.getRegistry());
+    }
+
+    /**
+     * Buffers the first MIN_SIZE bytes, then switches to gzip; headers are
+     * only changed before anything reaches the container stream
+     */
+    private static final class ThresholdGzipOutputStream extends OutputStream {
+
+        private final OutputStream target;
+        private final MultivaluedMap<String, Object> headers;
+        private ByteArrayOutputStream pending = new ByteArrayOutputStream(Math.min(MIN_SIZE, 8192));
+        private CountingOutputStream counting;
+        private LeveledGzipOutputStream gzip;
+        private long raw;
+        private boolean closed;
+
+        ThresholdGzipOutputStream(OutputStream target, MultivaluedMap<String, Object> headers) {
+            this.target = target;
+            this.headers = headers;
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            write(new byte[] {(byte) b}, 0, 1);
+        }
+
+        @Override
+        public void write(byte[] bytes, int offset, int length) throws IOException {
+            raw += length;
+            if (gzip != null) {
+                gzip.write(bytes, offset, length);
+                return;
+            }
+            pending.write(bytes, offset, length);
+            if (pending.size() >= MIN_SIZE) {
+                startGzip();
+            }
+        }
+
+        @Override
+        public void flush() throws IOException {
+            // Below the threshold nothing is sent yet, so there is nothing to flush
+            if (gzip != null) {
+                gzip.flush();
+            }
+        }
+
+        @Override
+        public void close() throws IOException {
+            if (closed) {
+                return;
+            }
+            closed = true;
+            if (gzip != null) {
+                // Writes the trailer and releases the deflater; the container stream stays open
+                gzip.close();
+                rawBytes.increment(raw);
+                compressedBytes.increment(counting.count);
+                compressed.increment();
+            } else {
+                pending.writeTo(target);
+                belowThreshold.increment();
+            }
+            target.close();
+        }
+
+        void discard() {
+            if (closed) {
+                return;
+            }
+            closed = true;
+            pending = null;
+            if (gzip != null) {
+                gzip.discard();
+            }
+        }
+
+        private void startGzip() throws IOException {
+            headers.putSingle(HttpHeaders.CONTENT_ENCODING, "gzip");
+            headers.remove(HttpHeaders.CONTENT_LENGTH);
+            // A strong validator must change with the encoding; the weak form keeps
+            // If-None-Match working since GET preconditions compare weakly
+            Object tag = headers.getFirst(HttpHeaders.ETAG);
+            if (tag instanceof EntityTag entityTag && !entityTag.isWeak()) {
+                headers.putSingle(HttpHeaders.ETAG, new EntityTag(entityTag.getValue(), true));
+            }
+            counting = new CountingOutputStream(target);
+            gzip = new LeveledGzipOutputStream(counting);
+            pending.writeTo(gzip);
+            pending = null;
+        }
+    }
+
+    private static final class LeveledGzipOutputStream extends GZIPOutputStream {
+
+        LeveledGzipOutputStream(OutputStream out) throws IOException {
+            // syncFlush: a flush of a streamed body pushes the data compressed so far
+            super(out, 8192, true);
+            def.setLevel(LEVEL);
+        }
+
+        // Release the native deflater without finishing the stream
+        void discard() {
+            def.end();
+        }
+    }
+
+    private static final class CountingOutputStream extends FilterOutputStream {
+        long count;
+
+        CountingOutputStream(OutputStream out) {
+            super(out);
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            out.write(b);
+            count++;
+        }
+
+        @Override
+        public void write(byte[] bytes, int offset, int length) throws IOException {
+            out.write(bytes, offset, length);
+            count += length;
+        }
+
+        @Override
+        public void close() {
+            // The container stream is closed by ThresholdGzipOutputStream
+        }
+    }
+}
@@ -0,0 +1,64 @@
+package com.example.filter;
+
+import com.example.util.MetricsUtil;
+import io.micrometer.core.instrument.Gauge;
+import jakarta.servlet.Filter;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletRequest;
+import jakarta.servlet.ServletResponse;
+import jakarta.servlet.http.HttpServletRequest;
+
+import java.io.IOException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Servlet filter capping how many requests run against the database at once
+ * With virtual threads, request handling is no longer bounded by a thread
+ * pool: at most "permits" requests (the connection pool size) go down to the
+ * DAOs, the others park on the semaphore instead of piling up on the pool
+ * The permit is only taken by DbPermitFilter, after the rate limiter, and is
+ * given back when the response entity is built (streams keep it until they
+ * are written). Requests that wait longer than the timeout get a 503 with
+ * Retry-After
+ */
+public class DbConcurrencyFilter implements Filter {
+
+    private final Semaphore permits;
+    private final long timeoutMillis;
+    private final int retryAfterSeconds;
+
+    public DbConcurrencyFilter(int permits, long timeoutMillis) {
+        this.permits = new Semaphore(permits, true);
+        this.timeoutMillis = timeoutMillis;
+        // A request that waited the whole timeout is told to wait as long before retrying
+        this.retryAfterSeconds = (int) Math.max(1, TimeUnit.MILLISECONDS.toSeconds(timeoutMillis + 999));
+        Gauge.builder("db.concurrency.permits.available", this.permits, Semaphore::availablePermits)
+            .description("Database permits currently free")
+            .register(MetricsUtil.getRegistry());
+        Gauge.builder("db.concurrency.waiting", this.permits, Semaphore::getQueueLength)
+            .description("Requests waiting for a database permit")
+            .register(MetricsUtil.getRegistry());
+    }
+
+    @Override
+    public void doFilter(ServletRequest request, ServletResponse response, FilterChain chain)
+            throws IOException, ServletException {
+        HttpServletRequest httpRequest = (HttpServletRequest) request;
+        String path = httpRequest.getRequestURI().substring(httpRequest.getContextPath().length());
+        // Probes and scrapes never touch the database and must stay reachable under load
+        if (path.startsWith("/metrics") || path.startsWith("/health")) {
+            chain.doFilter(request, response);
+            return;
+        }
+
+        DbPermit permit = new DbPermit(permits, timeoutMillis, retryAfterSeconds);
+        request.setAttribute(DbPermit.ATTRIBUTE, permit);
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            permit.release();
+        }
+    }
+}
@@ -0,0 +1,55 @@
+package com.example.filter;
+
+import com.example.exception.ServerBusyException;
+
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Database permit of one request, left by DbConcurrencyFilter in the
+ * servlet request and taken by DbPermitFilter once the request has passed
+ * the rate limiter
+ * Released as soon as the response entity is built, or at the latest when
+ * the servlet filter returns; releasing twice is harmless
+ */
+final class DbPermit {
+
+    static final String ATTRIBUTE = DbPermit.class.getName();
+
+    private final Semaphore permits;
+    private final long timeoutMillis;
+    private final int retryAfterSeconds;
+    private final AtomicBoolean held = new AtomicBoolean();
+
+    DbPermit(Semaphore permits, long timeoutMillis, int retryAfterSeconds) {
+        this.permits = permits;
+        this.timeoutMillis = timeoutMillis;
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+
+    /**
+     * Wait for a permit, at most the configured timeout
+     *
+     * @throws ServerBusyException if none was freed in time
+     */
+    void acquire() {
+        boolean acquired;
+        try {
+            acquired = permits.tryAcquire(timeoutMillis, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            acquired = false;
+        }
+        if (!acquired) {
+            throw new ServerBusyException("Too many concurrent requests, please retry", retryAfterSeconds);
+        }
+        held.set(true);
+    }
+
+    void release() {
+        if (held.compareAndSet(true, false)) {
+            permits.release();
+        }
+    }
+}
@@ -0,0 +1,48 @@
+package com.example.filter;
+
+import jakarta.annotation.Priority;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.ws.rs.Priorities;
+import jakarta.ws.rs.container.ContainerRequestContext;
+import jakarta.ws.rs.container.ContainerRequestFilter;
+import jakarta.ws.rs.container.ContainerResponseContext;
+import jakarta.ws.rs.container.ContainerResponseFilter;
+import jakarta.ws.rs.core.Context;
+import jakarta.ws.rs.core.StreamingOutput;
+import jakarta.ws.rs.ext.Provider;
+
+/**
+ * Takes the database permit of the request (see DbConcurrencyFilter) after
+ * the rate limiter and before the unit of work, and gives it back once the
+ * response entity is built: serializing a DTO and writing it to a slow
+ * client need no connection. Streamed entities read the database while they
+ * are written, so they keep the permit until the servlet filter returns
+ * No-op when DbConcurrencyFilter is not installed
+ */
+@Provider
+@Priority(Priorities.AUTHORIZATION)
+public class DbPermitFilter implements ContainerRequestFilter, ContainerResponseFilter {
+
+    @Context
+    private HttpServletRequest servletRequest;
+
+    @Override
+    public void filter(ContainerRequestContext request) {
+        DbPermit permit = permit();
+        if (permit != null) {
+            permit.acquire();
+        }
+    }
+
+    @Override
+    public void filter(ContainerRequestContext request, ContainerResponseContext response) {
+        DbPermit permit = permit();
+        if (permit != null && !(response.getEntity() instanceof StreamingOutput)) {
+            permit.release();
+        }
+    }
+
+    private DbPermit permit() {
+        return servletRequest == null ? null : (DbPermit) servletRequest.getAttribute(DbPermit.ATTRIBUTE);
+    }
+}
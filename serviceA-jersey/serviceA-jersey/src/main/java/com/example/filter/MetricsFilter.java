@@ -0,0 +1,111 @@
+package com.example.filter;
+
+import com.example.util.MetricsUtil;
+import io.micrometer.core.instrument.LongTaskTimer;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.Priority;
+import jakarta.ws.rs.Priorities;
+import jakarta.ws.rs.container.ContainerRequestContext;
+import jakarta.ws.rs.container.ContainerRequestFilter;
+import jakarta.ws.rs.container.ContainerResponseContext;
+import jakarta.ws.rs.container.ContainerResponseFilter;
+import jakarta.ws.rs.container.PreMatching;
+import jakarta.ws.rs.core.Response;
+import jakarta.ws.rs.ext.Provider;
+import jakarta.ws.rs.ext.WriterInterceptor;
+import jakarta.ws.rs.ext.WriterInterceptorContext;
+
+import java.io.IOException;
+
+/**
+ * Records every request in http.server.requests, the timer the Spring
+ * variants publish, with the same tags (method, uri template, status,
+ * outcome), so dashboards can compare the services side by side
+ * In-flight requests are tracked by http.server.requests.active. Timing
+ * starts before resource matching, so unknown paths are recorded as well,
+ * and ends once the body is written: streamed bodies read the database
+ * while they are written, which the time must include
+ */
+@Provider
+@PreMatching
+@Priority(Priorities.USER - 100)
+public class MetricsFilter implements ContainerRequestFilter, ContainerResponseFilter, WriterInterceptor {
+
+    private static final String SAMPLE = MetricsFilter.class.getName() + ".sample";
+    private static final String ACTIVE = MetricsFilter.class.getName() + ".active";
+    private static final String WRITING = MetricsFilter.class.getName() + ".writing";
+
+    private static final LongTaskTimer active = LongTaskTimer.builder("http.server.requests.active")
+            .description("Requests being processed")
+            .register(MetricsUtil.getRegistry());
+
+    @Override
+    public void filter(ContainerRequestContext request) {
+        request.setProperty(SAMPLE, Timer.start(MetricsUtil.getRegistry()));
+        request.setProperty(ACTIVE, active.start());
+    }
+
+    @Override
+    public void filter(ContainerRequestContext request, ContainerResponseContext response) {
+        // Suspended requests get here when they are resumed, so the time covers the async work
+        Object sample = request.getProperty(SAMPLE);
+        if (!(sample instanceof Timer.Sample)) {
+            return;
+        }
+        request.removeProperty(SAMPLE);
+        LongTaskTimer.Sample activeSample = (LongTaskTimer.Sample) request.getProperty(ACTIVE);
+        request.removeProperty(ACTIVE);
+
+        int status = response.getStatus();
+        Timer timer = Timer.builder("http.server.requests")
+                .description("HTTP server request latency")
+                .tags(Tags.of(
+                        "method", request.getMethod(),
+                        "uri", uri(request, status),
+                        "status", Integer.toString(status),
+                        "outcome", Response.Status.Family.familyOf(status).name()))
+                .register(MetricsUtil.getRegistry());
+        Recording recording = new Recording((Timer.Sample) sample, activeSample, timer);
+        if (response.hasEntity()) {
+            // Stopped by aroundWriteTo, after the body
+            request.setProperty(WRITING, recording);
+        } else {
+            recording.stop();
+        }
+    }
+
+    @Override
+    public void aroundWriteTo(WriterInterceptorContext context) throws IOException {
+        try {
+            context.proceed();
+        } finally {
+            // Also when writing fails (client gone): the request is over either way
+            Object recording = context.getProperty(WRITING);
+            if (recording instanceof Recording) {
+                context.removeProperty(WRITING);
+                ((Recording) recording).stop();
+            }
+        }
+    }
+
+    /**
+     * Route template of the matched resource method ("/items/{id}"), never the
+     * raw path, so that the number of time series stays bounded
+     */
+    private static String uri(ContainerRequestContext request, int status) {
+        String template = RouteTemplates.of(request);
+        if (template == null) {
+            return status == 404 ? "NOT_FOUND" : "UNKNOWN";
+        }
+        return template;
+    }
+
+    private record Recording(Timer.Sample sample, LongTaskTimer.Sample active, Timer timer) {
+
+        void stop() {
+            active.stop();
+            sample.stop(timer);
+        }
+    }
+}
@@ -0,0 +1,164 @@
+package com.example.filter;
+
+import com.example.config.ApplicationProperties;
+import com.example.exception.ErrorResponse;
+import com.example.util.MetricsUtil;
+import com.example.util.RateLimiter;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import jakarta.annotation.Priority;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.ws.rs.Priorities;
+import jakarta.ws.rs.container.ContainerRequestContext;
+import jakarta.ws.rs.container.ContainerRequestFilter;
+import jakarta.ws.rs.core.Context;
+import jakarta.ws.rs.core.HttpHeaders;
+import jakarta.ws.rs.core.MediaType;
+import jakarta.ws.rs.core.Response;
+import jakarta.ws.rs.ext.Provider;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * Per-client rate limiting, one token bucket per client and route
+ * Clients are told apart by their API key (ratelimit.key-header) when it is
+ * one of ratelimit.api-keys, otherwise by their address: a made-up key gets
+ * no bucket of its own. Each route template gets the default limit
+ * (ratelimit.default.*) unless ratelimit.route.&lt;template&gt;.* overrides it.
+ * Requests over the limit are answered 429 before any resource code runs,
+ * with Retry-After and RateLimit-* headers
+ */
+@Provider
+@Priority(Priorities.AUTHENTICATION)
+public class RateLimitFilter implements ContainerRequestFilter {
+
+    private static final boolean ENABLED = ApplicationProperties.getBoolean("ratelimit.enabled", false);
+    private static final String KEY_HEADER = ApplicationProperties.get("ratelimit.key-header", "X-API-Key");
+    private static final Set<String> API_KEYS = Arrays.stream(
+            ApplicationProperties.get("ratelimit.api-keys", "").split(","))
+        .map(String::trim)
+        .filter(key -> !key.isEmpty())
+        .collect(Collectors.toUnmodifiableSet());
+    private static final boolean TRUST_FORWARDED_FOR =
+        ApplicationProperties.getBoolean("ratelimit.trust-forwarded-for", false);
+    private static final RateLimiter.Limit DEFAULT_LIMIT = new RateLimiter.Limit(
+        ApplicationProperties.getInt("ratelimit.default.rate", 100),
+        ApplicationProperties.getInt("ratelimit.default.burst", 200));
+
+    private static final RateLimiter limiter = ENABLED
+        ? new RateLimiter(ApplicationProperties.getInt("ratelimit.sweep-seconds", 60))
+        : null;
+
+    // Limit per route template, resolved from the settings on first use
+    private static final Map<String, RateLimiter.Limit> routeLimits = new ConcurrentHashMap<>();
+
+    static {
+        if (ENABLED) {
+            Gauge.builder("ratelimit.buckets", limiter, RateLimiter::size)
+                .description("Client buckets currently tracked")
+                .register(MetricsUtil.getRegistry());
+        }
+    }
+
+    @Context
+    private HttpServletRequest servletRequest;
+
+    /**
+     * Resolve the default and every configured route limit now, so that a
+     * rate or burst that is not positive stops the startup instead of
+     * failing requests
+     *
+     * @throws IllegalArgumentException on an invalid limit
+     */
+    public static void checkSettings() {
+        if (!ENABLED) {
+            return;
+        }
+        String prefix = "ratelimit.route.";
+        for (String key : ApplicationProperties.keys(prefix)) {
+            int dot = key.lastIndexOf('.');
+            if (dot > prefix.length()) {
+                String route = key.substring(prefix.length(), dot);
+                routeLimits.computeIfAbsent(route, RateLimitFilter::limitOf);
+            }
+        }
+    }
+
+    @Override
+    public void filter(ContainerRequestContext request) {
+        if (!ENABLED) {
+            return;
+        }
+        String route = RouteTemplates.of(request);
+        // Probes and scrapes must stay reachable whatever the clients do
+        if (route == null || route.startsWith("/metrics") || route.startsWith("/health")) {
+            return;
+        }
+
+        RateLimiter.Limit limit = routeLimits.computeIfAbsent(route, RateLimitFilter::limitOf);
+        RateLimiter.Decision decision = limiter.tryAcquire(client(request) + ' ' + route, limit);
+        if (!decision.allowed()) {
+            Counter.builder("ratelimit.rejected")
+                .description("Requests answered 429 by the rate limiter")
+                .tag("uri", route)
+                .register(MetricsUtil.getRegistry())
+                .increment();
+            request.abortWith(tooManyRequests(request, route, limit, decision));
+        }
+    }
+
+    private static RateLimiter.Limit limitOf(String route) {
+        String prefix = "ratelimit.route." + route;
+        try {
+            return new RateLimiter.Limit(
+                ApplicationProperties.getInt(prefix + ".rate", DEFAULT_LIMIT.perSecond()),
+                ApplicationProperties.getInt(prefix + ".burst", DEFAULT_LIMIT.burst()));
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Invalid " + prefix + " limit: " + e.getMessage(), e);
+        }
+    }
+
+    private String client(ContainerRequestContext request) {
+        String apiKey = request.getHeaderString(KEY_HEADER);
+        if (apiKey != null && API_KEYS.contains(apiKey)) {
+            return "key:" + apiKey;
+        }
+        if (TRUST_FORWARDED_FOR) {
+            String forwarded = request.getHeaderString("X-Forwarded-For");
+            if (forwarded != null && !forwarded.isEmpty()) {
+                int comma = forwarded.indexOf(',');
+                return "ip:" + (comma < 0 ? forwarded : forwarded.substring(0, comma)).trim();
+            }
+        }
+        return "ip:" + (servletRequest != null ? servletRequest.getRemoteAddr() : "unknown");
+    }
+
+    private static Response tooManyRequests(ContainerRequestContext request, String route,
+                                            RateLimiter.Limit limit, RateLimiter.Decision decision) {
+        long retryAfter = seconds(decision.retryAfterNanos());
+        ErrorResponse error = new ErrorResponse(
+            Response.Status.TOO_MANY_REQUESTS.getStatusCode(),
+            "Too Many Requests",
+            "Rate limit of " + limit.perSecond() + " requests per second exceeded on " + route,
+            request.getUriInfo().getPath()
+        );
+        return Response.status(Response.Status.TOO_MANY_REQUESTS)
+                .header(HttpHeaders.RETRY_AFTER, retryAfter)
+                .header("RateLimit-Limit", limit.burst())
+                .header("RateLimit-Remaining", 0)
+                .header("RateLimit-Reset", seconds(decision.resetNanos()))
+                .type(MediaType.APPLICATION_JSON)
+                .entity(error)
+                .build();
+    }
+
+    // Whole seconds, rounded up, at least 1
+    private static long seconds(long nanos) {
+        return Math.max(1, (nanos + TimeUnit.SECONDS.toNanos(1) - 1) / TimeUnit.SECONDS.toNanos(1));
+    }
+}
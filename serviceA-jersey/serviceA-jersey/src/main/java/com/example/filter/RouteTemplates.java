@@ -0,0 +1,37 @@
+package com.example.filter;
+
+import jakarta.ws.rs.container.ContainerRequestContext;
+import org.glassfish.jersey.server.ExtendedUriInfo;
+import org.glassfish.jersey.uri.UriTemplate;
+
+import java.util.List;
+
+/**
+ * Route template of the resource method a request matched ("/items/{id}"),
+ * used instead of the raw path wherever a bounded set of keys is needed
+ */
+final class RouteTemplates {
+
+    private RouteTemplates() {}
+
+    /**
+     * @return The matched route template, or null if no resource matched (yet)
+     */
+    static String of(ContainerRequestContext request) {
+        List<UriTemplate> templates = ((ExtendedUriInfo) request.getUriInfo()).getMatchedTemplates();
+        if (templates.isEmpty()) {
+            return null;
+        }
+        StringBuilder uri = new StringBuilder();
+        // Matched templates are listed from the resource method up to the class
+        for (int i = templates.size() - 1; i >= 0; i--) {
+            String template = templates.get(i).getTemplate();
+            if (!template.startsWith("/")) {
+                uri.append('/');
+            }
+            uri.append(template);
+        }
+        String result = uri.toString().replaceAll("/+", "/");
+        return result.length() > 1 && result.endsWith("/") ? result.substring(0, result.length() - 1) : result;
+    }
+}
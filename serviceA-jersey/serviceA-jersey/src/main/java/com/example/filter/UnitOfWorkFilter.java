@@ -0,0 +1,44 @@
+package com.example.filter;
+
+import com.example.config.ApplicationProperties;
+import com.example.util.UnitOfWork;
+import jakarta.ws.rs.HttpMethod;
+import jakarta.ws.rs.container.ContainerRequestContext;
+import jakarta.ws.rs.container.ContainerRequestFilter;
+import jakarta.ws.rs.container.ContainerResponseContext;
+import jakarta.ws.rs.container.ContainerResponseFilter;
+import jakarta.ws.rs.ext.Provider;
+
+import java.util.Set;
+
+/**
+ * Binds a unit of work to every write request (POST, PUT, PATCH, DELETE)
+ * All DAO calls of the request then share one session, one connection and
+ * one transaction, committed once by AsyncResponses when the service call
+ * succeeded and rolled back otherwise
+ */
+@Provider
+public class UnitOfWorkFilter implements ContainerRequestFilter, ContainerResponseFilter {
+
+    private static final boolean ENABLED = ApplicationProperties.getBoolean("unit-of-work.enabled", true);
+
+    private static final Set<String> WRITE_METHODS =
+        Set.of(HttpMethod.POST, HttpMethod.PUT, HttpMethod.PATCH, HttpMethod.DELETE);
+
+    @Override
+    public void filter(ContainerRequestContext request) {
+        if (ENABLED && WRITE_METHODS.contains(request.getMethod())) {
+            UnitOfWork.begin();
+        }
+    }
+
+    @Override
+    public void filter(ContainerRequestContext request, ContainerResponseContext response) {
+        // Normally already committed and closed; this only releases a unit of work
+        // whose request failed before the resource method ran (unreadable body)
+        UnitOfWork unit = UnitOfWork.current();
+        if (unit != null) {
+            unit.close();
+        }
+    }
+}
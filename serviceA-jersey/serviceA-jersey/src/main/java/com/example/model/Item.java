@@ -2,11 +2,18 @@ package com.example.model;
 
 import com.fasterxml.jackson.annotation.JsonIgnore;
 import jakarta.persistence.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "item")
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "item")
+@Table(name = "item", indexes = {
+        // ✅ Sert le parcours par catégorie : WHERE category_id = ? AND id > ? ORDER BY id
+        @Index(name = "idx_item_category_id", columnList = "category_id, id")
+})
 public class Item {
 
     @Id
@@ -0,0 +1,125 @@
+package com.example.rest;
+
+import com.example.config.ApplicationProperties;
+import com.example.exception.ServerBusyException;
+import com.example.util.DbExecutor;
+import com.example.util.UnitOfWork;
+import jakarta.ws.rs.container.AsyncResponse;
+import jakarta.ws.rs.core.Response;
+
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Supplier;
+
+/**
+ * Runs the body of a suspended request on the bounded database executor
+ * When async mode is off, the body runs inline on the request thread.
+ * The unit of work bound by UnitOfWorkFilter follows the body to the thread
+ * that runs it, and is committed before the response is sent
+ */
+final class AsyncResponses {
+
+    private static final long TIMEOUT_MILLIS = ApplicationProperties.getLong("server.async.timeout-ms", 30000);
+    // Exports and reports legitimately run longer than a regular request
+    static final long LONG_TIMEOUT_MILLIS = ApplicationProperties.getLong("server.async.long-timeout-ms", 600000);
+    private static final int RETRY_AFTER_SECONDS = ApplicationProperties.getInt("server.async.retry-after-seconds", 1);
+
+    // Outcome of a request run on the executor: the first of the body and the timeout wins
+    private static final int RUNNING = 0;
+    private static final int FINISHING = 1;
+    private static final int TIMED_OUT = 2;
+
+    private AsyncResponses() {}
+
+    /**
+     * Produce the response of a suspended request, within server.async.timeout-ms
+     *
+     * @see #run(AsyncResponse, long, Supplier)
+     */
+    static void run(AsyncResponse response, Supplier<Response> work) {
+        run(response, TIMEOUT_MILLIS, work);
+    }
+
+    /**
+     * Produce the response of a suspended request
+     * A full queue answers 503 right away; work that has not completed
+     * within the timeout answers 503 and is dropped if it has not started.
+     * Work already running when the timeout answered goes on, but its unit
+     * of work is rolled back instead of committed, so that a client retrying
+     * the request does not apply it twice
+     *
+     * @param response Suspended response
+     * @param timeoutMillis Time allowed to the work, 0 for no limit
+     * @param work Builds the response (exceptions go through the exception mappers)
+     */
+    static void run(AsyncResponse response, long timeoutMillis, Supplier<Response> work) {
+        UnitOfWork unit = UnitOfWork.detach();
+        if (!DbExecutor.isEnabled()) {
+            complete(response, work, unit, new AtomicInteger(RUNNING));
+            return;
+        }
+
+        AtomicReference<Future<?>> task = new AtomicReference<>();
+        AtomicInteger state = new AtomicInteger(RUNNING);
+        if (timeoutMillis > 0) {
+            response.setTimeout(timeoutMillis, TimeUnit.MILLISECONDS);
+            response.setTimeoutHandler(timedOut -> {
+                if (!state.compareAndSet(RUNNING, TIMED_OUT)) {
+                    // Already committing: its outcome is about to be sent, a 503 would hide it
+                    timedOut.setTimeout(timeoutMillis, TimeUnit.MILLISECONDS);
+                    return;
+                }
+                Future<?> pending = task.get();
+                if (pending != null) {
+                    pending.cancel(false);
+                }
+                timedOut.resume(new ServerBusyException("Request timed out waiting for the database", RETRY_AFTER_SECONDS));
+            });
+        }
+        try {
+            task.set(DbExecutor.submit(() -> complete(response, work, unit, state)));
+        } catch (RejectedExecutionException e) {
+            if (unit != null) {
+                unit.close();
+            }
+            response.resume(new ServerBusyException("Too many pending requests, please retry", RETRY_AFTER_SECONDS));
+        }
+    }
+
+    private static void complete(AsyncResponse response, Supplier<Response> work, UnitOfWork unit,
+                                 AtomicInteger state) {
+        if (unit == null) {
+            try {
+                response.resume(work.get());
+            } catch (RuntimeException e) {
+                response.resume(e);
+            }
+            return;
+        }
+
+        Response result = null;
+        RuntimeException failure = null;
+        UnitOfWork.attach(unit);
+        try {
+            result = work.get();
+            if (!state.compareAndSet(RUNNING, FINISHING)) {
+                // The client was already answered 503 and may retry: leave no trace
+                unit.setRollbackOnly();
+            }
+            // Commit before answering, so a failed commit is reported to the client
+            unit.commit();
+        } catch (RuntimeException e) {
+            failure = e;
+        } finally {
+            unit.close();
+        }
+        if (failure != null) {
+            response.resume(failure);
+        } else {
+            response.resume(result);
+        }
+    }
+}
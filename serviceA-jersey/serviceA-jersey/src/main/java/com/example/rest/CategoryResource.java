@@ -2,22 +2,35 @@ package com.example.rest;
 
 import com.example.dto.CategoryRequestDTO;
 import com.example.dto.CategoryResponseDTO;
+import com.example.dto.CursorPageDTO;
+import com.example.dto.ItemFields;
+import com.example.dto.ItemSummaryDTO;
 import com.example.service.CategoryService;
+import com.example.service.PageStream;
 import jakarta.ws.rs.*;
+import jakarta.ws.rs.container.AsyncResponse;
+import jakarta.ws.rs.container.Suspended;
+import jakarta.ws.rs.core.Context;
+import jakarta.ws.rs.core.HttpHeaders;
 import jakarta.ws.rs.core.MediaType;
+import jakarta.ws.rs.core.Request;
 import jakarta.ws.rs.core.Response;
 import jakarta.ws.rs.core.UriBuilder;
+import jakarta.ws.rs.core.UriInfo;
 
 import java.net.URI;
+import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
 
 /**
  * REST API endpoints for Category operations
  * Handles HTTP requests and delegates business logic to CategoryService
  */
 @Path("/categories")
-@Produces(MediaType.APPLICATION_JSON)
-@Consumes(MediaType.APPLICATION_JSON)
+@Produces({MediaType.APPLICATION_JSON, Formats.SMILE, Formats.CBOR})
+@Consumes({MediaType.APPLICATION_JSON, Formats.SMILE, Formats.CBOR})
 public class CategoryResource {
 
     private final CategoryService categoryService;
@@ -33,64 +46,128 @@ public class CategoryResource {
 
     /**
      * GET /categories - Get all categories with pagination
+     * Passing "after" (empty for the first page) switches to keyset pagination:
+     * the response then wraps the page with the cursor of the next one
      * 
-     * @param page Page number (default: 0)
+     * @param page Page number (default: 0), ignored in cursor mode
      * @param size Page size (default: 10)
-     * @return List of categories
+     * @param after Cursor returned as nextCursor by the previous page
+     * @param response Resumed with list of categories, or a cursor page
      */
     @GET
-    public Response getAllCategories(
+    public void getAllCategories(
             @QueryParam("page") @DefaultValue("0") int page,
-            @QueryParam("size") @DefaultValue("10") int size) {
+            @QueryParam("size") @DefaultValue("10") int size,
+            @QueryParam("after") String after,
+            @Suspended AsyncResponse response) {
         
-        List<CategoryResponseDTO> categories = categoryService.getAllCategories(page, size);
-        return Response.ok(categories).build();
+        AsyncResponses.run(response, () -> {
+            if (after != null) {
+                CursorPageDTO<CategoryResponseDTO> cursorPage = categoryService.getCategoriesAfter(after, size);
+                return Response.ok(cursorPage).build();
+            }
+            
+            List<CategoryResponseDTO> categories = categoryService.getAllCategories(page, size);
+            return Response.ok(categories).build();
+        });
     }
 
     /**
      * GET /categories/{id} - Get a category by ID
+     * Sends an ETag and Last-Modified; If-None-Match / If-Modified-Since get a
+     * 304 without the category being loaded
      * 
      * @param id Category ID
-     * @return Category details
+     * @param response Resumed with category details, or 304 Not Modified
      */
     @GET
     @Path("/{id}")
-    public Response getCategoryById(@PathParam("id") Long id) {
-        CategoryResponseDTO category = categoryService.getCategoryById(id);
-        return Response.ok(category).build();
+    public void getCategoryById(
+            @PathParam("id") Long id,
+            @Context Request request,
+            @Context HttpHeaders headers,
+            @Suspended AsyncResponse response) {
+        
+        AsyncResponses.run(response, () -> {
+            String variant = Formats.variant(Formats.select(headers), null);
+            if (ConditionalGet.isConditional(headers)) {
+                // Answer 304 from the version alone, before loading and serializing the category
+                Optional<LocalDateTime> updatedAt = categoryService.getCategoryLastModified(id);
+                if (updatedAt.isPresent()) {
+                    Response notModified = ConditionalGet.notModified(request, id, updatedAt.get(), variant);
+                    if (notModified != null) {
+                        return notModified;
+                    }
+                }
+            }
+            
+            CategoryResponseDTO category = categoryService.getCategoryById(id);
+            return ConditionalGet.ok(category, id, category.getUpdatedAt(), variant);
+        });
     }
 
     /**
      * GET /categories/{id}/with-items - Get a category with its items
+     * At most "limit" items are returned (bounded by a server-side maximum);
+     * passing "after" (empty for the first page) adds the cursor of the next
+     * page, and items are streamed as they are read. Without "after", a page
+     * cut at the limit has a Link rel="next" header
      * 
      * @param id Category ID
-     * @return Category details with items
+     * @param limit Maximum number of items (default and maximum are configurable)
+     * @param after Cursor returned as nextCursor by the previous page
+     * @param fields Comma-separated item fields to return (default: all), id is always included
+     * @param uriInfo Request URI, base of the next-page link
+     * @param response Resumed with category details with items
      */
     @GET
     @Path("/{id}/with-items")
-    public Response getCategoryWithItems(@PathParam("id") Long id) {
-        CategoryResponseDTO category = categoryService.getCategoryWithItems(id);
-        return Response.ok(category).build();
+    public void getCategoryWithItems(
+            @PathParam("id") Long id,
+            @QueryParam("limit") Integer limit,
+            @QueryParam("after") String after,
+            @QueryParam("fields") String fields,
+            @Context HttpHeaders headers,
+            @Context UriInfo uriInfo,
+            @Suspended AsyncResponse response) {
+        
+        AsyncResponses.run(response, () -> {
+            PageStream<ItemSummaryDTO> items =
+                categoryService.getCategoryItems(id, after, limit, ItemFields.forSummaries(fields));
+            CategoryResponseDTO category = categoryService.getCategoryById(id);
+            MediaType format = Formats.select(headers);
+            if (after != null) {
+                return Response.ok(JsonStreams.object(format, category, "items", ItemSummaryDTO.class, items, true),
+                        format).build();
+            }
+            // No cursor in the body: the items are read first, so that a cut is announced in the Link header
+            PageStream.Buffered<ItemSummaryDTO> page = items.buffer();
+            return PageLinks.next(Response.ok(
+                    JsonStreams.object(format, category, "items", ItemSummaryDTO.class, page, false), format),
+                    uriInfo, page.nextCursor()).build();
+        });
     }
 
     /**
      * POST /categories - Create a new category
      * 
      * @param requestDTO Category data
-     * @return Created category with location header
+     * @param response Resumed with created category with location header
      */
     @POST
-    public Response createCategory(CategoryRequestDTO requestDTO) {
-        CategoryResponseDTO created = categoryService.createCategory(requestDTO);
-        
-        // Build location URI for the created resource
-        URI location = UriBuilder.fromResource(CategoryResource.class)
-                .path("{id}")
-                .build(created.getId());
-        
-        return Response.created(location)
-                .entity(created)
-                .build();
+    public void createCategory(CategoryRequestDTO requestDTO, @Suspended AsyncResponse response) {
+        AsyncResponses.run(response, () -> {
+            CategoryResponseDTO created = categoryService.createCategory(requestDTO);
+            
+            // Build location URI for the created resource
+            URI location = UriBuilder.fromResource(CategoryResource.class)
+                    .path("{id}")
+                    .build(created.getId());
+            
+            return Response.created(location)
+                    .entity(created)
+                    .build();
+        });
     }
 
     /**
@@ -98,42 +175,48 @@ public class CategoryResource {
      * 
      * @param id Category ID
      * @param requestDTO Updated category data
-     * @return Updated category
+     * @param response Resumed with updated category
      */
     @PUT
     @Path("/{id}")
-    public Response updateCategory(
+    public void updateCategory(
             @PathParam("id") Long id,
-            CategoryRequestDTO requestDTO) {
+            CategoryRequestDTO requestDTO,
+            @Suspended AsyncResponse response) {
         
-        CategoryResponseDTO updated = categoryService.updateCategory(id, requestDTO);
-        return Response.ok(updated).build();
+        AsyncResponses.run(response, () -> {
+            CategoryResponseDTO updated = categoryService.updateCategory(id, requestDTO);
+            return Response.ok(updated).build();
+        });
     }
 
     /**
      * DELETE /categories/{id} - Delete a category
      * 
      * @param id Category ID
-     * @return No content on success
+     * @param response Resumed with no content on success
      */
     @DELETE
     @Path("/{id}")
-    public Response deleteCategory(@PathParam("id") Long id) {
-        categoryService.deleteCategory(id);
-        return Response.noContent().build();
+    public void deleteCategory(@PathParam("id") Long id, @Suspended AsyncResponse response) {
+        AsyncResponses.run(response, () -> {
+            categoryService.deleteCategory(id);
+            return Response.noContent().build();
+        });
     }
 
     /**
      * GET /categories/count - Get total count of categories
      * 
-     * @return Total count
+     * @param response Resumed with total count
      */
     @GET
     @Path("/count")
-    public Response getCategoryCount() {
-        long count = categoryService.getCategoryCount();
-        return Response.ok()
-                .entity("{\"count\": " + count + "}")
-                .build();
+    public void getCategoryCount(@Suspended AsyncResponse response) {
+        AsyncResponses.run(response, () -> {
+            long count = categoryService.getCategoryCount();
+            // A map rather than a JSON string, so every negotiated format can write it
+            return Response.ok(Map.of("count", count)).build();
+        });
     }
 }
@@ -0,0 +1,132 @@
+package com.example.rest;
+
+import com.example.config.ApplicationProperties;
+import com.example.dto.ChangeEventDTO;
+import com.example.exception.ServerBusyException;
+import com.example.service.ChangeFeed;
+import com.example.util.MetricsUtil;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import jakarta.ws.rs.GET;
+import jakarta.ws.rs.HeaderParam;
+import jakarta.ws.rs.Path;
+import jakarta.ws.rs.Produces;
+import jakarta.ws.rs.core.Context;
+import jakarta.ws.rs.core.HttpHeaders;
+import jakarta.ws.rs.core.MediaType;
+import jakarta.ws.rs.sse.OutboundSseEvent;
+import jakarta.ws.rs.sse.Sse;
+import jakarta.ws.rs.sse.SseEventSink;
+
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * REST API endpoint streaming committed changes as Server-Sent Events
+ * Caches and replicas subscribe once and invalidate what changed instead of
+ * polling the collections
+ */
+@Path("/changes")
+public class ChangeResource {
+
+    private static final int MAX_SUBSCRIBERS = ApplicationProperties.getInt("changes.max-subscribers", 100);
+    private static final long HEARTBEAT_MILLIS = ApplicationProperties.getInt("changes.heartbeat-seconds", 15) * 1000L;
+    private static final int BATCH_SIZE = 256;
+
+    private static final String RESYNC_EVENT = "resync";
+
+    private static final AtomicInteger subscribers = new AtomicInteger();
+    private static final Counter resyncs = Counter.builder("changes.resyncs")
+            .description("Subscribers told to resynchronize after missing events")
+            .register(MetricsUtil.getRegistry());
+
+    static {
+        Gauge.builder("changes.subscribers", subscribers, AtomicInteger::get)
+            .description("Open change feed connections")
+            .register(MetricsUtil.getRegistry());
+    }
+
+    private final ChangeFeed changeFeed = ChangeFeed.getInstance();
+
+    /**
+     * GET /changes - Stream item and category changes as they are committed
+     * Each event is named "&lt;entity&gt;.&lt;action&gt;" (item.created,
+     * item.updated, item.deleted, item.stock, category.*) and carries a
+     * ChangeEventDTO. A client reconnecting with Last-Event-ID gets the events
+     * it missed; when they are no longer buffered, or the id is unknown, it
+     * first receives a "resync" event and should reload its state
+     *
+     * @param lastEventId Id of the last event received, absent for new changes only
+     * @param sink Event stream of the client
+     * @param sse Event factory
+     */
+    @GET
+    @Produces(MediaType.SERVER_SENT_EVENTS)
+    public void subscribe(
+            @HeaderParam(HttpHeaders.LAST_EVENT_ID_HEADER) String lastEventId,
+            @Context SseEventSink sink,
+            @Context Sse sse) {
+
+        long after = lastEventId == null || lastEventId.isBlank() ? changeFeed.lastId() : parseId(lastEventId);
+        if (subscribers.incrementAndGet() > MAX_SUBSCRIBERS) {
+            subscribers.decrementAndGet();
+            throw new ServerBusyException("Too many change feed subscribers, please retry", 5);
+        }
+        // A platform thread per subscriber: writes to a slow client block it,
+        // and Jersey writes while holding monitors, which would pin a virtual thread
+        Thread sender = new Thread(() -> stream(sink, sse, after), "changes-subscriber");
+        sender.setDaemon(true);
+        sender.start();
+    }
+
+    private void stream(SseEventSink sink, Sse sse, long after) {
+        long cursor = after;
+        try (sink) {
+            while (!sink.isClosed()) {
+                ChangeFeed.Batch batch = changeFeed.read(cursor, BATCH_SIZE, HEARTBEAT_MILLIS);
+                if (batch.missed()) {
+                    resyncs.increment();
+                    send(sink, sse.newEventBuilder()
+                        .id(Long.toString(batch.resumeFrom()))
+                        .name(RESYNC_EVENT)
+                        .data("Changes were missed, reload the state")
+                        .build());
+                }
+                cursor = batch.resumeFrom();
+                if (batch.events().isEmpty()) {
+                    // Keeps proxies from closing the connection, and detects clients that left
+                    send(sink, sse.newEventBuilder().comment("heartbeat").build());
+                    continue;
+                }
+                for (ChangeEventDTO event : batch.events()) {
+                    send(sink, sse.newEventBuilder()
+                        .id(Long.toString(event.getId()))
+                        .name(event.name())
+                        .mediaType(MediaType.APPLICATION_JSON_TYPE)
+                        .data(ChangeEventDTO.class, event)
+                        .build());
+                    cursor = event.getId();
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (CompletionException | IllegalStateException e) {
+            // The client disconnected
+        } finally {
+            subscribers.decrementAndGet();
+        }
+    }
+
+    private static void send(SseEventSink sink, OutboundSseEvent event) {
+        sink.send(event).toCompletableFuture().join();
+    }
+
+    // Unparsable ids get the same treatment as expired ones: a resync
+    private static long parseId(String lastEventId) {
+        try {
+            return Long.parseLong(lastEventId.trim());
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+}
@@ -0,0 +1,71 @@
+package com.example.rest;
+
+import jakarta.ws.rs.core.EntityTag;
+import jakarta.ws.rs.core.HttpHeaders;
+import jakarta.ws.rs.core.Request;
+import jakarta.ws.rs.core.Response;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.temporal.ChronoUnit;
+import java.util.Date;
+
+/**
+ * Helpers for conditional GETs on single resources
+ * The validators are derived from the id and updatedAt of the resource:
+ * a strong ETag and a Last-Modified date. Partial representations (sparse
+ * fieldsets) add their variant to the ETag, so each one has its own tag
+ */
+final class ConditionalGet {
+
+    private ConditionalGet() {}
+
+    /**
+     * Whether the client sent a validator that may allow a 304
+     */
+    static boolean isConditional(HttpHeaders headers) {
+        return headers.getHeaderString(HttpHeaders.IF_NONE_MATCH) != null
+            || headers.getHeaderString(HttpHeaders.IF_MODIFIED_SINCE) != null;
+    }
+
+    /**
+     * Evaluate If-None-Match / If-Modified-Since against the current version
+     * of one representation of the resource
+     *
+     * @param request Current request
+     * @param id Resource ID
+     * @param updatedAt Last modification of the resource
+     * @param variant Representation (e.g. the requested fields), null for the full one
+     * @return A 304 response carrying the validators, or null if the resource must be sent
+     */
+    static Response notModified(Request request, Long id, LocalDateTime updatedAt, String variant) {
+        EntityTag tag = entityTag(id, updatedAt, variant);
+        Response.ResponseBuilder builder = request.evaluatePreconditions(lastModified(updatedAt), tag);
+        return builder == null ? null : builder.tag(tag).lastModified(lastModified(updatedAt)).build();
+    }
+
+    /**
+     * 200 response carrying one representation of the entity and its validators
+     *
+     * @param variant Representation (e.g. the requested fields), null for the full one
+     */
+    static Response ok(Object entity, Long id, LocalDateTime updatedAt, String variant) {
+        Response.ResponseBuilder builder = Response.ok(entity);
+        if (updatedAt != null) {
+            builder.tag(entityTag(id, updatedAt, variant)).lastModified(lastModified(updatedAt));
+        }
+        return builder.build();
+    }
+
+    private static EntityTag entityTag(Long id, LocalDateTime updatedAt, String variant) {
+        // Microseconds: the precision kept by the database, so the tag does not
+        // change depending on whether the value was read back or not
+        long micros = ChronoUnit.MICROS.between(LocalDateTime.of(1970, 1, 1, 0, 0), updatedAt);
+        String tag = id + "-" + Long.toHexString(micros);
+        return new EntityTag(variant == null ? tag : tag + ";" + variant);
+    }
+
+    private static Date lastModified(LocalDateTime updatedAt) {
+        return Date.from(updatedAt.atZone(ZoneId.systemDefault()).toInstant());
+    }
+}
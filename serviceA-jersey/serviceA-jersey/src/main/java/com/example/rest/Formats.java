@@ -0,0 +1,72 @@
+package com.example.rest;
+
+import com.example.util.JsonUtil;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.ws.rs.core.HttpHeaders;
+import jakarta.ws.rs.core.MediaType;
+
+/**
+ * Wire formats of the item and category endpoints: JSON, and the binary
+ * Smile and CBOR encodings of the same documents for machine-to-machine
+ * clients, negotiated with Accept / Content-Type
+ * Entities go through the registered JAX-RS providers; the streaming
+ * endpoints pick their generator here
+ */
+final class Formats {
+
+    static final String SMILE = "application/x-jackson-smile";
+    static final String CBOR = "application/cbor";
+
+    static final MediaType SMILE_TYPE = MediaType.valueOf(SMILE);
+    static final MediaType CBOR_TYPE = MediaType.valueOf(CBOR);
+
+    private Formats() {}
+
+    /**
+     * Format preferred by the client, in Accept order (JSON when it accepts
+     * anything, or nothing we produce)
+     */
+    static MediaType select(HttpHeaders headers) {
+        for (MediaType accepted : headers.getAcceptableMediaTypes()) {
+            if (accepted.isCompatible(MediaType.APPLICATION_JSON_TYPE)) {
+                return MediaType.APPLICATION_JSON_TYPE;
+            }
+            if (accepted.isCompatible(SMILE_TYPE)) {
+                return SMILE_TYPE;
+            }
+            if (accepted.isCompatible(CBOR_TYPE)) {
+                return CBOR_TYPE;
+            }
+        }
+        return MediaType.APPLICATION_JSON_TYPE;
+    }
+
+    /**
+     * Mapper writing the given format
+     */
+    static ObjectMapper mapper(MediaType type) {
+        if (type.isCompatible(SMILE_TYPE)) {
+            return JsonUtil.getSmileMapper();
+        }
+        if (type.isCompatible(CBOR_TYPE)) {
+            return JsonUtil.getCborMapper();
+        }
+        return JsonUtil.getMapper();
+    }
+
+    /**
+     * Representation variant for validators: the binary formats are other
+     * byte sequences of the same version, so they get their own ETag
+     *
+     * @param type Negotiated format
+     * @param fields Requested fields, null for the full representation
+     * @return Variant for ConditionalGet, null for full JSON
+     */
+    static String variant(MediaType type, String fields) {
+        String format = type.isCompatible(SMILE_TYPE) ? "smile" : type.isCompatible(CBOR_TYPE) ? "cbor" : null;
+        if (format == null) {
+            return fields;
+        }
+        return fields == null ? format : fields + ";" + format;
+    }
+}
@@ -0,0 +1,45 @@
+package com.example.rest;
+
+import com.example.config.WarmUp;
+import jakarta.ws.rs.GET;
+import jakarta.ws.rs.Path;
+import jakarta.ws.rs.Produces;
+import jakarta.ws.rs.core.HttpHeaders;
+import jakarta.ws.rs.core.MediaType;
+import jakarta.ws.rs.core.Response;
+
+/**
+ * Liveness and readiness probes for load balancers and orchestrators
+ */
+@Path("/health")
+@Produces(MediaType.APPLICATION_JSON)
+public class HealthResource {
+
+    /**
+     * GET /health/live - The process is up and serving HTTP
+     *
+     * @return Always 200
+     */
+    @GET
+    @Path("/live")
+    public Response live() {
+        return Response.ok("{\"status\": \"UP\"}").build();
+    }
+
+    /**
+     * GET /health/ready - The service can take traffic
+     *
+     * @return 200 once the startup warm-up is over, 503 with Retry-After before
+     */
+    @GET
+    @Path("/ready")
+    public Response ready() {
+        if (!WarmUp.isReady()) {
+            return Response.status(Response.Status.SERVICE_UNAVAILABLE)
+                    .header(HttpHeaders.RETRY_AFTER, 1)
+                    .entity("{\"status\": \"WARMING_UP\"}")
+                    .build();
+        }
+        return Response.ok("{\"status\": \"UP\"}").build();
+    }
+}
@@ -1,25 +1,50 @@
 package com.example.rest;
 
+import com.example.config.ApplicationProperties;
+import com.example.dto.BatchResultDTO;
+import com.example.dto.CursorPageDTO;
+import com.example.dto.ItemFields;
 import com.example.dto.ItemRequestDTO;
 import com.example.dto.ItemResponseDTO;
+import com.example.dto.ReservationRequestDTO;
+import com.example.dto.ReservationResponseDTO;
 import com.example.service.ItemService;
+import com.example.service.PageStream;
+import com.example.util.JsonUtil;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectWriter;
 import jakarta.ws.rs.*;
+import jakarta.ws.rs.container.AsyncResponse;
+import jakarta.ws.rs.container.Suspended;
+import jakarta.ws.rs.core.Context;
+import jakarta.ws.rs.core.HttpHeaders;
 import jakarta.ws.rs.core.MediaType;
+import jakarta.ws.rs.core.Request;
 import jakarta.ws.rs.core.Response;
+import jakarta.ws.rs.core.StreamingOutput;
 import jakarta.ws.rs.core.UriBuilder;
+import jakarta.ws.rs.core.UriInfo;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.net.URI;
+import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
 
 /**
  * REST API endpoints for Item operations
  * Handles HTTP requests and delegates business logic to ItemService
  */
 @Path("/items")
-@Produces(MediaType.APPLICATION_JSON)
-@Consumes(MediaType.APPLICATION_JSON)
+@Produces({MediaType.APPLICATION_JSON, Formats.SMILE, Formats.CBOR})
+@Consumes({MediaType.APPLICATION_JSON, Formats.SMILE, Formats.CBOR})
 public class ItemResource {
 
+    private static final String NDJSON = "application/x-ndjson";
+    private static final int EXPORT_FETCH_SIZE = ApplicationProperties.getInt("export.fetch-size", 1000);
+
     private final ItemService itemService;
 
     public ItemResource() {
@@ -33,77 +58,223 @@ public class ItemResource {
 
     /**
      * GET /items - Get all items with pagination
+     * Passing "after" (empty for the first page) switches to keyset pagination:
+     * the response then wraps the page with the cursor of the next one
      * 
-     * @param page Page number (default: 0)
+     * @param page Page number (default: 0), ignored in cursor mode
      * @param size Page size (default: 10)
-     * @return List of items
+     * @param after Cursor returned as nextCursor by the previous page
+     * @param fields Comma-separated fields to return (default: all), id is always included
+     * @param response Resumed with list of items, or a cursor page
      */
     @GET
-    public Response getAllItems(
+    public void getAllItems(
             @QueryParam("page") @DefaultValue("0") int page,
-            @QueryParam("size") @DefaultValue("10") int size) {
+            @QueryParam("size") @DefaultValue("10") int size,
+            @QueryParam("after") String after,
+            @QueryParam("fields") String fields,
+            @Suspended AsyncResponse response) {
         
-        List<ItemResponseDTO> items = itemService.getAllItems(page, size);
-        return Response.ok(items).build();
+        AsyncResponses.run(response, () -> {
+            ItemFields selected = ItemFields.forItems(fields);
+            if (after != null) {
+                CursorPageDTO<ItemResponseDTO> cursorPage = itemService.getItemsAfter(after, size, selected);
+                return Response.ok(cursorPage).build();
+            }
+            
+            List<ItemResponseDTO> items = itemService.getAllItems(page, size, selected);
+            return Response.ok(items).build();
+        });
     }
 
     /**
      * GET /items/{id} - Get an item by ID
+     * Sends an ETag and Last-Modified; If-None-Match / If-Modified-Since get a
+     * 304 without the item being loaded
      * 
      * @param id Item ID
-     * @return Item details
+     * @param fields Comma-separated fields to return (default: all), id is always included
+     * @param response Resumed with item details, or 304 Not Modified
      */
     @GET
     @Path("/{id}")
-    public Response getItemById(@PathParam("id") Long id) {
-        ItemResponseDTO item = itemService.getItemById(id);
-        return Response.ok(item).build();
+    public void getItemById(
+            @PathParam("id") Long id,
+            @QueryParam("fields") String fields,
+            @Context Request request,
+            @Context HttpHeaders headers,
+            @Suspended AsyncResponse response) {
+        
+        AsyncResponses.run(response, () -> {
+            ItemFields selected = ItemFields.forItems(fields);
+            String variant = Formats.variant(Formats.select(headers), selected.isAll() ? null : selected.toString());
+            if (ConditionalGet.isConditional(headers)) {
+                // Answer 304 from the version alone, before loading and serializing the item
+                Optional<LocalDateTime> updatedAt = itemService.getItemLastModified(id);
+                if (updatedAt.isPresent()) {
+                    Response notModified = ConditionalGet.notModified(request, id, updatedAt.get(), variant);
+                    if (notModified != null) {
+                        return notModified;
+                    }
+                }
+            }
+            
+            ItemResponseDTO item = itemService.getItemById(id, selected);
+            return ConditionalGet.ok(item, id, item.getUpdatedAt(), variant);
+        });
+    }
+
+    /**
+     * GET /items/export - Stream the full catalog as newline-delimited JSON
+     * Each item is written as soon as it is read from the database cursor
+     * 
+     * @param fields Comma-separated fields to return (default: all), id is always included
+     * @param response Resumed with one JSON item per line
+     */
+    @GET
+    @Path("/export")
+    @Produces(NDJSON)
+    public void exportItems(@QueryParam("fields") String fields, @Suspended AsyncResponse response) {
+        AsyncResponses.run(response, AsyncResponses.LONG_TIMEOUT_MILLIS, () -> {
+            ItemFields selected = ItemFields.forItems(fields);
+            StreamingOutput stream = output -> {
+                ObjectWriter writer = JsonUtil.rowWriter(ItemResponseDTO.class);
+                try (JsonGenerator generator = JsonUtil.getMapper().getFactory().createGenerator(output)) {
+                    // Lines are separated by '\n' below, not by the default root separator (a space)
+                    generator.setRootValueSeparator(null);
+                    int[] written = {0};
+                    itemService.exportItems(EXPORT_FETCH_SIZE, selected, item -> {
+                        try {
+                            writer.writeValue(generator, item);
+                            generator.writeRaw('\n');
+                            // Push each fetched batch to the client while the next one is read
+                            if (++written[0] % EXPORT_FETCH_SIZE == 0) {
+                                generator.flush();
+                            }
+                        } catch (IOException e) {
+                            throw new UncheckedIOException(e);
+                        }
+                    });
+                }
+            };
+            return Response.ok(stream).build();
+        });
     }
 
     /**
      * GET /items/search - Search items by name
      * 
      * @param keyword Search keyword
-     * @return List of matching items
+     * @param limit Maximum number of results (default and maximum are configurable)
+     * @param fields Comma-separated fields to return (default: all), id is always included
+     * @param response Resumed with list of matching items, best match first
      */
     @GET
     @Path("/search")
-    public Response searchItems(@QueryParam("keyword") String keyword) {
-        List<ItemResponseDTO> items = itemService.searchItemsByName(keyword);
-        return Response.ok(items).build();
+    public void searchItems(
+            @QueryParam("keyword") String keyword,
+            @QueryParam("limit") Integer limit,
+            @QueryParam("fields") String fields,
+            @Suspended AsyncResponse response) {
+        
+        AsyncResponses.run(response, () -> {
+            List<ItemResponseDTO> items = itemService.searchItemsByName(keyword, limit, ItemFields.forItems(fields));
+            return Response.ok(items).build();
+        });
     }
 
     /**
      * GET /items/by-category/{categoryId} - Get items by category
+     * At most "limit" items are returned (bounded by a server-side maximum);
+     * passing "after" (empty for the first page) wraps the page with the
+     * cursor of the next one, and items are streamed as they are read.
+     * Without "after", a page cut at the limit has a Link rel="next" header
      * 
      * @param categoryId Category ID
-     * @return List of items in the category
+     * @param limit Maximum number of items (default and maximum are configurable)
+     * @param after Cursor returned as nextCursor by the previous page
+     * @param fields Comma-separated fields to return (default: all), id is always included
+     * @param uriInfo Request URI, base of the next-page link
+     * @param response Resumed with list of items in the category, or a cursor page
      */
     @GET
     @Path("/by-category/{categoryId}")
-    public Response getItemsByCategory(@PathParam("categoryId") Long categoryId) {
-        List<ItemResponseDTO> items = itemService.getItemsByCategoryId(categoryId);
-        return Response.ok(items).build();
+    public void getItemsByCategory(
+            @PathParam("categoryId") Long categoryId,
+            @QueryParam("limit") Integer limit,
+            @QueryParam("after") String after,
+            @QueryParam("fields") String fields,
+            @Context HttpHeaders headers,
+            @Context UriInfo uriInfo,
+            @Suspended AsyncResponse response) {
+        
+        AsyncResponses.run(response, () -> {
+            PageStream<ItemResponseDTO> items =
+                itemService.getItemsByCategoryId(categoryId, after, limit, ItemFields.forItems(fields));
+            MediaType format = Formats.select(headers);
+            if (after != null) {
+                return Response.ok(JsonStreams.page(format, ItemResponseDTO.class, items, true), format).build();
+            }
+            // Plain array: the page is read first, so that a cut is announced in the Link header
+            PageStream.Buffered<ItemResponseDTO> page = items.buffer();
+            return PageLinks.next(Response.ok(JsonStreams.page(format, ItemResponseDTO.class, page, false), format),
+                    uriInfo, page.nextCursor()).build();
+        });
     }
 
     /**
      * POST /items - Create a new item
      * 
      * @param requestDTO Item data
-     * @return Created item with location header
+     * @param response Resumed with created item with location header
      */
     @POST
-    public Response createItem(ItemRequestDTO requestDTO) {
-        ItemResponseDTO created = itemService.createItem(requestDTO);
-        
-        // Build location URI for the created resource
-        URI location = UriBuilder.fromResource(ItemResource.class)
-                .path("{id}")
-                .build(created.getId());
-        
-        return Response.created(location)
-                .entity(created)
-                .build();
+    public void createItem(ItemRequestDTO requestDTO, @Suspended AsyncResponse response) {
+        AsyncResponses.run(response, () -> {
+            ItemResponseDTO created = itemService.createItem(requestDTO);
+            
+            // Build location URI for the created resource
+            URI location = UriBuilder.fromResource(ItemResource.class)
+                    .path("{id}")
+                    .build(created.getId());
+            
+            return Response.created(location)
+                    .entity(created)
+                    .build();
+        });
+    }
+
+    /**
+     * POST /items/batch - Create many items in one request
+     * Each element is validated on its own; the response reports, in request
+     * order, which elements were created (with their id) and which were rejected
+     * 
+     * @param requestDTOs Items to create
+     * @param response Resumed with totals and per-element results
+     */
+    @POST
+    @Path("/batch")
+    public void createItems(List<ItemRequestDTO> requestDTOs, @Suspended AsyncResponse response) {
+        AsyncResponses.run(response, () -> {
+            BatchResultDTO result = itemService.createItems(requestDTOs);
+            return Response.ok(result).build();
+        });
+    }
+
+    /**
+     * POST /items/reservations - Reserve stock on several items at once
+     * Either every line is reserved or none is
+     * 
+     * @param requestDTO Reservation lines (item id and quantity)
+     * @param response Resumed with reserved quantity per item
+     */
+    @POST
+    @Path("/reservations")
+    public void reserveStock(ReservationRequestDTO requestDTO, @Suspended AsyncResponse response) {
+        AsyncResponses.run(response, () -> {
+            ReservationResponseDTO result = itemService.reserveStock(requestDTO);
+            return Response.ok(result).build();
+        });
     }
 
     /**
@@ -111,16 +282,19 @@ public class ItemResource {
      * 
      * @param id Item ID
      * @param requestDTO Updated item data
-     * @return Updated item
+     * @param response Resumed with updated item
      */
     @PUT
     @Path("/{id}")
-    public Response updateItem(
+    public void updateItem(
             @PathParam("id") Long id,
-            ItemRequestDTO requestDTO) {
+            ItemRequestDTO requestDTO,
+            @Suspended AsyncResponse response) {
         
-        ItemResponseDTO updated = itemService.updateItem(id, requestDTO);
-        return Response.ok(updated).build();
+        AsyncResponses.run(response, () -> {
+            ItemResponseDTO updated = itemService.updateItem(id, requestDTO);
+            return Response.ok(updated).build();
+        });
     }
 
     /**
@@ -128,42 +302,48 @@ public class ItemResource {
      * 
      * @param id Item ID
      * @param quantity Stock change (can be negative)
-     * @return Updated item
+     * @param response Resumed with updated item
      */
     @PATCH
     @Path("/{id}/stock")
-    public Response updateStock(
+    public void updateStock(
             @PathParam("id") Long id,
-            @QueryParam("quantity") int quantity) {
+            @QueryParam("quantity") int quantity,
+            @Suspended AsyncResponse response) {
         
-        ItemResponseDTO updated = itemService.updateStock(id, quantity);
-        return Response.ok(updated).build();
+        AsyncResponses.run(response, () -> {
+            ItemResponseDTO updated = itemService.updateStock(id, quantity);
+            return Response.ok(updated).build();
+        });
     }
 
     /**
      * DELETE /items/{id} - Delete an item
      * 
      * @param id Item ID
-     * @return No content on success
+     * @param response Resumed with no content on success
      */
     @DELETE
     @Path("/{id}")
-    public Response deleteItem(@PathParam("id") Long id) {
-        itemService.deleteItem(id);
-        return Response.noContent().build();
+    public void deleteItem(@PathParam("id") Long id, @Suspended AsyncResponse response) {
+        AsyncResponses.run(response, () -> {
+            itemService.deleteItem(id);
+            return Response.noContent().build();
+        });
     }
 
     /**
      * GET /items/count - Get total count of items
      * 
-     * @return Total count
+     * @param response Resumed with total count
      */
     @GET
     @Path("/count")
-    public Response getItemCount() {
-        long count = itemService.getItemCount();
-        return Response.ok()
-                .entity("{\"count\": " + count + "}")
-                .build();
+    public void getItemCount(@Suspended AsyncResponse response) {
+        AsyncResponses.run(response, () -> {
+            long count = itemService.getItemCount();
+            // A map rather than a JSON string, so every negotiated format can write it
+            return Response.ok(Map.of("count", count)).build();
+        });
     }
 }
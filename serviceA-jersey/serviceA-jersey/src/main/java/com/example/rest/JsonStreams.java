@@ -0,0 +1,112 @@
+package com.example.rest;
+
+import com.example.service.PageStream;
+import com.example.util.JsonUtil;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import jakarta.ws.rs.core.MediaType;
+import jakarta.ws.rs.core.StreamingOutput;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.util.Iterator;
+import java.util.Map;
+
+/**
+ * Helpers writing JSON responses row by row while the rows are read,
+ * instead of building the whole list before serialization
+ * The same documents are written as Smile or CBOR when that is the negotiated format
+ */
+final class JsonStreams {
+
+    private JsonStreams() {}
+
+    /**
+     * Stream a page as a JSON array, or as {"items": [...], "nextCursor": ...}
+     * when the client is walking with a cursor
+     *
+     * @param format Negotiated format (see Formats)
+     * @param type Row type
+     * @param page Rows to write
+     * @param withCursor Whether to wrap the rows with the next cursor
+     * @return Streaming entity
+     */
+    static <T> StreamingOutput page(MediaType format, Class<T> type, PageStream<T> page, boolean withCursor) {
+        return output -> {
+            try (JsonGenerator generator = open(format, output)) {
+                if (withCursor) {
+                    generator.writeStartObject();
+                    generator.writeFieldName("items");
+                }
+                String nextCursor = writeArray(generator, type, page);
+                if (withCursor) {
+                    generator.writeStringField("nextCursor", nextCursor);
+                    generator.writeEndObject();
+                }
+            }
+        };
+    }
+
+    /**
+     * Stream an object whose fields are taken from a DTO, with one of them
+     * replaced by a streamed array (plus the next cursor when requested)
+     *
+     * @param format Negotiated format (see Formats)
+     * @param header DTO providing the other fields
+     * @param arrayField Name of the field holding the rows
+     * @param type Row type
+     * @param page Rows to write
+     * @param withCursor Whether to append the next cursor
+     * @return Streaming entity
+     */
+    static <T> StreamingOutput object(MediaType format, Object header, String arrayField, Class<T> type,
+                                      PageStream<T> page, boolean withCursor) {
+        ObjectNode fields = JsonUtil.getMapper().valueToTree(header);
+        return output -> {
+            try (JsonGenerator generator = open(format, output)) {
+                generator.writeStartObject();
+                Iterator<Map.Entry<String, JsonNode>> it = fields.fields();
+                while (it.hasNext()) {
+                    Map.Entry<String, JsonNode> field = it.next();
+                    if (!field.getKey().equals(arrayField)) {
+                        generator.writeFieldName(field.getKey());
+                        generator.writeTree(field.getValue());
+                    }
+                }
+                generator.writeFieldName(arrayField);
+                String nextCursor = writeArray(generator, type, page);
+                if (withCursor) {
+                    generator.writeStringField("nextCursor", nextCursor);
+                }
+                generator.writeEndObject();
+            }
+        };
+    }
+
+    /**
+     * Generator that does not close the open arrays and objects when it is
+     * closed: if reading the rows fails half-way, the client gets a document
+     * that does not parse, never a well-formed but truncated one
+     */
+    static JsonGenerator open(MediaType format, OutputStream output) throws IOException {
+        return Formats.mapper(format).getFactory().createGenerator(output)
+            .disable(JsonGenerator.Feature.AUTO_CLOSE_JSON_CONTENT);
+    }
+
+    private static <T> String writeArray(JsonGenerator generator, Class<T> type, PageStream<T> page) throws IOException {
+        ObjectWriter writer = JsonUtil.rowWriter(type);
+        generator.writeStartArray();
+        String nextCursor = page.forEach(row -> {
+            try {
+                writer.writeValue(generator, row);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+        generator.writeEndArray();
+        return nextCursor;
+    }
+}
@@ -0,0 +1,26 @@
+package com.example.rest;
+
+import com.example.util.MetricsUtil;
+import io.prometheus.client.exporter.common.TextFormat;
+import jakarta.ws.rs.GET;
+import jakarta.ws.rs.Path;
+import jakarta.ws.rs.Produces;
+import jakarta.ws.rs.core.Response;
+
+/**
+ * REST endpoint exposing application metrics in Prometheus text format
+ */
+@Path("/metrics")
+public class MetricsResource {
+
+    /**
+     * GET /metrics - Scrape all registered meters
+     *
+     * @return Metrics in Prometheus exposition format
+     */
+    @GET
+    @Produces(TextFormat.CONTENT_TYPE_004)
+    public Response getMetrics() {
+        return Response.ok(MetricsUtil.scrape()).build();
+    }
+}
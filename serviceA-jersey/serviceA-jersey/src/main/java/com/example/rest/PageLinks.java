@@ -0,0 +1,29 @@
+package com.example.rest;
+
+import jakarta.ws.rs.core.Response;
+import jakarta.ws.rs.core.UriInfo;
+
+/**
+ * Link header announcing the next page of a listing requested without a
+ * cursor: such listings stop at their limit, and the header is what tells
+ * the client that rows were left out
+ */
+final class PageLinks {
+
+    private PageLinks() {}
+
+    /**
+     * Add Link: <request URI with after=nextCursor>; rel="next" when there is a next page
+     *
+     * @param response Response being built
+     * @param uriInfo URI of the request
+     * @param nextCursor Cursor of the next page, or null if this was the last one
+     * @return The same builder
+     */
+    static Response.ResponseBuilder next(Response.ResponseBuilder response, UriInfo uriInfo, String nextCursor) {
+        if (nextCursor != null) {
+            response.link(uriInfo.getRequestUriBuilder().replaceQueryParam("after", nextCursor).build(), "next");
+        }
+        return response;
+    }
+}
@@ -0,0 +1,55 @@
+package com.example.rest;
+
+import com.example.dto.InventoryCategoryDTO;
+import com.example.dto.InventoryReportDTO;
+import com.example.service.ReportService;
+import jakarta.ws.rs.GET;
+import jakarta.ws.rs.Path;
+import jakarta.ws.rs.Produces;
+import jakarta.ws.rs.container.AsyncResponse;
+import jakarta.ws.rs.container.Suspended;
+import jakarta.ws.rs.core.Context;
+import jakarta.ws.rs.core.HttpHeaders;
+import jakarta.ws.rs.core.MediaType;
+import jakarta.ws.rs.core.Response;
+
+/**
+ * REST API endpoints for catalog-wide reports
+ * Handles HTTP requests and delegates the computation to ReportService
+ */
+@Path("/reports")
+@Produces({MediaType.APPLICATION_JSON, Formats.SMILE, Formats.CBOR})
+public class ReportResource {
+
+    private final ReportService reportService;
+
+    public ReportResource() {
+        this.reportService = new ReportService();
+    }
+
+    // Constructor for dependency injection (useful for testing)
+    public ReportResource(ReportService reportService) {
+        this.reportService = reportService;
+    }
+
+    /**
+     * GET /reports/inventory - Stock value and price statistics per category
+     * The totals come first, then the category lines are streamed
+     *
+     * @param headers Request headers (Accept selects JSON, Smile or CBOR)
+     * @param response Resumed with the report
+     */
+    @GET
+    @Path("/inventory")
+    public void getInventoryReport(@Context HttpHeaders headers, @Suspended AsyncResponse response) {
+        AsyncResponses.run(response, AsyncResponses.LONG_TIMEOUT_MILLIS, () -> {
+            MediaType format = Formats.select(headers);
+            InventoryReportDTO report = reportService.getInventoryReport();
+            return Response.ok(JsonStreams.object(format, report, "categories", InventoryCategoryDTO.class,
+                action -> {
+                    report.getCategories().forEach(action);
+                    return null;
+                }, false), format).build();
+        });
+    }
+}
@@ -1,17 +1,23 @@
 package com.example.service;
 
 import com.example.dao.CategoryDAO;
+import com.example.dao.Storage;
 import com.example.dto.CategoryRequestDTO;
 import com.example.dto.CategoryResponseDTO;
+import com.example.dto.ChangeEventDTO;
+import com.example.dto.CursorPageDTO;
+import com.example.dto.ItemFields;
 import com.example.dto.ItemSummaryDTO;
 import com.example.exception.ResourceNotFoundException;
 import com.example.exception.ValidationException;
 import com.example.mapper.CategoryMapper;
 import com.example.model.Category;
-import com.example.model.Item;
+import com.example.util.CursorCodec;
+import com.example.util.SingleFlight;
 
+import java.time.LocalDateTime;
 import java.util.List;
-import java.util.stream.Collectors;
+import java.util.Optional;
 
 /**
  * Service layer for Category business logic
@@ -19,10 +25,16 @@ import java.util.stream.Collectors;
  */
 public class CategoryService {
 
+    // Concurrent GET /categories/{id} for the same id share one database load
+    private static final SingleFlight<Long, Optional<CategoryResponseDTO>> categoryLoads =
+        new SingleFlight<>("category");
+
     private final CategoryDAO categoryDAO;
+    private final RowCounter categoryCounter = RowCounter.categories();
+    private final ChangeFeed changeFeed = ChangeFeed.getInstance();
 
     public CategoryService() {
-        this.categoryDAO = new CategoryDAO();
+        this.categoryDAO = Storage.categoryDAO();
     }
 
     // Constructor for dependency injection (useful for testing)
@@ -44,49 +56,70 @@ public class CategoryService {
         return CategoryMapper.toResponseDTOList(categories);
     }
 
+    /**
+     * Get a page of categories using keyset pagination
+     * 
+     * @param after Opaque cursor from the previous page (empty for the first page)
+     * @param size Page size
+     * @return Page of category DTOs with the cursor of the next page
+     */
+    public CursorPageDTO<CategoryResponseDTO> getCategoriesAfter(String after, int size) {
+        validatePagination(0, size);
+        Long afterId = CursorCodec.decode(after);
+        
+        // Fetch one extra row to know whether another page exists
+        List<Category> categories = categoryDAO.findAllAfter(afterId, size + 1);
+        boolean hasMore = categories.size() > size;
+        if (hasMore) {
+            categories = categories.subList(0, size);
+        }
+        
+        String nextCursor = hasMore ? CursorCodec.encode(categories.get(categories.size() - 1).getId()) : null;
+        return new CursorPageDTO<>(CategoryMapper.toResponseDTOList(categories), nextCursor);
+    }
+
     /**
      * Get a category by ID
+     * Concurrent calls for the same id share one database load
      * 
      * @param id Category ID
      * @return Category DTO
      * @throws ResourceNotFoundException if not found
      */
     public CategoryResponseDTO getCategoryById(Long id) {
-        Category category = categoryDAO.findById(id)
+        return categoryLoads.get(id, () -> categoryDAO.findById(id).map(CategoryMapper::toResponseDTO))
             .orElseThrow(() -> new ResourceNotFoundException("Category", id));
-        
-        return CategoryMapper.toResponseDTO(category);
     }
 
     /**
-     * Get a category by ID with its items
+     * Get the last modification time of a category, for conditional requests
      * 
      * @param id Category ID
-     * @return Category DTO with items
-     * @throws ResourceNotFoundException if not found
+     * @return updatedAt, or empty if unknown (the category may not exist)
      */
-    public CategoryResponseDTO getCategoryWithItems(Long id) {
-        Category category = categoryDAO.findById(id)
-            .orElseThrow(() -> new ResourceNotFoundException("Category", id));
-        
-        // Fetch items for this category
-        List<Item> items = categoryDAO.findItemsByCategory(id);
-        
-        CategoryResponseDTO dto = CategoryMapper.toResponseDTO(category);
-        
-        // Convert items to summary DTOs
-        List<ItemSummaryDTO> itemSummaries = items.stream()
-            .map(item -> new ItemSummaryDTO(
-                item.getId(),
-                item.getSku(),
-                item.getName(),
-                item.getPrice(),
-                item.getStock()
-            ))
-            .collect(Collectors.toList());
+    public Optional<LocalDateTime> getCategoryLastModified(Long id) {
+        return categoryDAO.findUpdatedAt(id);
+    }
+
+    /**
+     * Get one bounded page of the items of a category
+     * Rows are only read from the database when the returned stream is
+     * consumed; the category itself is checked by getCategoryById
+     * 
+     * @param id Category ID
+     * @param after Opaque cursor from the previous page (null or empty for the first page)
+     * @param limit Maximum number of items (null for the default)
+     * @param fields Item summary fields to return
+     * @return Page stream of item summaries
+     */
+    public PageStream<ItemSummaryDTO> getCategoryItems(Long id, String after, Integer limit, ItemFields fields) {
+        int pageLimit = ResultLimit.CATEGORY_ITEMS.resolve(limit);
+        Long afterId = CursorCodec.decode(after);
         
-        dto.setItems(itemSummaries);
-        return dto;
+        return PageStream.keyset(pageLimit,
+            (max, sink) -> categoryDAO.forEachItemSummaryInCategory(id, afterId, max, fields, sink),
+            ItemSummaryDTO::getId,
+            item -> item);
     }
 
     /**
@@ -105,7 +138,8 @@ public class CategoryService {
         }
         
         Category category = CategoryMapper.toEntity(requestDTO);
-        Category savedCategory = categoryDAO.save(category);
+        Category savedCategory = categoryCounter.change(1, () -> categoryDAO.save(category));
+        changeFeed.publishAfterCommit(ChangeEventDTO.CATEGORY, ChangeEventDTO.CREATED, savedCategory.getId(), null);
         
         return CategoryMapper.toResponseDTO(savedCategory);
     }
@@ -136,6 +170,7 @@ public class CategoryService {
         CategoryMapper.updateEntity(existingCategory, requestDTO);
         
         Category updatedCategory = categoryDAO.update(existingCategory);
+        changeFeed.publishAfterCommit(ChangeEventDTO.CATEGORY, ChangeEventDTO.UPDATED, id, null);
         return CategoryMapper.toResponseDTO(updatedCategory);
     }
 
@@ -152,24 +187,45 @@ public class CategoryService {
         }
         
         // Check if category has items
-        List<Item> items = categoryDAO.findItemsByCategory(id);
-        if (!items.isEmpty()) {
+        long itemCount = categoryDAO.countItems(id);
+        if (itemCount > 0) {
             throw new ValidationException(
-                "Cannot delete category with " + items.size() + " associated item(s). " +
+                "Cannot delete category with " + itemCount + " associated item(s). " +
                 "Please delete or reassign the items first."
             );
         }
         
-        categoryDAO.delete(id);
+        categoryCounter.change(-1, () -> categoryDAO.delete(id));
+        changeFeed.publishAfterCommit(ChangeEventDTO.CATEGORY, ChangeEventDTO.DELETED, id, null);
     }
 
     /**
      * Get total count of categories
+     * Served from the in-memory counter unless counts.mode=query
      * 
-     * @return Total count
+     * @return Total count (approximate with counts.mode=estimated)
      */
     public long getCategoryCount() {
-        return categoryDAO.count();
+        if (!RowCounter.isEnabled()) {
+            return categoryDAO.count();
+        }
+        if (!categoryCounter.isLoaded()) {
+            categoryCounter.loadIfNeeded(this::countCategoryRows);
+        }
+        return categoryCounter.get();
+    }
+
+    /**
+     * Reload the category counter from the database
+     */
+    public void refreshCategoryCount() {
+        categoryCounter.reload(this::countCategoryRows);
+    }
+
+    private long countCategoryRows() {
+        return RowCounter.isEstimated()
+            ? categoryDAO.estimateCount().orElseGet(categoryDAO::count)
+            : categoryDAO.count();
     }
 
     /**
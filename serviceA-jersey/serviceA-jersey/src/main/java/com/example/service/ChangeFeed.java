@@ -0,0 +1,140 @@
+package com.example.service;
+
+import com.example.config.ApplicationProperties;
+import com.example.dto.ChangeEventDTO;
+import com.example.util.MetricsUtil;
+import com.example.util.UnitOfWork;
+import io.micrometer.core.instrument.Counter;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Committed item and category changes, kept in a bounded in-memory ring
+ * buffer for the subscribers of GET /changes
+ * Publishing only stores the event and wakes the subscribers up: each
+ * subscriber reads the buffer at its own pace, so a slow one never holds a
+ * writer back. One that falls more than changes.buffer-size events behind
+ * is told it missed events and has to resynchronize
+ * Event ids start from the startup time (in microseconds), so an id from
+ * a previous run is always older than the buffer and reported as missed
+ */
+public class ChangeFeed {
+
+    private static final ChangeFeed INSTANCE =
+        new ChangeFeed(ApplicationProperties.getInt("changes.buffer-size", 10000));
+
+    /**
+     * Events read by one call
+     *
+     * @param events Events in id order, empty if none was published in time
+     * @param missed Whether events after the requested id were already dropped
+     * @param resumeFrom Id the events follow (the requested one unless missed)
+     */
+    public record Batch(List<ChangeEventDTO> events, boolean missed, long resumeFrom) {}
+
+    private final ChangeEventDTO[] ring;
+    private final long firstId;
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition published = lock.newCondition();
+
+    // Id of the last published event, firstId - 1 before the first one
+    private volatile long lastId;
+
+    // Package-private for a small ring in tests
+    ChangeFeed(int capacity) {
+        this.ring = new ChangeEventDTO[Math.max(1, capacity)];
+        this.firstId = TimeUnit.MILLISECONDS.toMicros(System.currentTimeMillis());
+        this.lastId = firstId - 1;
+    }
+
+    public static ChangeFeed getInstance() {
+        return INSTANCE;
+    }
+
+    /**
+     * Publish a change once the current unit of work has committed (right
+     * away when none is bound); nothing is published on rollback
+     *
+     * @param entity ChangeEventDTO.ITEM or ChangeEventDTO.CATEGORY
+     * @param action ChangeEventDTO.CREATED, UPDATED, DELETED or STOCK
+     * @param entityId Id of the changed row
+     * @param stock New stock for item changes when known, else null
+     */
+    public void publishAfterCommit(String entity, String action, Long entityId, Integer stock) {
+        UnitOfWork.afterCommit(() -> publish(entity, action, entityId, stock));
+    }
+
+    /**
+     * Publish a change now
+     */
+    public void publish(String entity, String action, Long entityId, Integer stock) {
+        lock.lock();
+        try {
+            long id = lastId + 1;
+            ring[index(id)] = new ChangeEventDTO(id, entity, action, entityId, stock, LocalDateTime.now());
+            lastId = id;
+            published.signalAll();
+        } finally {
+            lock.unlock();
+        }
+        Counter.builder("changes.published")
+            .description("Changes published to the change feed")
+            .tag("entity", entity)
+            .tag("action", action)
+            .register(MetricsUtil.getRegistry())
+            .increment();
+    }
+
+    /**
+     * @return Id of the last published event; a subscriber starting from it
+     * only gets the changes published afterwards
+     */
+    public long lastId() {
+        return lastId;
+    }
+
+    /**
+     * Read the events published after an id, waiting for the first one
+     *
+     * @param after Id of the last event the subscriber has seen
+     * @param max Maximum number of events returned
+     * @param timeoutMillis Longest wait when nothing newer is available
+     * @return Events after that id, or from the oldest one still held when
+     * the id is too old (or unknown)
+     * @throws InterruptedException if interrupted while waiting
+     */
+    public Batch read(long after, int max, long timeoutMillis) throws InterruptedException {
+        lock.lock();
+        try {
+            long oldest = Math.max(firstId, lastId - ring.length + 1);
+            boolean missed = after < oldest - 1 || after > lastId;
+            long from = missed ? oldest - 1 : after;
+            long nanos = TimeUnit.MILLISECONDS.toNanos(timeoutMillis);
+            while (lastId == from && nanos > 0) {
+                nanos = published.awaitNanos(nanos);
+            }
+            // Events may have been overwritten while waiting
+            oldest = Math.max(firstId, lastId - ring.length + 1);
+            if (from < oldest - 1) {
+                missed = true;
+                from = oldest - 1;
+            }
+            List<ChangeEventDTO> events = new ArrayList<>((int) Math.min(max, lastId - from));
+            for (long id = from + 1; id <= lastId && events.size() < max; id++) {
+                events.add(ring[index(id)]);
+            }
+            return new Batch(events, missed, from);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private int index(long id) {
+        return (int) Math.floorMod(id, (long) ring.length);
+    }
+}
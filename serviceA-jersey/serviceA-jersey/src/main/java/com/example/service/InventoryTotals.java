@@ -0,0 +1,135 @@
+package com.example.service;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.math.RoundingMode;
+import java.util.Arrays;
+
+/**
+ * Per-category accumulators of one inventory scan, all primitive
+ * One slot per known category (found by binary search in the sorted ids)
+ * plus a last slot for items whose category is not among them. Prices are
+ * in cents; the stock value is kept on 128 bits (high and low longs), as
+ * price x stock can exceed a long. BigDecimal only appears in the getters
+ * Not thread-safe: each fork/join leaf fills its own, then they are merged
+ */
+final class InventoryTotals {
+
+    private final long[] categoryIds;
+
+    private final long[] items;
+    private final long[] stockUnits;
+    private final long[] valueHigh;
+    private final long[] valueLow;
+    private final long[] priced;
+    private final long[] priceSum;
+    private final long[] minPrice;
+    private final long[] maxPrice;
+
+    /**
+     * @param categoryIds Known category ids, sorted (shared, not copied)
+     */
+    InventoryTotals(long[] categoryIds) {
+        this.categoryIds = categoryIds;
+        int slots = categoryIds.length + 1;
+        items = new long[slots];
+        stockUnits = new long[slots];
+        valueHigh = new long[slots];
+        valueLow = new long[slots];
+        priced = new long[slots];
+        priceSum = new long[slots];
+        minPrice = new long[slots];
+        maxPrice = new long[slots];
+        Arrays.fill(minPrice, Long.MAX_VALUE);
+        Arrays.fill(maxPrice, Long.MIN_VALUE);
+    }
+
+    /**
+     * Account for one item
+     *
+     * @param categoryId Category of the item (0 if none)
+     * @param priceCents Unit price in cents, negative if unknown
+     * @param stock Units in stock
+     */
+    void add(long categoryId, long priceCents, int stock) {
+        int slot = Arrays.binarySearch(categoryIds, categoryId);
+        if (slot < 0) {
+            slot = categoryIds.length;
+        }
+        items[slot]++;
+        stockUnits[slot] += stock;
+        if (priceCents < 0) {
+            return;
+        }
+        priced[slot]++;
+        priceSum[slot] += priceCents;
+        minPrice[slot] = Math.min(minPrice[slot], priceCents);
+        maxPrice[slot] = Math.max(maxPrice[slot], priceCents);
+        addValue(slot, Math.multiplyHigh(priceCents, stock), priceCents * stock);
+    }
+
+    /**
+     * Add the totals of another scan (same category ids) to this one
+     *
+     * @return this
+     */
+    InventoryTotals merge(InventoryTotals other) {
+        for (int slot = 0; slot < items.length; slot++) {
+            items[slot] += other.items[slot];
+            stockUnits[slot] += other.stockUnits[slot];
+            priced[slot] += other.priced[slot];
+            priceSum[slot] += other.priceSum[slot];
+            minPrice[slot] = Math.min(minPrice[slot], other.minPrice[slot]);
+            maxPrice[slot] = Math.max(maxPrice[slot], other.maxPrice[slot]);
+            addValue(slot, other.valueHigh[slot], other.valueLow[slot]);
+        }
+        return this;
+    }
+
+    /**
+     * Number of slots: the known categories, then the unknown one
+     */
+    int slots() {
+        return items.length;
+    }
+
+    long items(int slot) {
+        return items[slot];
+    }
+
+    long stockUnits(int slot) {
+        return stockUnits[slot];
+    }
+
+    BigDecimal stockValue(int slot) {
+        BigInteger cents = BigInteger.valueOf(valueHigh[slot]).shiftLeft(64)
+            .add(new BigInteger(Long.toUnsignedString(valueLow[slot])));
+        return new BigDecimal(cents, 2);
+    }
+
+    /**
+     * @return Lowest price of the slot, or null if no item has a price
+     */
+    BigDecimal minPrice(int slot) {
+        return priced[slot] == 0 ? null : BigDecimal.valueOf(minPrice[slot], 2);
+    }
+
+    BigDecimal maxPrice(int slot) {
+        return priced[slot] == 0 ? null : BigDecimal.valueOf(maxPrice[slot], 2);
+    }
+
+    /**
+     * @return Mean unit price, rounded half-up to the cent, or null if no item has a price
+     */
+    BigDecimal avgPrice(int slot) {
+        return priced[slot] == 0 ? null
+            : BigDecimal.valueOf(priceSum[slot], 2).divide(BigDecimal.valueOf(priced[slot]), 2, RoundingMode.HALF_UP);
+    }
+
+    // 128-bit addition: carry out of the low word when it wraps (unsigned)
+    private void addValue(int slot, long high, long low) {
+        long sum = valueLow[slot] + low;
+        valueHigh[slot] += high + (Long.compareUnsigned(sum, valueLow[slot]) < 0 ? 1 : 0);
+        valueLow[slot] = sum;
+    }
+}
@@ -0,0 +1,309 @@
+package com.example.service;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
+
+/**
+ * In-memory trigram index over item names
+ * Serves name searches without scanning the item table: the rarest trigram
+ * of the keyword gives the candidates, which are then checked and ranked
+ */
+public class ItemSearchIndex {
+
+    private static final int GRAM = 3;
+
+    private static final ItemSearchIndex INSTANCE = new ItemSearchIndex();
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    // Lower-cased name of every indexed item
+    private Map<Long, String> names = new HashMap<>();
+
+    // Trigram -> sorted ids of the items whose name contains it
+    private Map<String, LongList> postings = new HashMap<>();
+
+    // Updates made during a rebuild, replayed on the new index; null when none runs
+    private List<Update> pending;
+
+    private volatile boolean built;
+
+    private ItemSearchIndex() {}
+
+    public static ItemSearchIndex getInstance() {
+        return INSTANCE;
+    }
+
+    public boolean isBuilt() {
+        return built;
+    }
+
+    /**
+     * Replace the whole index with the given items
+     * Updates made while the source is read are applied to the current index
+     * and replayed on the new one before it replaces it: an item changed
+     * after the scan passed it is not lost
+     *
+     * @param source Emits every (id, name) pair, ideally in id order
+     */
+    public synchronized void rebuild(Consumer<BiConsumer<Long, String>> source) {
+        lock.writeLock().lock();
+        try {
+            pending = new ArrayList<>();
+        } finally {
+            lock.writeLock().unlock();
+        }
+
+        Map<Long, String> newNames = new HashMap<>();
+        Map<String, LongList> lists = new HashMap<>();
+        try {
+            source.accept((id, name) -> {
+                String normalized = normalize(name);
+                newNames.put(id, normalized);
+                for (String gram : grams(normalized)) {
+                    lists.computeIfAbsent(gram, g -> new LongList()).add(id);
+                }
+            });
+            lists.values().forEach(LongList::sort);
+        } catch (RuntimeException | Error e) {
+            lock.writeLock().lock();
+            try {
+                pending = null;
+            } finally {
+                lock.writeLock().unlock();
+            }
+            throw e;
+        }
+
+        lock.writeLock().lock();
+        try {
+            // Replaying an update the scan already saw changes nothing
+            for (Update update : pending) {
+                apply(newNames, lists, update.id(), update.name());
+            }
+            pending = null;
+            names = newNames;
+            postings = lists;
+            built = true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Index a new item, or re-index an item whose name changed
+     */
+    public void put(Long id, String name) {
+        update(id, normalize(name));
+    }
+
+    /**
+     * Remove an item from the index
+     */
+    public void remove(Long id) {
+        update(id, null);
+    }
+
+    private void update(long id, String normalized) {
+        lock.writeLock().lock();
+        try {
+            apply(names, postings, id, normalized);
+            if (pending != null) {
+                pending.add(new Update(id, normalized));
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Index an item, or remove it when the name is null
+     */
+    private static void apply(Map<Long, String> names, Map<String, LongList> postings, long id, String normalized) {
+        String previous = normalized == null ? names.remove(id) : names.put(id, normalized);
+        Set<String> oldGrams = previous == null ? Collections.emptySet() : grams(previous);
+        Set<String> newGrams = normalized == null ? Collections.emptySet() : grams(normalized);
+        for (String gram : oldGrams) {
+            if (!newGrams.contains(gram)) {
+                LongList posting = postings.get(gram);
+                if (posting != null && posting.removeSorted(id) && posting.size == 0) {
+                    postings.remove(gram);
+                }
+            }
+        }
+        for (String gram : newGrams) {
+            if (!oldGrams.contains(gram)) {
+                postings.computeIfAbsent(gram, g -> new LongList()).insertSorted(id);
+            }
+        }
+    }
+
+    /**
+     * Find the items whose name contains the keyword (case-insensitive)
+     * Ranking: exact name, then name prefix, then word prefix, then any
+     * position; ties go to the shorter name, then to the lower id
+     *
+     * @param keyword Search keyword
+     * @param limit Maximum number of ids to return
+     * @return Matching item ids, best match first
+     */
+    public List<Long> search(String keyword, int limit) {
+        String kw = normalize(keyword);
+        Comparator<Hit> byRank = Comparator.comparingInt((Hit h) -> h.score)
+            .thenComparingInt(h -> h.length)
+            .thenComparingLong(h -> h.id);
+        // Max-heap on rank, so the worst kept hit is evicted first
+        PriorityQueue<Hit> best = new PriorityQueue<>(limit + 1, byRank.reversed());
+
+        lock.readLock().lock();
+        try {
+            if (kw.length() < GRAM) {
+                // Too short for a trigram: check every name (still no database access)
+                for (Map.Entry<Long, String> entry : names.entrySet()) {
+                    offer(best, limit, entry.getKey(), entry.getValue(), kw);
+                }
+            } else {
+                LongList candidates = rarestPosting(kw);
+                for (int i = 0; i < candidates.size; i++) {
+                    long id = candidates.values[i];
+                    offer(best, limit, id, names.get(id), kw);
+                }
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+
+        List<Hit> hits = new ArrayList<>(best);
+        hits.sort(byRank);
+        List<Long> ids = new ArrayList<>(hits.size());
+        for (Hit hit : hits) {
+            ids.add(hit.id);
+        }
+        return ids;
+    }
+
+    private LongList rarestPosting(String kw) {
+        LongList rarest = null;
+        for (String gram : grams(kw)) {
+            LongList posting = postings.get(gram);
+            if (posting == null) {
+                return new LongList();
+            }
+            if (rarest == null || posting.size < rarest.size) {
+                rarest = posting;
+            }
+        }
+        return rarest;
+    }
+
+    private static void offer(PriorityQueue<Hit> best, int limit, long id, String name, String kw) {
+        if (name == null) {
+            return;
+        }
+        int position = name.indexOf(kw);
+        if (position < 0) {
+            return;
+        }
+        int score;
+        if (name.length() == kw.length()) {
+            score = 0;
+        } else if (position == 0) {
+            score = 1;
+        } else if (!Character.isLetterOrDigit(name.charAt(position - 1))) {
+            score = 2;
+        } else {
+            score = 3;
+        }
+        best.add(new Hit(id, score, name.length()));
+        if (best.size() > limit) {
+            best.poll();
+        }
+    }
+
+    private static String normalize(String text) {
+        return text == null ? "" : text.trim().toLowerCase(Locale.ROOT);
+    }
+
+    private static Set<String> grams(String text) {
+        Set<String> grams = new HashSet<>();
+        for (int i = 0; i + GRAM <= text.length(); i++) {
+            grams.add(text.substring(i, i + GRAM));
+        }
+        return grams;
+    }
+
+    private record Update(long id, String name) {}
+
+    private static final class Hit {
+        final long id;
+        final int score;
+        final int length;
+
+        Hit(long id, int score, int length) {
+            this.id = id;
+            this.score = score;
+            this.length = length;
+        }
+    }
+
+    /**
+     * Growable list of primitive longs, kept sorted once built
+     * Capacity doubles when full, so new items (highest ids) are appended in
+     * amortized constant time; other changes only shift the tail in place
+     */
+    private static final class LongList {
+        private long[] values = new long[4];
+        private int size;
+
+        void add(long value) {
+            if (size == values.length) {
+                values = Arrays.copyOf(values, size * 2);
+            }
+            values[size++] = value;
+        }
+
+        void sort() {
+            Arrays.sort(values, 0, size);
+        }
+
+        void insertSorted(long value) {
+            if (size == 0 || values[size - 1] < value) {
+                add(value);
+                return;
+            }
+            int index = Arrays.binarySearch(values, 0, size, value);
+            if (index >= 0) {
+                return;
+            }
+            int insertAt = -index - 1;
+            if (size == values.length) {
+                values = Arrays.copyOf(values, size * 2);
+            }
+            System.arraycopy(values, insertAt, values, insertAt + 1, size - insertAt);
+            values[insertAt] = value;
+            size++;
+        }
+
+        boolean removeSorted(long value) {
+            int index = Arrays.binarySearch(values, 0, size, value);
+            if (index < 0) {
+                return false;
+            }
+            System.arraycopy(values, index + 1, values, index, size - index - 1);
+            size--;
+            return true;
+        }
+    }
+}
@@ -1,17 +1,41 @@
 package com.example.service;
 
+import com.example.config.ApplicationProperties;
 import com.example.dao.CategoryDAO;
 import com.example.dao.ItemDAO;
+import com.example.dao.Storage;
+import com.example.dto.BatchItemResultDTO;
+import com.example.dto.BatchResultDTO;
+import com.example.dto.ChangeEventDTO;
+import com.example.dto.CursorPageDTO;
+import com.example.dto.ItemFields;
 import com.example.dto.ItemRequestDTO;
 import com.example.dto.ItemResponseDTO;
+import com.example.dto.ReservationLineDTO;
+import com.example.dto.ReservationRequestDTO;
+import com.example.dto.ReservationResponseDTO;
 import com.example.exception.ResourceNotFoundException;
 import com.example.exception.ValidationException;
 import com.example.mapper.ItemMapper;
 import com.example.model.Category;
 import com.example.model.Item;
+import com.example.util.CursorCodec;
+import com.example.util.Prefetcher;
+import com.example.util.SingleFlight;
+import com.example.util.UnitOfWork;
 
 import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.function.Consumer;
 
 /**
  * Service layer for Item business logic
@@ -19,12 +43,29 @@ import java.util.List;
  */
 public class ItemService {
 
+    private static final boolean SEARCH_INDEX_ENABLED =
+        ApplicationProperties.getBoolean("search.index.enabled", true);
+    private static final int EXPORT_FETCH_SIZE =
+        ApplicationProperties.getInt("export.fetch-size", 1000);
+    private static final int BATCH_MAX_SIZE =
+        ApplicationProperties.getInt("batch.max-size", 5000);
+    private static final int BATCH_JDBC_SIZE =
+        ApplicationProperties.getInt("batch.jdbc-batch-size", 500);
+
+    // Concurrent GET /items/{id} for the same id and fieldset share one database load
+    private static final SingleFlight<ItemLoad, Optional<ItemResponseDTO>> itemLoads = new SingleFlight<>("item");
+
+    private record ItemLoad(Long id, ItemFields fields) {}
+
     private final ItemDAO itemDAO;
     private final CategoryDAO categoryDAO;
+    private final ItemSearchIndex searchIndex = ItemSearchIndex.getInstance();
+    private final RowCounter itemCounter = RowCounter.items();
+    private final ChangeFeed changeFeed = ChangeFeed.getInstance();
 
     public ItemService() {
-        this.itemDAO = new ItemDAO();
-        this.categoryDAO = new CategoryDAO();
+        this.itemDAO = Storage.itemDAO();
+        this.categoryDAO = Storage.categoryDAO();
     }
 
     // Constructor for dependency injection (useful for testing)
@@ -38,58 +79,159 @@ public class ItemService {
      * 
      * @param page Page number
      * @param size Page size
+     * @param fields Fields to return
      * @return List of item DTOs
      */
-    public List<ItemResponseDTO> getAllItems(int page, int size) {
+    public List<ItemResponseDTO> getAllItems(int page, int size, ItemFields fields) {
         validatePagination(page, size);
         
-        List<Item> items = itemDAO.findAll(page, size);
-        return ItemMapper.toResponseDTOList(items);
+        return itemDAO.findAllAsDTO(page, size, fields);
+    }
+
+    /**
+     * Get a page of items using keyset pagination
+     * 
+     * @param after Opaque cursor from the previous page (empty for the first page)
+     * @param size Page size
+     * @param fields Fields to return
+     * @return Page of item DTOs with the cursor of the next page
+     */
+    public CursorPageDTO<ItemResponseDTO> getItemsAfter(String after, int size, ItemFields fields) {
+        validatePagination(0, size);
+        Long afterId = CursorCodec.decode(after);
+        
+        // Fetch one extra row to know whether another page exists
+        List<ItemResponseDTO> items = itemDAO.findAllAfterAsDTO(afterId, size + 1, fields);
+        boolean hasMore = items.size() > size;
+        if (hasMore) {
+            items = items.subList(0, size);
+        }
+        
+        String nextCursor = hasMore ? CursorCodec.encode(items.get(items.size() - 1).getId()) : null;
+        return new CursorPageDTO<>(items, nextCursor);
+    }
+
+    /**
+     * Export the whole catalog, one item at a time
+     * The database cursor is read on a separate thread, so the next batch is
+     * fetched while the caller is still writing the previous one
+     * 
+     * @param fetchSize Number of rows fetched per database round trip
+     * @param fields Fields to return
+     * @param action Callback receiving each item DTO, in id order
+     */
+    public void exportItems(int fetchSize, ItemFields fields, Consumer<ItemResponseDTO> action) {
+        Prefetcher.run(
+            sink -> itemDAO.forEachAsDTO(fetchSize, fields, sink),
+            2 * fetchSize,
+            action);
     }
 
     /**
      * Get an item by ID
+     * Concurrent calls for the same id and fields share one database load
      * 
      * @param id Item ID
+     * @param fields Fields to return
      * @return Item DTO
      * @throws ResourceNotFoundException if not found
      */
-    public ItemResponseDTO getItemById(Long id) {
-        Item item = itemDAO.findById(id)
+    public ItemResponseDTO getItemById(Long id, ItemFields fields) {
+        return itemLoads.get(new ItemLoad(id, fields), () -> itemDAO.findDTOById(id, fields))
             .orElseThrow(() -> new ResourceNotFoundException("Item", id));
-        
-        return ItemMapper.toResponseDTO(item);
+    }
+
+    /**
+     * Get the last modification time of an item, for conditional requests
+     * 
+     * @param id Item ID
+     * @return updatedAt, or empty if unknown (the item may not exist)
+     */
+    public Optional<LocalDateTime> getItemLastModified(Long id) {
+        return itemDAO.findUpdatedAt(id);
     }
 
     /**
      * Search items by name
+     * Served from the in-memory name index: only the matched ids are loaded
+     * from the database. The fieldset only narrows the JSON here: matches are
+     * hydrated through the entity path (and the second-level cache)
      * 
      * @param keyword Search keyword
-     * @return List of matching items
+     * @param limit Maximum number of results (null for the default)
+     * @param fields Fields to return
+     * @return List of matching items, best match first
      */
-    public List<ItemResponseDTO> searchItemsByName(String keyword) {
+    public List<ItemResponseDTO> searchItemsByName(String keyword, Integer limit, ItemFields fields) {
         if (keyword == null || keyword.trim().isEmpty()) {
             throw new ValidationException("Search keyword is required");
         }
+        int maxResults = ResultLimit.SEARCH.resolve(limit);
         
-        List<Item> items = itemDAO.searchByName(keyword);
-        return ItemMapper.toResponseDTOList(items);
+        if (!SEARCH_INDEX_ENABLED) {
+            return narrow(ItemMapper.toResponseDTOList(itemDAO.searchByName(keyword, maxResults)), fields);
+        }
+        
+        if (!searchIndex.isBuilt()) {
+            synchronized (searchIndex) {
+                // Another request may have built it while this one waited
+                if (!searchIndex.isBuilt()) {
+                    buildSearchIndex();
+                }
+            }
+        }
+        List<Long> ids = searchIndex.search(keyword, maxResults);
+        
+        // Hydrate the matches and keep the ranking order
+        Map<Long, Item> itemsById = new HashMap<>();
+        for (Item item : itemDAO.findByIds(ids)) {
+            itemsById.put(item.getId(), item);
+        }
+        List<ItemResponseDTO> results = new ArrayList<>(ids.size());
+        for (Long id : ids) {
+            Item item = itemsById.get(id);
+            if (item != null) {
+                results.add(ItemMapper.toResponseDTO(item));
+            }
+        }
+        return narrow(results, fields);
+    }
+
+    /**
+     * (Re)build the in-memory name index from the database
+     */
+    public void buildSearchIndex() {
+        synchronized (searchIndex) {
+            searchIndex.rebuild(sink -> itemDAO.forEachName(EXPORT_FETCH_SIZE, sink));
+        }
     }
 
     /**
-     * Get items by category ID
+     * Get one bounded page of the items of a category
+     * The category and the paging parameters are checked now; rows are only
+     * read from the database when the returned stream is consumed
      * 
      * @param categoryId Category ID
-     * @return List of items
+     * @param after Opaque cursor from the previous page (null or empty for the first page)
+     * @param limit Maximum number of items (null for the default)
+     * @param fields Fields to return
+     * @return Page stream of item DTOs
+     * @throws ResourceNotFoundException if the category does not exist
      */
-    public List<ItemResponseDTO> getItemsByCategoryId(Long categoryId) {
+    public PageStream<ItemResponseDTO> getItemsByCategoryId(Long categoryId, String after, Integer limit,
+                                                            ItemFields fields) {
+        int pageLimit = ResultLimit.CATEGORY_ITEMS.resolve(limit);
+        Long afterId = CursorCodec.decode(after);
+        
         // Verify category exists
         if (!categoryDAO.existsById(categoryId)) {
             throw new ResourceNotFoundException("Category", categoryId);
         }
         
-        List<Item> items = itemDAO.findByCategoryId(categoryId);
-        return ItemMapper.toResponseDTOList(items);
+        return PageStream.keyset(pageLimit,
+            (max, sink) -> itemDAO.forEachAsDTOByCategory(categoryId, afterId, max, fields, sink),
+            ItemResponseDTO::getId,
+            item -> item);
     }
 
     /**
@@ -115,10 +257,110 @@ public class ItemService {
         Item item = ItemMapper.toEntity(requestDTO);
         item.setCategory(category);
         
-        Item savedItem = itemDAO.save(item);
+        Item savedItem = itemCounter.change(1, () -> itemDAO.save(item));
+        UnitOfWork.afterCommit(() -> searchIndex.put(savedItem.getId(), savedItem.getName()));
+        changeFeed.publishAfterCommit(ChangeEventDTO.ITEM, ChangeEventDTO.CREATED, savedItem.getId(), savedItem.getStock());
         return ItemMapper.toResponseDTO(savedItem);
     }
 
+    /**
+     * Create many items at once
+     * SKU uniqueness and category existence are checked with one set-based
+     * query each, then every valid element is inserted in a single session
+     * with JDBC batching. Invalid elements are reported, not fatal, and so
+     * are SKUs that a concurrent request inserted after the check
+     * 
+     * @param requestDTOs Items to create
+     * @return Totals and one result per element, in request order
+     * @throws ValidationException if the batch itself is empty or too large
+     */
+    public BatchResultDTO createItems(List<ItemRequestDTO> requestDTOs) {
+        if (requestDTOs == null || requestDTOs.isEmpty()) {
+            throw new ValidationException("At least one item is required");
+        }
+        if (requestDTOs.size() > BATCH_MAX_SIZE) {
+            throw new ValidationException("A batch cannot contain more than " + BATCH_MAX_SIZE + " items");
+        }
+        
+        BatchItemResultDTO[] results = new BatchItemResultDTO[requestDTOs.size()];
+        Set<String> skus = new HashSet<>();
+        Set<Long> categoryIds = new HashSet<>();
+        
+        // Per-element validation, including duplicates inside the batch
+        for (int i = 0; i < requestDTOs.size(); i++) {
+            ItemRequestDTO requestDTO = requestDTOs.get(i);
+            try {
+                validateItemRequest(requestDTO);
+            } catch (ValidationException e) {
+                results[i] = BatchItemResultDTO.rejected(i, requestDTO == null ? null : requestDTO.getSku(), e.getMessage());
+                continue;
+            }
+            if (!skus.add(requestDTO.getSku())) {
+                results[i] = BatchItemResultDTO.rejected(i, requestDTO.getSku(),
+                    "Item SKU '" + requestDTO.getSku() + "' is duplicated in the batch");
+                continue;
+            }
+            categoryIds.add(requestDTO.getCategoryId());
+        }
+        
+        // One set-based query each for SKU uniqueness and category existence
+        Set<String> takenSkus = itemDAO.findExistingSkus(skus);
+        Set<Long> knownCategories = categoryDAO.findExistingIds(categoryIds);
+        
+        List<Item> toInsert = new ArrayList<>();
+        List<Integer> positions = new ArrayList<>();
+        for (int i = 0; i < requestDTOs.size(); i++) {
+            if (results[i] != null) {
+                continue;
+            }
+            ItemRequestDTO requestDTO = requestDTOs.get(i);
+            if (takenSkus.contains(requestDTO.getSku())) {
+                results[i] = BatchItemResultDTO.rejected(i, requestDTO.getSku(),
+                    "Item SKU '" + requestDTO.getSku() + "' already exists");
+            } else if (!knownCategories.contains(requestDTO.getCategoryId())) {
+                results[i] = BatchItemResultDTO.rejected(i, requestDTO.getSku(),
+                    "Category with id " + requestDTO.getCategoryId() + " not found");
+            } else {
+                Item item = ItemMapper.toEntity(requestDTO);
+                Category category = new Category();
+                category.setId(requestDTO.getCategoryId());
+                item.setCategory(category);
+                toInsert.add(item);
+                positions.add(i);
+            }
+        }
+        
+        List<Item> inserted = new ArrayList<>(toInsert.size());
+        if (!toInsert.isEmpty()) {
+            itemCounter.change(items -> items.stream().filter(item -> item.getId() != null).count(),
+                () -> itemDAO.saveAll(toInsert, BATCH_JDBC_SIZE));
+        }
+        for (int k = 0; k < toInsert.size(); k++) {
+            Item item = toInsert.get(k);
+            int position = positions.get(k);
+            if (item.getId() == null) {
+                // Inserted by a concurrent request since the check above
+                results[position] = BatchItemResultDTO.rejected(position, item.getSku(),
+                    "Item SKU '" + item.getSku() + "' already exists");
+            } else {
+                results[position] = BatchItemResultDTO.created(position, item.getId(), item.getSku());
+                inserted.add(item);
+            }
+        }
+        if (!inserted.isEmpty()) {
+            UnitOfWork.afterCommit(() -> {
+                for (Item item : inserted) {
+                    searchIndex.put(item.getId(), item.getName());
+                }
+            });
+            for (Item item : inserted) {
+                changeFeed.publishAfterCommit(ChangeEventDTO.ITEM, ChangeEventDTO.CREATED, item.getId(), item.getStock());
+            }
+        }
+        
+        return new BatchResultDTO(inserted.size(), requestDTOs.size() - inserted.size(), Arrays.asList(results));
+    }
+
     /**
      * Update an existing item
      * 
@@ -152,6 +394,8 @@ public class ItemService {
         ItemMapper.updateEntity(existingItem, requestDTO);
         
         Item updatedItem = itemDAO.update(existingItem);
+        UnitOfWork.afterCommit(() -> searchIndex.put(updatedItem.getId(), updatedItem.getName()));
+        changeFeed.publishAfterCommit(ChangeEventDTO.ITEM, ChangeEventDTO.UPDATED, id, updatedItem.getStock());
         return ItemMapper.toResponseDTO(updatedItem);
     }
 
@@ -167,38 +411,130 @@ public class ItemService {
             throw new ResourceNotFoundException("Item", id);
         }
         
-        itemDAO.delete(id);
+        itemCounter.change(-1, () -> itemDAO.delete(id));
+        UnitOfWork.afterCommit(() -> searchIndex.remove(id));
+        changeFeed.publishAfterCommit(ChangeEventDTO.ITEM, ChangeEventDTO.DELETED, id, null);
     }
 
     /**
      * Update item stock
+     * The change is applied by one conditional UPDATE, so concurrent calls
+     * never lose an adjustment; the item is only read again to tell a missing
+     * item from insufficient stock when the update did not apply
      * 
      * @param id Item ID
      * @param quantity Stock quantity to add (can be negative)
      * @return Updated item DTO
      */
     public ItemResponseDTO updateStock(Long id, int quantity) {
-        Item item = itemDAO.findById(id)
-            .orElseThrow(() -> new ResourceNotFoundException("Item", id));
+        Item item = itemDAO.adjustStock(id, quantity)
+            .orElseThrow(() -> {
+                Integer stock = itemDAO.findStocks(List.of(id)).get(id);
+                if (stock == null) {
+                    return new ResourceNotFoundException("Item", id);
+                }
+                return new ValidationException("Insufficient stock. Current stock: " + stock);
+            });
+        changeFeed.publishAfterCommit(ChangeEventDTO.ITEM, ChangeEventDTO.STOCK, id, item.getStock());
+        return ItemMapper.toResponseDTO(item);
+    }
+
+    /**
+     * Reserve stock on several items in one transaction, all or nothing
+     * Lines for the same item are merged, then applied in item id order so
+     * that concurrent reservations lock rows in the same order
+     * 
+     * @param requestDTO Reservation lines
+     * @return Reserved quantity per item
+     */
+    public ReservationResponseDTO reserveStock(ReservationRequestDTO requestDTO) {
+        if (requestDTO == null || requestDTO.getLines() == null || requestDTO.getLines().isEmpty()) {
+            throw new ValidationException("At least one reservation line is required");
+        }
+        if (requestDTO.getLines().size() > BATCH_MAX_SIZE) {
+            throw new ValidationException("A reservation cannot contain more than " + BATCH_MAX_SIZE + " lines");
+        }
         
-        int newStock = item.getStock() + quantity;
-        if (newStock < 0) {
-            throw new ValidationException("Insufficient stock. Current stock: " + item.getStock());
+        Map<Long, Integer> quantities = new TreeMap<>();
+        for (ReservationLineDTO line : requestDTO.getLines()) {
+            if (line == null || line.getItemId() == null) {
+                throw new ValidationException("Reservation line item id is required");
+            }
+            if (line.getQuantity() <= 0) {
+                throw new ValidationException("Reservation quantity must be greater than 0 for item " + line.getItemId());
+            }
+            try {
+                quantities.merge(line.getItemId(), line.getQuantity(), Math::addExact);
+            } catch (ArithmeticException e) {
+                throw new ValidationException("Reservation quantity is too large for item " + line.getItemId());
+            }
         }
         
-        item.setStock(newStock);
-        Item updatedItem = itemDAO.update(item);
+        List<Long> failed = itemDAO.reserveStock(quantities, BATCH_JDBC_SIZE);
+        if (!failed.isEmpty()) {
+            // Nothing was reserved: report the first line that could not be applied
+            Map<Long, Integer> stocks = itemDAO.findStocks(failed);
+            for (Long id : failed) {
+                Integer stock = stocks.get(id);
+                if (stock == null) {
+                    throw new ResourceNotFoundException("Item", id);
+                }
+                if (stock < quantities.get(id)) {
+                    throw new ValidationException("Insufficient stock for item " + id + ". Current stock: " + stock);
+                }
+            }
+            // Stock was restored by a concurrent request in the meantime
+            throw new ValidationException("Stock changed during the reservation, please retry");
+        }
         
-        return ItemMapper.toResponseDTO(updatedItem);
+        List<ReservationLineDTO> lines = new ArrayList<>(quantities.size());
+        long total = 0;
+        for (Map.Entry<Long, Integer> entry : quantities.entrySet()) {
+            lines.add(new ReservationLineDTO(entry.getKey(), entry.getValue()));
+            total += entry.getValue();
+            // The new stock is not read back: consumers reload the item
+            changeFeed.publishAfterCommit(ChangeEventDTO.ITEM, ChangeEventDTO.STOCK, entry.getKey(), null);
+        }
+        return new ReservationResponseDTO(lines, total);
     }
 
     /**
      * Get total count of items
+     * Served from the in-memory counter unless counts.mode=query
      * 
-     * @return Total count
+     * @return Total count (approximate with counts.mode=estimated)
      */
     public long getItemCount() {
-        return itemDAO.count();
+        if (!RowCounter.isEnabled()) {
+            return itemDAO.count();
+        }
+        if (!itemCounter.isLoaded()) {
+            itemCounter.loadIfNeeded(this::countItemRows);
+        }
+        return itemCounter.get();
+    }
+
+    /**
+     * Reload the item counter from the database
+     */
+    public void refreshItemCount() {
+        itemCounter.reload(this::countItemRows);
+    }
+
+    private long countItemRows() {
+        return RowCounter.isEstimated()
+            ? itemDAO.estimateCount().orElseGet(itemDAO::count)
+            : itemDAO.count();
+    }
+
+    /**
+     * Restrict the serialized fields of DTOs built from entities
+     */
+    private static List<ItemResponseDTO> narrow(List<ItemResponseDTO> items, ItemFields fields) {
+        if (!fields.isAll()) {
+            items.forEach(item -> item.setFields(fields));
+        }
+        return items;
     }
 
     /**
@@ -0,0 +1,77 @@
+package com.example.service;
+
+import com.example.util.CursorCodec;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+/**
+ * A validated, bounded page whose rows are read from the database only when
+ * it is consumed, so callers can write them out without building a list
+ */
+@FunctionalInterface
+public interface PageStream<T> {
+
+    /**
+     * Read the page and hand each row to the action, in id order
+     *
+     * @param action Callback receiving each row
+     * @return Cursor of the next page, or null if this was the last one
+     */
+    String forEach(Consumer<T> action);
+
+    /**
+     * Read the page now, so that its rows and the next cursor are known
+     * before the response is committed (and a failure still answers an error)
+     *
+     * @return The rows read, replayable as a page stream
+     */
+    default Buffered<T> buffer() {
+        List<T> rows = new ArrayList<>();
+        String nextCursor = forEach(rows::add);
+        return new Buffered<>(rows, nextCursor);
+    }
+
+    /**
+     * A page already read (see buffer)
+     *
+     * @param rows Rows of the page
+     * @param nextCursor Cursor of the next page, or null if this was the last one
+     */
+    record Buffered<T>(List<T> rows, String nextCursor) implements PageStream<T> {
+
+        @Override
+        public String forEach(Consumer<T> action) {
+            rows.forEach(action);
+            return nextCursor;
+        }
+    }
+
+    /**
+     * Build a keyset page over a reader that emits rows in id order
+     * One extra row is read to know whether a next page exists
+     *
+     * @param limit Page size
+     * @param reader Reads at most the given number of rows into the callback
+     * @param idOf Extracts the id used as cursor from a row
+     * @param mapper Converts a row to what the caller receives
+     * @return Page stream
+     */
+    static <E, T> PageStream<T> keyset(int limit, BiConsumer<Integer, Consumer<E>> reader,
+                                       Function<E, Long> idOf, Function<E, T> mapper) {
+        return action -> {
+            int[] count = {0};
+            Long[] lastId = {null};
+            reader.accept(limit + 1, row -> {
+                if (++count[0] <= limit) {
+                    lastId[0] = idOf.apply(row);
+                    action.accept(mapper.apply(row));
+                }
+            });
+            return count[0] > limit ? CursorCodec.encode(lastId[0]) : null;
+        };
+    }
+}
@@ -0,0 +1,171 @@
+package com.example.service;
+
+import com.example.config.ApplicationProperties;
+import com.example.dao.CategoryDAO;
+import com.example.dao.ItemDAO;
+import com.example.dao.ItemDAO.IdRange;
+import com.example.dao.Storage;
+import com.example.dto.InventoryCategoryDTO;
+import com.example.dto.InventoryReportDTO;
+import com.example.model.Category;
+import com.example.util.MetricsUtil;
+import com.example.util.SingleFlight;
+import io.micrometer.core.instrument.Timer;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinWorkerThread;
+import java.util.concurrent.RecursiveTask;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Service layer for catalog-wide reports
+ * The inventory report scans the item table in id ranges, in parallel on
+ * a dedicated fork/join pool: ranges are split in halves down to
+ * report.inventory.chunk-size ids, each leaf reads its range on its own
+ * connection into primitive accumulators, and the halves are merged on
+ * the way back up. At most report.inventory.parallelism ranges are read
+ * at once, which bounds the connections taken from the pool
+ * The scan is not a snapshot: rows changed while it runs may be counted
+ * before or after the change
+ */
+public class ReportService {
+
+    private static final int CHUNK_SIZE = ApplicationProperties.getInt("report.inventory.chunk-size", 100000);
+    private static final int FETCH_SIZE = ApplicationProperties.getInt("report.inventory.fetch-size", 5000);
+    private static final int CATEGORY_PAGE_SIZE = 1000;
+
+    private static final ForkJoinPool scanPool = buildPool(ApplicationProperties.getInt("report.inventory.parallelism",
+        Math.max(1, Math.min(Runtime.getRuntime().availableProcessors(),
+            ApplicationProperties.getInt("db.pool.maximum-pool-size", 20) / 2))));
+
+    // Concurrent requests share the scan in flight instead of starting their own
+    private static final SingleFlight<String, InventoryReportDTO> reports = new SingleFlight<>("inventory-report");
+
+    private static final Timer scanTimer = Timer.builder("report.inventory.duration")
+            .description("Time taken to compute the inventory report")
+            .register(MetricsUtil.getRegistry());
+
+    private final ItemDAO itemDAO;
+    private final CategoryDAO categoryDAO;
+
+    public ReportService() {
+        this.itemDAO = Storage.itemDAO();
+        this.categoryDAO = Storage.categoryDAO();
+    }
+
+    // Constructor for dependency injection (useful for testing)
+    public ReportService(ItemDAO itemDAO, CategoryDAO categoryDAO) {
+        this.itemDAO = itemDAO;
+        this.categoryDAO = categoryDAO;
+    }
+
+    /**
+     * Compute the stock value and price statistics of every category
+     *
+     * @return Catalog totals and one line per category, in category id order,
+     *         followed by a line without category if some items have none
+     */
+    public InventoryReportDTO getInventoryReport() {
+        return reports.get("inventory", this::computeInventoryReport);
+    }
+
+    private InventoryReportDTO computeInventoryReport() {
+        long start = System.nanoTime();
+        // Categories first: items created in a category added during the scan land on the unknown line
+        List<Category> categories = loadCategories();
+        long[] categoryIds = categories.stream().mapToLong(Category::getId).sorted().toArray();
+
+        Optional<IdRange> range = itemDAO.findIdRange();
+        InventoryTotals totals = range
+            .map(r -> scanPool.invoke(new Scan(itemDAO, categoryIds, r.min(), r.max() + 1)))
+            .orElseGet(() -> new InventoryTotals(categoryIds));
+
+        Map<Long, Category> byId = new HashMap<>();
+        categories.forEach(category -> byId.put(category.getId(), category));
+        List<InventoryCategoryDTO> lines = new ArrayList<>(totals.slots());
+        long itemCount = 0;
+        long stockUnits = 0;
+        BigDecimal stockValue = BigDecimal.ZERO.setScale(2);
+        for (int slot = 0; slot < totals.slots(); slot++) {
+            boolean unknown = slot == categoryIds.length;
+            if (unknown && totals.items(slot) == 0) {
+                continue;
+            }
+            Category category = unknown ? null : byId.get(categoryIds[slot]);
+            lines.add(new InventoryCategoryDTO(
+                category == null ? null : category.getId(),
+                category == null ? null : category.getCode(),
+                category == null ? null : category.getName(),
+                totals.items(slot), totals.stockUnits(slot), totals.stockValue(slot),
+                totals.minPrice(slot), totals.maxPrice(slot), totals.avgPrice(slot)));
+            itemCount += totals.items(slot);
+            stockUnits += totals.stockUnits(slot);
+            stockValue = stockValue.add(totals.stockValue(slot));
+        }
+
+        long elapsed = System.nanoTime() - start;
+        scanTimer.record(elapsed, TimeUnit.NANOSECONDS);
+        return new InventoryReportDTO(LocalDateTime.now(), TimeUnit.NANOSECONDS.toMillis(elapsed),
+            itemCount, stockUnits, stockValue, lines);
+    }
+
+    private List<Category> loadCategories() {
+        List<Category> categories = new ArrayList<>();
+        List<Category> page = categoryDAO.findAllAfter(null, CATEGORY_PAGE_SIZE);
+        while (!page.isEmpty()) {
+            categories.addAll(page);
+            page = categoryDAO.findAllAfter(page.get(page.size() - 1).getId(), CATEGORY_PAGE_SIZE);
+        }
+        return categories;
+    }
+
+    /**
+     * Totals of the items whose id is in [fromId, toId)
+     */
+    private static final class Scan extends RecursiveTask<InventoryTotals> {
+
+        private final ItemDAO itemDAO;
+        private final long[] categoryIds;
+        private final long fromId;
+        private final long toId;
+
+        Scan(ItemDAO itemDAO, long[] categoryIds, long fromId, long toId) {
+            this.itemDAO = itemDAO;
+            this.categoryIds = categoryIds;
+            this.fromId = fromId;
+            this.toId = toId;
+        }
+
+        @Override
+        protected InventoryTotals compute() {
+            if (toId - fromId <= CHUNK_SIZE) {
+                InventoryTotals totals = new InventoryTotals(categoryIds);
+                itemDAO.forEachStockLine(fromId, toId, FETCH_SIZE, totals::add);
+                return totals;
+            }
+            long middle = fromId + (toId - fromId) / 2;
+            Scan left = new Scan(itemDAO, categoryIds, fromId, middle);
+            left.fork();
+            InventoryTotals right = new Scan(itemDAO, categoryIds, middle, toId).compute();
+            return right.merge(left.join());
+        }
+    }
+
+    private static ForkJoinPool buildPool(int parallelism) {
+        ForkJoinPool.ForkJoinWorkerThreadFactory factory = pool -> {
+            ForkJoinWorkerThread thread = ForkJoinPool.defaultForkJoinWorkerThreadFactory.newThread(pool);
+            thread.setName("report-worker-" + thread.getPoolIndex());
+            return thread;
+        };
+        // No compensation threads when a worker blocks in join: never more scans than connections planned for
+        return new ForkJoinPool(parallelism, factory, null, false,
+            0, parallelism, 1, pool -> true, 60, TimeUnit.SECONDS);
+    }
+}
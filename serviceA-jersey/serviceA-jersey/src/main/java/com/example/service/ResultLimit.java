@@ -0,0 +1,44 @@
+package com.example.service;
+
+import com.example.config.ApplicationProperties;
+import com.example.exception.ValidationException;
+
+/**
+ * Default and server-side maximum of a "limit" query parameter, read from
+ * <prefix>.default-limit and <prefix>.max-limit
+ */
+final class ResultLimit {
+
+    // /items/by-category/{id} and /categories/{id}/with-items
+    static final ResultLimit CATEGORY_ITEMS = new ResultLimit("category-items", 100, 1000);
+    // /items/search
+    static final ResultLimit SEARCH = new ResultLimit("search", 20, 100);
+
+    private final int defaultLimit;
+    private final int maxLimit;
+
+    ResultLimit(String prefix, int defaultLimit, int maxLimit) {
+        this.defaultLimit = ApplicationProperties.getInt(prefix + ".default-limit", defaultLimit);
+        this.maxLimit = ApplicationProperties.getInt(prefix + ".max-limit", maxLimit);
+    }
+
+    /**
+     * Apply the default and the maximum to a requested limit
+     *
+     * @param limit Requested limit, null for the default
+     * @return Limit to use
+     * @throws ValidationException if the limit is not positive or above the maximum
+     */
+    int resolve(Integer limit) {
+        if (limit == null) {
+            return defaultLimit;
+        }
+        if (limit <= 0) {
+            throw new ValidationException("Limit must be greater than 0");
+        }
+        if (limit > maxLimit) {
+            throw new ValidationException("Limit cannot exceed " + maxLimit);
+        }
+        return limit;
+    }
+}
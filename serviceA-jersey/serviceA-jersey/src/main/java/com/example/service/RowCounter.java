@@ -0,0 +1,199 @@
+package com.example.service;
+
+import com.example.config.ApplicationProperties;
+import com.example.util.UnitOfWork;
+
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+import java.util.function.Supplier;
+import java.util.function.ToLongFunction;
+
+/**
+ * In-memory row count of one table
+ * Loaded from the database, then adjusted by the create and delete paths so
+ * that count requests never scan the table; a periodic reconciliation
+ * corrects any drift (rows changed outside the service, lost updates)
+ * A change is in flight from just before its write until its unit of work
+ * commits or rolls back. A reload only takes a count during which no change
+ * was in flight or started, so it never counts a change twice or misses one
+ */
+public class RowCounter {
+
+    // counter: exact COUNT on reconciliation; estimated: pg_class.reltuples;
+    // query: no counter, every count request runs SELECT COUNT
+    private static final String MODE = ApplicationProperties.get("counts.mode", "counter").toLowerCase();
+
+    private static final RowCounter ITEMS = new RowCounter();
+    private static final RowCounter CATEGORIES = new RowCounter();
+
+    // Reloads retried when changes overlap the count, before giving up until the next one
+    private static final int RELOAD_ATTEMPTS = 5;
+    private static final long RELOAD_RETRY_MILLIS = 50;
+
+    private static ScheduledExecutorService scheduler;
+
+    private final AtomicLong value = new AtomicLong();
+    // Changes started so far, and those not yet committed or rolled back
+    private final AtomicLong started = new AtomicLong();
+    private final AtomicLong inFlight = new AtomicLong();
+
+    private volatile boolean loaded;
+
+    // Package-private for tests
+    RowCounter() {}
+
+    public static RowCounter items() {
+        return ITEMS;
+    }
+
+    public static RowCounter categories() {
+        return CATEGORIES;
+    }
+
+    /**
+     * Whether counts are served from the counters (modes "counter" and "estimated")
+     */
+    public static boolean isEnabled() {
+        return !"query".equals(MODE);
+    }
+
+    /**
+     * Whether reconciliation reads the planner estimate instead of counting
+     */
+    public static boolean isEstimated() {
+        return "estimated".equals(MODE);
+    }
+
+    /**
+     * Load the counters now, then reconcile them every counts.reconcile-seconds
+     * Runs in the background: failures are logged and retried on the next run.
+     * Later calls are ignored, so every entry point may call it
+     */
+    public static synchronized void startReconciliation() {
+        if (scheduler != null || !isEnabled()) {
+            return;
+        }
+        ItemService itemService = new ItemService();
+        CategoryService categoryService = new CategoryService();
+        long period = ApplicationProperties.getLong("counts.reconcile-seconds", 60);
+        scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "count-reconciler");
+            thread.setDaemon(true);
+            return thread;
+        });
+        scheduler.scheduleWithFixedDelay(() -> {
+            try {
+                itemService.refreshItemCount();
+                categoryService.refreshCategoryCount();
+            } catch (RuntimeException e) {
+                System.err.println("Row count reconciliation failed: " + e.getMessage());
+            }
+        }, 0, period, TimeUnit.SECONDS);
+    }
+
+    public boolean isLoaded() {
+        return loaded;
+    }
+
+    public long get() {
+        return value.get();
+    }
+
+    /**
+     * Run a write that inserts (positive delta) or deletes (negative) rows
+     * The delta is applied once the current unit of work commits (at once
+     * when none is bound) and dropped if it rolls back
+     *
+     * @param delta Rows added by the write
+     * @param write Write to run
+     * @return Result of the write
+     */
+    public <T> T change(long delta, Supplier<T> write) {
+        return change(result -> delta, write);
+    }
+
+    /**
+     * Run a write whose row delta depends on its result
+     *
+     * @param delta Rows added by the write, given its result
+     * @param write Write to run
+     * @return Result of the write
+     */
+    public <T> T change(ToLongFunction<? super T> delta, Supplier<T> write) {
+        started.incrementAndGet();
+        inFlight.incrementAndGet();
+        T result;
+        try {
+            result = write.get();
+        } catch (RuntimeException | Error e) {
+            inFlight.decrementAndGet();
+            throw e;
+        }
+        long rows = delta.applyAsLong(result);
+        UnitOfWork.afterRollback(inFlight::decrementAndGet);
+        UnitOfWork.afterCommit(() -> {
+            value.addAndGet(rows);
+            inFlight.decrementAndGet();
+        });
+        return result;
+    }
+
+    /**
+     * Load the count unless already loaded, waiting for a load in progress
+     * rather than starting another one
+     *
+     * @param source Reads the row count
+     */
+    public synchronized void loadIfNeeded(LongSupplier source) {
+        if (!loaded) {
+            reload(source);
+        }
+    }
+
+    /**
+     * Replace the count with a fresh one from the database
+     * The count is retried while changes overlap it, as it may or may not
+     * include them. If they keep overlapping, the current value is kept until
+     * the next reconciliation (a first load takes the count anyway, keeping
+     * the overlapping changes on top of it)
+     *
+     * @param source Reads the row count
+     */
+    public synchronized void reload(LongSupplier source) {
+        for (int attempt = 1; ; attempt++) {
+            long startedBefore = started.get();
+            boolean settled = inFlight.get() == 0;
+            long before = value.get();
+            long count = source.getAsLong();
+            if (settled && started.get() == startedBefore) {
+                // No change could commit meanwhile: the value still matches the count's snapshot
+                value.addAndGet(count - before);
+                loaded = true;
+                return;
+            }
+            if (attempt == RELOAD_ATTEMPTS || !pause()) {
+                if (!loaded) {
+                    value.addAndGet(count - before);
+                    loaded = true;
+                }
+                return;
+            }
+        }
+    }
+
+    /**
+     * @return false if interrupted
+     */
+    private static boolean pause() {
+        try {
+            Thread.sleep(RELOAD_RETRY_MILLIS);
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+}
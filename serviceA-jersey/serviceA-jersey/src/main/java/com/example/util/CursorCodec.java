@@ -0,0 +1,48 @@
+package com.example.util;
+
+import com.example.exception.ValidationException;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+/**
+ * Encodes and decodes the opaque cursors used by keyset (seek) pagination
+ * A cursor carries the id of the last row returned to the client
+ */
+public class CursorCodec {
+
+    private static final String PREFIX = "id:";
+
+    /**
+     * Encode the last id of a page as an opaque cursor
+     *
+     * @param lastId Id of the last row of the page
+     * @return URL-safe cursor token
+     */
+    public static String encode(Long lastId) {
+        String raw = PREFIX + lastId;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.US_ASCII));
+    }
+
+    /**
+     * Decode a cursor back to the id it was built from
+     *
+     * @param cursor Cursor token (empty means "start from the beginning")
+     * @return Last id seen by the client, or null for the first page
+     * @throws ValidationException if the cursor is malformed
+     */
+    public static Long decode(String cursor) {
+        if (cursor == null || cursor.trim().isEmpty()) {
+            return null;
+        }
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor.trim()), StandardCharsets.US_ASCII);
+            if (!raw.startsWith(PREFIX)) {
+                throw new ValidationException("Invalid pagination cursor");
+            }
+            return Long.parseLong(raw.substring(PREFIX.length()));
+        } catch (IllegalArgumentException e) {
+            throw new ValidationException("Invalid pagination cursor", e);
+        }
+    }
+}
@@ -0,0 +1,78 @@
+package com.example.util;
+
+import com.example.config.ApplicationProperties;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Bounded executor running the database work of asynchronous requests
+ * One thread per pooled connection and a bounded queue in front of them:
+ * when the queue is full, new work is rejected instead of waiting
+ */
+public class DbExecutor {
+
+    private static final boolean ENABLED = ApplicationProperties.getBoolean("server.async.enabled", false);
+
+    private static final ThreadPoolExecutor executor = ENABLED ? buildExecutor() : null;
+
+    private static final Counter rejected = Counter.builder("db.executor.rejected")
+            .description("Requests refused because the database work queue was full")
+            .register(MetricsUtil.getRegistry());
+
+    public static boolean isEnabled() {
+        return ENABLED;
+    }
+
+    /**
+     * Queue a task for the database threads
+     *
+     * @param task Work to run
+     * @return Handle of the queued task
+     * @throws RejectedExecutionException if the queue is full
+     */
+    public static Future<?> submit(Runnable task) {
+        try {
+            return executor.submit(task);
+        } catch (RejectedExecutionException e) {
+            rejected.increment();
+            throw e;
+        }
+    }
+
+    public static void shutdown() {
+        if (executor != null) {
+            executor.shutdown();
+        }
+    }
+
+    private static ThreadPoolExecutor buildExecutor() {
+        int threads = ApplicationProperties.getInt("server.async.threads",
+            ApplicationProperties.getInt("db.pool.maximum-pool-size", 20));
+        int queueCapacity = ApplicationProperties.getInt("server.async.queue-capacity", 200);
+        AtomicInteger counter = new AtomicInteger();
+        ThreadPoolExecutor pool = new ThreadPoolExecutor(
+            threads, threads, 0L, TimeUnit.MILLISECONDS,
+            new ArrayBlockingQueue<>(queueCapacity),
+            runnable -> {
+                Thread thread = new Thread(runnable, "db-worker-" + counter.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            },
+            new ThreadPoolExecutor.AbortPolicy());
+        pool.prestartAllCoreThreads();
+        Gauge.builder("db.executor.queued", pool, p -> p.getQueue().size())
+            .description("Requests waiting for a database thread")
+            .register(MetricsUtil.getRegistry());
+        Gauge.builder("db.executor.active", pool, ThreadPoolExecutor::getActiveCount)
+            .description("Database threads currently busy")
+            .register(MetricsUtil.getRegistry());
+        return pool;
+    }
+}
@@ -0,0 +1,233 @@
+package com.example.util;
+
+import com.example.dto.CategoryResponseDTO;
+import com.example.dto.CategorySummaryDTO;
+import com.example.dto.ItemFields;
+import com.example.dto.ItemFields.Field;
+import com.example.dto.ItemResponseDTO;
+import com.example.dto.ItemSummaryDTO;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.io.SerializedString;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.module.SimpleModule;
+import com.fasterxml.jackson.databind.ser.std.StdSerializer;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+
+/**
+ * Hand-written serializers for the DTOs found in large responses
+ * They write the same JSON as the reflective bean serializer (same field
+ * order, nulls included, dates as yyyy-MM-dd'T'HH:mm:ss) straight to the
+ * generator, with pre-encoded field names. Item DTOs carrying a sparse
+ * fieldset only get the selected fields written
+ */
+public class DtoJsonModule extends SimpleModule {
+
+    private static final DateTimeFormatter DATE_TIME = DateTimeFormatter.ofPattern("yyyy-MM-dd'T'HH:mm:ss");
+
+    private static final SerializedString ID = new SerializedString("id");
+    private static final SerializedString SKU = new SerializedString("sku");
+    private static final SerializedString CODE = new SerializedString("code");
+    private static final SerializedString NAME = new SerializedString("name");
+    private static final SerializedString PRICE = new SerializedString("price");
+    private static final SerializedString STOCK = new SerializedString("stock");
+    private static final SerializedString UPDATED_AT = new SerializedString("updatedAt");
+    private static final SerializedString CATEGORY = new SerializedString("category");
+    private static final SerializedString ITEMS = new SerializedString("items");
+
+    public DtoJsonModule() {
+        super("DtoJsonModule");
+        addSerializer(ItemResponseDTO.class, new ItemResponseSerializer());
+        addSerializer(ItemSummaryDTO.class, new ItemSummarySerializer());
+        addSerializer(CategoryResponseDTO.class, new CategoryResponseSerializer());
+        addSerializer(CategorySummaryDTO.class, new CategorySummarySerializer());
+    }
+
+    static final class ItemResponseSerializer extends StdSerializer<ItemResponseDTO> {
+        ItemResponseSerializer() {
+            super(ItemResponseDTO.class);
+        }
+
+        @Override
+        public void serialize(ItemResponseDTO item, JsonGenerator gen, SerializerProvider provider) throws IOException {
+            ItemFields fields = item.getFields();
+            if (fields != null && !fields.isAll()) {
+                writeSparse(gen, item, fields);
+                return;
+            }
+            gen.writeStartObject(item);
+            writeLong(gen, ID, item.getId());
+            writeString(gen, SKU, item.getSku());
+            writeString(gen, NAME, item.getName());
+            writeDecimal(gen, PRICE, item.getPrice());
+            gen.writeFieldName(STOCK);
+            gen.writeNumber(item.getStock());
+            writeDateTime(gen, UPDATED_AT, item.getUpdatedAt());
+            gen.writeFieldName(CATEGORY);
+            writeCategorySummary(gen, item.getCategory());
+            gen.writeEndObject();
+        }
+
+        private static void writeSparse(JsonGenerator gen, ItemResponseDTO item, ItemFields fields) throws IOException {
+            gen.writeStartObject(item);
+            for (Field field : fields.toSet()) {
+                switch (field) {
+                    case ID -> writeLong(gen, ID, item.getId());
+                    case SKU -> writeString(gen, SKU, item.getSku());
+                    case NAME -> writeString(gen, NAME, item.getName());
+                    case PRICE -> writeDecimal(gen, PRICE, item.getPrice());
+                    case STOCK -> {
+                        gen.writeFieldName(STOCK);
+                        gen.writeNumber(item.getStock());
+                    }
+                    case UPDATED_AT -> writeDateTime(gen, UPDATED_AT, item.getUpdatedAt());
+                    case CATEGORY -> {
+                        gen.writeFieldName(CATEGORY);
+                        writeCategorySummary(gen, item.getCategory());
+                    }
+                }
+            }
+            gen.writeEndObject();
+        }
+    }
+
+    static final class ItemSummarySerializer extends StdSerializer<ItemSummaryDTO> {
+        ItemSummarySerializer() {
+            super(ItemSummaryDTO.class);
+        }
+
+        @Override
+        public void serialize(ItemSummaryDTO item, JsonGenerator gen, SerializerProvider provider) throws IOException {
+            writeItemSummary(gen, item);
+        }
+    }
+
+    static final class CategoryResponseSerializer extends StdSerializer<CategoryResponseDTO> {
+        CategoryResponseSerializer() {
+            super(CategoryResponseDTO.class);
+        }
+
+        @Override
+        public void serialize(CategoryResponseDTO category, JsonGenerator gen, SerializerProvider provider) throws IOException {
+            gen.writeStartObject(category);
+            writeLong(gen, ID, category.getId());
+            writeString(gen, CODE, category.getCode());
+            writeString(gen, NAME, category.getName());
+            writeDateTime(gen, UPDATED_AT, category.getUpdatedAt());
+            gen.writeFieldName(ITEMS);
+            List<ItemSummaryDTO> items = category.getItems();
+            if (items == null) {
+                gen.writeNull();
+            } else {
+                gen.writeStartArray(items, items.size());
+                for (ItemSummaryDTO item : items) {
+                    writeItemSummary(gen, item);
+                }
+                gen.writeEndArray();
+            }
+            gen.writeEndObject();
+        }
+    }
+
+    static final class CategorySummarySerializer extends StdSerializer<CategorySummaryDTO> {
+        CategorySummarySerializer() {
+            super(CategorySummaryDTO.class);
+        }
+
+        @Override
+        public void serialize(CategorySummaryDTO category, JsonGenerator gen, SerializerProvider provider) throws IOException {
+            writeCategorySummary(gen, category);
+        }
+    }
+
+    private static void writeItemSummary(JsonGenerator gen, ItemSummaryDTO item) throws IOException {
+        if (item == null) {
+            gen.writeNull();
+            return;
+        }
+        ItemFields fields = item.getFields();
+        boolean all = fields == null || fields.isAll();
+        gen.writeStartObject(item);
+        writeLong(gen, ID, item.getId());
+        if (all || fields.contains(Field.SKU)) {
+            writeString(gen, SKU, item.getSku());
+        }
+        if (all || fields.contains(Field.NAME)) {
+            writeString(gen, NAME, item.getName());
+        }
+        if (all || fields.contains(Field.PRICE)) {
+            writeDecimal(gen, PRICE, item.getPrice());
+        }
+        if (all || fields.contains(Field.STOCK)) {
+            gen.writeFieldName(STOCK);
+            gen.writeNumber(item.getStock());
+        }
+        gen.writeEndObject();
+    }
+
+    private static void writeCategorySummary(JsonGenerator gen, CategorySummaryDTO category) throws IOException {
+        if (category == null) {
+            gen.writeNull();
+            return;
+        }
+        gen.writeStartObject(category);
+        writeLong(gen, ID, category.getId());
+        writeString(gen, CODE, category.getCode());
+        writeString(gen, NAME, category.getName());
+        gen.writeEndObject();
+    }
+
+    private static void writeLong(JsonGenerator gen, SerializedString field, Long value) throws IOException {
+        gen.writeFieldName(field);
+        if (value == null) {
+            gen.writeNull();
+        } else {
+            gen.writeNumber(value);
+        }
+    }
+
+    private static void writeString(JsonGenerator gen, SerializedString field, String value) throws IOException {
+        gen.writeFieldName(field);
+        gen.writeString(value);
+    }
+
+    private static void writeDecimal(JsonGenerator gen, SerializedString field, BigDecimal value) throws IOException {
+        gen.writeFieldName(field);
+        gen.writeNumber(value);
+    }
+
+    private static void writeDateTime(JsonGenerator gen, SerializedString field, LocalDateTime value) throws IOException {
+        gen.writeFieldName(field);
+        if (value == null) {
+            gen.writeNull();
+        } else if (value.getYear() < 0 || value.getYear() > 9999) {
+            gen.writeString(DATE_TIME.format(value));
+        } else {
+            // Fixed-width yyyy-MM-dd'T'HH:mm:ss, without going through DateTimeFormatter
+            char[] chars = new char[19];
+            digits(chars, 0, value.getYear(), 4);
+            chars[4] = '-';
+            digits(chars, 5, value.getMonthValue(), 2);
+            chars[7] = '-';
+            digits(chars, 8, value.getDayOfMonth(), 2);
+            chars[10] = 'T';
+            digits(chars, 11, value.getHour(), 2);
+            chars[13] = ':';
+            digits(chars, 14, value.getMinute(), 2);
+            chars[16] = ':';
+            digits(chars, 17, value.getSecond(), 2);
+            gen.writeString(chars, 0, chars.length);
+        }
+    }
+
+    private static void digits(char[] chars, int offset, int value, int width) {
+        for (int i = offset + width - 1; i >= offset; i--) {
+            chars[i] = (char) ('0' + value % 10);
+            value /= 10;
+        }
+    }
+}
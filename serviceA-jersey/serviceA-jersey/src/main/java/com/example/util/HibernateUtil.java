@@ -1,18 +1,65 @@
 package com.example.util;
 
+import com.example.config.ApplicationProperties;
+import com.zaxxer.hikari.HikariConfig;
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.metrics.micrometer.MicrometerMetricsTrackerFactory;
+import com.github.benmanes.caffeine.jcache.configuration.CaffeineConfiguration;
+import com.github.benmanes.caffeine.jcache.spi.CaffeineCachingProvider;
+import io.micrometer.core.instrument.Tags;
 import org.hibernate.SessionFactory;
+import org.hibernate.cache.jcache.ConfigSettings;
+import org.hibernate.cfg.AvailableSettings;
 import org.hibernate.cfg.Configuration;
+import org.hibernate.cfg.JdbcSettings;
+import org.hibernate.stat.HibernateMetrics;
+
+import javax.cache.CacheManager;
+import javax.cache.Caching;
+import javax.cache.spi.CachingProvider;
+import java.util.OptionalLong;
+import java.util.Properties;
+import java.util.concurrent.TimeUnit;
 
 public class HibernateUtil {
 
+    // Régions du cache de second niveau (voir @Cache sur les entités)
+    public static final String CATEGORY_REGION = "category";
+    public static final String ITEM_REGION = "item";
+
+    private static final boolean CACHE_ENABLED = ApplicationProperties.getBoolean("cache.enabled", false);
+    private static final boolean STATISTICS_ENABLED = ApplicationProperties.getBoolean("metrics.hibernate.enabled", true);
+
+    private static HikariDataSource dataSource;
+    private static CacheManager cacheManager;
     private static SessionFactory sessionFactory;
 
     static {
         try {
-            sessionFactory = new Configuration().configure().buildSessionFactory();
+            dataSource = buildDataSource();
+            Configuration configuration = new Configuration().configure();
+            configuration.getProperties().put(JdbcSettings.JAKARTA_NON_JTA_DATASOURCE, dataSource);
+            if (CACHE_ENABLED) {
+                configureSecondLevelCache(configuration.getProperties());
+            }
+            if (STATISTICS_ENABLED || CACHE_ENABLED) {
+                configuration.getProperties().put(AvailableSettings.GENERATE_STATISTICS, "true");
+            }
+            sessionFactory = configuration.buildSessionFactory();
+            if (STATISTICS_ENABLED || CACHE_ENABLED) {
+                // Sessions, transactions, queries, entity loads and, with the cache,
+                // hits/misses/puts per region, published as hibernate_*
+                new HibernateMetrics(sessionFactory, "serviceA", Tags.empty()).bindTo(MetricsUtil.getRegistry());
+            }
             System.out.println("✅ Hibernate SessionFactory créée avec succès !");
         } catch (Throwable ex) {
             System.err.println("❌ Erreur lors de la création de la SessionFactory : " + ex);
+            if (cacheManager != null) {
+                cacheManager.close();
+            }
+            if (dataSource != null) {
+                dataSource.close();
+            }
             throw new ExceptionInInitializerError(ex);
         }
     }
@@ -21,11 +68,66 @@ public class HibernateUtil {
         return sessionFactory;
     }
 
+    public static boolean isSecondLevelCacheEnabled() {
+        return CACHE_ENABLED;
+    }
+
+    public static HikariDataSource getDataSource() {
+        return dataSource;
+    }
+
+    // ✅ Pool HikariCP : paramètres externalisés dans application.properties (db.*)
+    private static HikariDataSource buildDataSource() {
+        HikariConfig config = new HikariConfig();
+        config.setPoolName("serviceA-pool");
+        config.setDriverClassName(ApplicationProperties.get("db.driver-class-name", "org.postgresql.Driver"));
+        config.setJdbcUrl(ApplicationProperties.get("db.url", "jdbc:postgresql://localhost:5432/rest_tp"));
+        config.setUsername(ApplicationProperties.get("db.username", "rest_user"));
+        config.setPassword(ApplicationProperties.get("db.password", ""));
+        config.setMaximumPoolSize(ApplicationProperties.getInt("db.pool.maximum-pool-size", 20));
+        config.setMinimumIdle(ApplicationProperties.getInt("db.pool.minimum-idle", 5));
+        config.setConnectionTimeout(ApplicationProperties.getLong("db.pool.connection-timeout", 20000));
+        config.setIdleTimeout(ApplicationProperties.getLong("db.pool.idle-timeout", 300000));
+        config.setMaxLifetime(ApplicationProperties.getLong("db.pool.max-lifetime", 1200000));
+        config.setLeakDetectionThreshold(ApplicationProperties.getLong("db.pool.leak-detection-threshold", 0));
+        // Active/idle/pending connections and acquire time are published as hikaricp_* meters
+        config.setMetricsTrackerFactory(new MicrometerMetricsTrackerFactory(MetricsUtil.getRegistry()));
+        return new HikariDataSource(config);
+    }
+
+    // ✅ Cache de second niveau : Caffeine via JCache, une région par entité (cache.*)
+    private static void configureSecondLevelCache(Properties properties) {
+        CachingProvider provider = Caching.getCachingProvider(CaffeineCachingProvider.class.getName());
+        cacheManager = provider.getCacheManager(provider.getDefaultURI(), HibernateUtil.class.getClassLoader());
+        createRegion(CATEGORY_REGION, "cache.category", 10000, 3600);
+        createRegion(ITEM_REGION, "cache.item", 100000, 300);
+
+        properties.put(AvailableSettings.USE_SECOND_LEVEL_CACHE, "true");
+        properties.put(AvailableSettings.CACHE_REGION_FACTORY, ConfigSettings.SIMPLE_FACTORY_NAME);
+        properties.put(ConfigSettings.CACHE_MANAGER, cacheManager);
+        properties.put(ConfigSettings.MISSING_CACHE_STRATEGY, "fail");
+    }
+
+    private static void createRegion(String region, String prefix, long defaultMaxSize, long defaultTtlSeconds) {
+        CaffeineConfiguration<Object, Object> config = new CaffeineConfiguration<>();
+        config.setMaximumSize(OptionalLong.of(ApplicationProperties.getLong(prefix + ".max-size", defaultMaxSize)));
+        config.setExpireAfterWrite(OptionalLong.of(TimeUnit.SECONDS.toNanos(
+            ApplicationProperties.getLong(prefix + ".ttl-seconds", defaultTtlSeconds))));
+        config.setStatisticsEnabled(true);
+        cacheManager.createCache(region, config);
+    }
+
     // ✅ Fermeture propre lors de l’arrêt de l’application
     public static void shutdown() {
         if (sessionFactory != null) {
             sessionFactory.close();
             System.out.println("🧹 Hibernate SessionFactory fermée proprement.");
         }
+        if (cacheManager != null) {
+            cacheManager.close();
+        }
+        if (dataSource != null) {
+            dataSource.close();
+        }
     }
 }
@@ -0,0 +1,73 @@
+package com.example.util;
+
+import com.example.config.ApplicationProperties;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonFactoryBuilder;
+import com.fasterxml.jackson.core.TSFBuilder;
+import com.fasterxml.jackson.core.util.JsonRecyclerPools;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.cfg.JsonNodeFeature;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Holder for the application-wide Jackson ObjectMappers
+ * Shared by the JAX-RS providers and the streaming endpoints. The Smile and
+ * CBOR mappers are configured like the JSON one (same modules, same DTO
+ * serializers), only the wire format differs
+ */
+public class JsonUtil {
+
+    private static final int BUFFER_POOL_SIZE = ApplicationProperties.getInt("json.buffer-pool.size", 256);
+
+    private static final ObjectMapper mapper = createMapper(withBufferPool(new JsonFactoryBuilder()).build());
+    private static final ObjectMapper smileMapper = createMapper(withBufferPool(SmileFactory.builder()).build());
+    private static final ObjectMapper cborMapper = createMapper(withBufferPool(CBORFactory.builder()).build());
+
+    // One writer per row type, built once instead of on every streamed response
+    private static final Map<Class<?>, ObjectWriter> rowWriters = new ConcurrentHashMap<>();
+
+    public static ObjectMapper getMapper() {
+        return mapper;
+    }
+
+    public static ObjectMapper getSmileMapper() {
+        return smileMapper;
+    }
+
+    public static ObjectMapper getCborMapper() {
+        return cborMapper;
+    }
+
+    /**
+     * Writer for one row type that leaves flushing to the generator buffer
+     */
+    public static ObjectWriter rowWriter(Class<?> type) {
+        return rowWriters.computeIfAbsent(type,
+            t -> mapper.writerFor(t).without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE));
+    }
+
+    private static ObjectMapper createMapper(JsonFactory factory) {
+        ObjectMapper mapper = new ObjectMapper(factory);
+        mapper.registerModule(new JavaTimeModule());
+        mapper.registerModule(new DtoJsonModule());
+        // Amounts copied through a tree (JsonStreams.object headers) keep their scale: 0.00, not 0
+        mapper.configure(JsonNodeFeature.STRIP_TRAILING_BIGDECIMAL_ZEROES, false);
+        return mapper;
+    }
+
+    // Generator buffers come from a shared bounded pool: the default per-thread
+    // pool recycles nothing when every request runs on a fresh virtual thread
+    private static <B extends TSFBuilder<?, B>> B withBufferPool(B builder) {
+        if (BUFFER_POOL_SIZE > 0) {
+            builder.recyclerPool(JsonRecyclerPools.newBoundedPool(BUFFER_POOL_SIZE));
+        }
+        return builder;
+    }
+}
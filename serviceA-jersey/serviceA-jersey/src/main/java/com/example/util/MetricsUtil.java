@@ -0,0 +1,72 @@
+package com.example.util;
+
+import com.example.config.ApplicationProperties;
+import io.micrometer.core.instrument.Meter;
+import io.micrometer.core.instrument.binder.jvm.ClassLoaderMetrics;
+import io.micrometer.core.instrument.binder.jvm.JvmGcMetrics;
+import io.micrometer.core.instrument.binder.jvm.JvmMemoryMetrics;
+import io.micrometer.core.instrument.binder.jvm.JvmThreadMetrics;
+import io.micrometer.core.instrument.binder.system.FileDescriptorMetrics;
+import io.micrometer.core.instrument.binder.system.ProcessorMetrics;
+import io.micrometer.core.instrument.binder.system.UptimeMetrics;
+import io.micrometer.core.instrument.config.MeterFilter;
+import io.micrometer.core.instrument.distribution.DistributionStatisticConfig;
+import io.micrometer.prometheus.PrometheusConfig;
+import io.micrometer.prometheus.PrometheusMeterRegistry;
+
+/**
+ * Holder for the application-wide Micrometer registry
+ * Meters are exposed in Prometheus text format by MetricsResource
+ */
+public class MetricsUtil {
+
+    private static final PrometheusMeterRegistry registry = new PrometheusMeterRegistry(PrometheusConfig.DEFAULT);
+
+    // Client-side percentiles published next to the histogram buckets of http.server.requests
+    private static final double[] HTTP_PERCENTILES = {0.5, 0.95, 0.99};
+
+    static {
+        registry.config().commonTags("application", ApplicationProperties.get("metrics.application", "serviceA-jersey"));
+        registry.config().meterFilter(new MeterFilter() {
+            @Override
+            public DistributionStatisticConfig configure(Meter.Id id, DistributionStatisticConfig config) {
+                // Publish the connection acquire time as a histogram, not only count/sum/max
+                if (id.getName().startsWith("hikaricp.connections.acquire")) {
+                    return DistributionStatisticConfig.builder()
+                            .percentilesHistogram(true)
+                            .build()
+                            .merge(config);
+                }
+                // Same histogram as management.metrics.distribution.percentiles-histogram in the Spring variants
+                if (id.getName().equals("http.server.requests")) {
+                    return DistributionStatisticConfig.builder()
+                            .percentilesHistogram(true)
+                            .percentiles(HTTP_PERCENTILES)
+                            .build()
+                            .merge(config);
+                }
+                return config;
+            }
+        });
+
+        // JVM and process meters (jvm_*, process_*, system_*), as Spring Boot registers them
+        new ClassLoaderMetrics().bindTo(registry);
+        new JvmMemoryMetrics().bindTo(registry);
+        new JvmGcMetrics().bindTo(registry);
+        new JvmThreadMetrics().bindTo(registry);
+        new ProcessorMetrics().bindTo(registry);
+        new UptimeMetrics().bindTo(registry);
+        new FileDescriptorMetrics().bindTo(registry);
+    }
+
+    public static PrometheusMeterRegistry getRegistry() {
+        return registry;
+    }
+
+    /**
+     * Render every registered meter in Prometheus text format
+     */
+    public static String scrape() {
+        return registry.scrape();
+    }
+}
@@ -0,0 +1,148 @@
+package com.example.util;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
+
+/**
+ * Runs a producer on its own (virtual) thread and hands its elements to the
+ * calling thread through a bounded queue, so producing and consuming overlap
+ * while memory stays bounded by the queue capacity
+ * When the consumer fails, the producer is interrupted and its cancel action
+ * (see onCancel) is run: a producer blocked in a JDBC read does not see the
+ * interrupt, but a cancelled statement fails at once
+ */
+public class Prefetcher {
+
+    private static final Object END = new Object();
+
+    // Cancellation of the producer running on the current prefetcher thread
+    private static final ThreadLocal<Cancellation> CURRENT = new ThreadLocal<>();
+
+    /**
+     * Pipe every element emitted by the producer into the consumer
+     *
+     * @param producer Emits elements to the callback it is given (runs on a separate thread)
+     * @param capacity Maximum number of elements buffered between the two sides
+     * @param consumer Receives the elements on the calling thread, in order
+     */
+    @SuppressWarnings("unchecked")
+    public static <T> void run(Consumer<Consumer<T>> producer, int capacity, Consumer<T> consumer) {
+        BlockingQueue<Object> queue = new ArrayBlockingQueue<>(capacity);
+        AtomicReference<RuntimeException> failure = new AtomicReference<>();
+        Cancellation cancellation = new Cancellation();
+        Thread worker = Thread.ofVirtual().name("prefetcher").start(() -> {
+            CURRENT.set(cancellation);
+            try {
+                producer.accept(element -> put(queue, element));
+            } catch (RuntimeException e) {
+                failure.set(e);
+            } finally {
+                cancellation.finish();
+                CURRENT.remove();
+                try {
+                    put(queue, END);
+                } catch (CancellationException ignored) {
+                    // Consumer already gone
+                }
+            }
+        });
+
+        boolean completed = false;
+        try {
+            while (true) {
+                Object element = queue.take();
+                if (element == END) {
+                    break;
+                }
+                consumer.accept((T) element);
+            }
+            completed = true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new CancellationException("Interrupted while waiting for the producer");
+        } finally {
+            if (!completed) {
+                // Stop the producer: waiting on the queue, it gives up on the interrupt;
+                // reading the database, on its cancel action
+                worker.interrupt();
+                cancellation.cancel();
+            }
+        }
+
+        if (failure.get() != null) {
+            throw failure.get();
+        }
+    }
+
+    /**
+     * Register how to stop the producer running on this thread when it blocks
+     * outside of the queue (e.g. cancel the JDBC statement it is reading)
+     * Runs on the consumer thread if the consumer fails, at once if it
+     * already has; ignored when not called from a producer
+     */
+    public static void onCancel(Runnable action) {
+        Cancellation cancellation = CURRENT.get();
+        if (cancellation != null) {
+            cancellation.register(action);
+        }
+    }
+
+    private static void put(BlockingQueue<Object> queue, Object element) {
+        try {
+            while (!queue.offer(element, 100, TimeUnit.MILLISECONDS)) {
+                if (Thread.currentThread().isInterrupted()) {
+                    throw new CancellationException("Consumer stopped");
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new CancellationException("Consumer stopped");
+        }
+    }
+
+    private static final class Cancellation {
+        private Runnable action;
+        private boolean cancelled;
+        private boolean finished;
+
+        synchronized void register(Runnable newAction) {
+            if (finished) {
+                return;
+            }
+            if (cancelled) {
+                runQuietly(newAction);
+                return;
+            }
+            action = newAction;
+        }
+
+        // Producer returned: its resources may be closed, nothing left to cancel
+        synchronized void finish() {
+            finished = true;
+            action = null;
+        }
+
+        synchronized void cancel() {
+            if (cancelled || finished) {
+                return;
+            }
+            cancelled = true;
+            if (action != null) {
+                runQuietly(action);
+            }
+        }
+
+        private static void runQuietly(Runnable action) {
+            try {
+                action.run();
+            } catch (RuntimeException e) {
+                // The producer fails or ends by itself anyway
+                System.err.println("Prefetch cancellation failed: " + e.getMessage());
+            }
+        }
+    }
+}
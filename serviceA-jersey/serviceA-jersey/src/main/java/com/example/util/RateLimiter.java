@@ -0,0 +1,117 @@
+package com.example.util;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Token buckets keyed by client, implemented with GCRA (generic cell rate
+ * algorithm): a bucket is one AtomicLong holding the theoretical arrival
+ * time of the next request, updated with compare-and-set. No lock is taken
+ * on the request path, and concurrent clients only meet on the striped bins
+ * of the ConcurrentHashMap when a bucket is created
+ * Buckets that have refilled completely are dropped by a periodic sweep:
+ * they hold nothing a fresh bucket would not
+ */
+public class RateLimiter {
+
+    /**
+     * Sustained rate and burst of one bucket
+     *
+     * @param perSecond Requests allowed per second, on average
+     * @param burst Requests allowed at once by a full bucket
+     */
+    public record Limit(int perSecond, int burst) {
+
+        /**
+         * @throws IllegalArgumentException if the rate or the burst is not positive
+         */
+        public Limit {
+            if (perSecond <= 0 || perSecond > TimeUnit.SECONDS.toNanos(1)) {
+                throw new IllegalArgumentException("Rate must be between 1 and 1000000000 per second: " + perSecond);
+            }
+            if (burst <= 0) {
+                throw new IllegalArgumentException("Burst must be greater than 0: " + burst);
+            }
+        }
+
+        long intervalNanos() {
+            return TimeUnit.SECONDS.toNanos(1) / perSecond;
+        }
+    }
+
+    /**
+     * Outcome of one acquire
+     *
+     * @param allowed Whether the request may proceed
+     * @param remaining Requests still allowed right away
+     * @param retryAfterNanos Wait before a rejected request can succeed (0 when allowed)
+     * @param resetNanos Time until the bucket is full again
+     */
+    public record Decision(boolean allowed, int remaining, long retryAfterNanos, long resetNanos) {}
+
+    private final ConcurrentMap<String, AtomicLong> buckets = new ConcurrentHashMap<>();
+
+    /**
+     * @param sweepSeconds Period of the sweep dropping refilled buckets
+     */
+    public RateLimiter(int sweepSeconds) {
+        ScheduledExecutorService sweeper = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "rate-limit-sweeper");
+            thread.setDaemon(true);
+            return thread;
+        });
+        sweeper.scheduleAtFixedRate(this::sweep, sweepSeconds, sweepSeconds, TimeUnit.SECONDS);
+    }
+
+    /**
+     * Take one token from a bucket
+     *
+     * @param key Bucket key (client, and route when limits differ per route)
+     * @param limit Limit of the bucket
+     * @return Whether the request is allowed, with the bucket state
+     */
+    public Decision tryAcquire(String key, Limit limit) {
+        AtomicLong bucket = buckets.get(key);
+        if (bucket == null) {
+            AtomicLong created = new AtomicLong(System.nanoTime());
+            bucket = buckets.putIfAbsent(key, created);
+            if (bucket == null) {
+                bucket = created;
+            }
+        }
+
+        long interval = limit.intervalNanos();
+        long tolerance = interval * limit.burst();
+        while (true) {
+            long now = System.nanoTime();
+            long tat = bucket.get();
+            // A refilled bucket starts from now
+            long next = (tat - now < 0 ? now : tat) + interval;
+            long backlog = next - now;
+            if (backlog > tolerance) {
+                return new Decision(false, 0, backlog - tolerance, tat - now);
+            }
+            if (bucket.compareAndSet(tat, next)) {
+                return new Decision(true, (int) ((tolerance - backlog) / interval), 0, backlog);
+            }
+        }
+    }
+
+    /**
+     * Number of buckets currently held
+     */
+    public int size() {
+        return buckets.size();
+    }
+
+    private void sweep() {
+        long now = System.nanoTime();
+        // A bucket updated between the check and the removal is lost, which
+        // only grants that client one refill early
+        buckets.values().removeIf(bucket -> bucket.get() - now <= 0);
+    }
+}
@@ -0,0 +1,102 @@
+package com.example.util;
+
+import com.example.config.ApplicationProperties;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.Supplier;
+
+/**
+ * Coalesces concurrent loads of the same key
+ * The first caller for a key runs the load; callers arriving while it is
+ * in flight wait for it and get the same result (or the same exception).
+ * Nothing is kept once the load completes: this is not a cache
+ *
+ * @param <K> Key type
+ * @param <V> Loaded value type (shared between callers, so it must not be mutated)
+ */
+public class SingleFlight<K, V> {
+
+    private static final boolean ENABLED = ApplicationProperties.getBoolean("singleflight.enabled", true);
+
+    private final ConcurrentMap<K, CompletableFuture<V>> inFlight = new ConcurrentHashMap<>();
+
+    private final Counter loads;
+    private final Counter shared;
+
+    /**
+     * @param name Value of the "name" tag of the singleflight.* meters
+     */
+    public SingleFlight(String name) {
+        this.loads = Counter.builder("singleflight.calls")
+                .description("Lookups that ran their own load (leader) or joined one in flight (shared)")
+                .tags("name", name, "result", "leader")
+                .register(MetricsUtil.getRegistry());
+        this.shared = Counter.builder("singleflight.calls")
+                .description("Lookups that ran their own load (leader) or joined one in flight (shared)")
+                .tags("name", name, "result", "shared")
+                .register(MetricsUtil.getRegistry());
+        Gauge.builder("singleflight.coalescing.ratio", this, SingleFlight::coalescingRatio)
+                .description("Share of lookups served by a load already in flight, since startup")
+                .tag("name", name)
+                .register(MetricsUtil.getRegistry());
+    }
+
+    /**
+     * Load the value of a key, or wait for the load already running for it
+     * Loads that belong to a unit of work run on their own: their result may
+     * include uncommitted changes, which must not be handed to other requests
+     *
+     * @param key Key to load
+     * @param loader Load run by the first caller
+     * @return Loaded value
+     */
+    public V get(K key, Supplier<V> loader) {
+        if (!ENABLED || UnitOfWork.current() != null) {
+            return loader.get();
+        }
+
+        CompletableFuture<V> mine = new CompletableFuture<>();
+        CompletableFuture<V> running = inFlight.putIfAbsent(key, mine);
+        if (running != null) {
+            shared.increment();
+            return await(running);
+        }
+
+        loads.increment();
+        try {
+            V value = loader.get();
+            mine.complete(value);
+            return value;
+        } catch (RuntimeException | Error e) {
+            mine.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(key, mine);
+        }
+    }
+
+    private static <V> V await(CompletableFuture<V> running) {
+        try {
+            return running.join();
+        } catch (CompletionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            if (cause instanceof Error) {
+                throw (Error) cause;
+            }
+            throw e;
+        }
+    }
+
+    private double coalescingRatio() {
+        double total = loads.count() + shared.count();
+        return total == 0 ? 0 : shared.count() / total;
+    }
+}
@@ -0,0 +1,196 @@
+package com.example.util;
+
+import com.example.exception.DatabaseException;
+import org.hibernate.Session;
+import org.hibernate.Transaction;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * One Hibernate Session and transaction shared by every DAO call of a request
+ * Bound to the thread running the request's work; the session (and its
+ * connection) is only opened by the first DAO call, and the transaction is
+ * committed once, after the whole service call succeeded
+ */
+public final class UnitOfWork implements AutoCloseable {
+
+    private static final ThreadLocal<UnitOfWork> CURRENT = new ThreadLocal<>();
+
+    private Session session;
+    private Transaction transaction;
+    private boolean rollbackOnly;
+    private boolean closed;
+    private final List<Runnable> afterCommit = new ArrayList<>();
+    private final List<Runnable> afterRollback = new ArrayList<>();
+
+    private UnitOfWork() {}
+
+    /**
+     * Start a unit of work and bind it to the current thread
+     *
+     * @return The new unit of work
+     * @throws IllegalStateException if one is already bound
+     */
+    public static UnitOfWork begin() {
+        UnitOfWork unit = new UnitOfWork();
+        attach(unit);
+        return unit;
+    }
+
+    /**
+     * @return The unit of work bound to the current thread, or null
+     */
+    public static UnitOfWork current() {
+        return CURRENT.get();
+    }
+
+    /**
+     * Unbind the current unit of work, so that another thread can attach it
+     *
+     * @return The unit of work that was bound, or null
+     */
+    public static UnitOfWork detach() {
+        UnitOfWork unit = CURRENT.get();
+        CURRENT.remove();
+        return unit;
+    }
+
+    /**
+     * Bind a unit of work created (and detached) on another thread
+     */
+    public static void attach(UnitOfWork unit) {
+        if (CURRENT.get() != null) {
+            throw new IllegalStateException("A unit of work is already bound to this thread");
+        }
+        CURRENT.set(unit);
+    }
+
+    /**
+     * Run an action once the current unit of work has committed (caches,
+     * in-memory indexes); runs it right away when no unit of work is bound
+     * Dropped if the transaction rolls back
+     */
+    public static void afterCommit(Runnable action) {
+        UnitOfWork unit = CURRENT.get();
+        if (unit == null) {
+            action.run();
+        } else {
+            unit.afterCommit.add(action);
+        }
+    }
+
+    /**
+     * Run an action if the current unit of work rolls back or is closed
+     * without committing (undo of in-memory changes); never runs when no
+     * unit is bound, as the change is then already committed
+     * Dropped once the transaction commits
+     */
+    public static void afterRollback(Runnable action) {
+        UnitOfWork unit = CURRENT.get();
+        if (unit != null) {
+            unit.afterRollback.add(action);
+        }
+    }
+
+    /**
+     * Session of this unit of work, opened with its transaction on first use
+     */
+    public Session session() {
+        if (closed) {
+            throw new IllegalStateException("Unit of work already closed");
+        }
+        if (session == null) {
+            session = HibernateUtil.getSessionFactory().openSession();
+            transaction = session.beginTransaction();
+        }
+        return session;
+    }
+
+    /**
+     * Make commit() roll back instead
+     */
+    public void setRollbackOnly() {
+        rollbackOnly = true;
+    }
+
+    /**
+     * Commit the transaction (if a session was opened) and run the
+     * after-commit actions; rolls back instead when marked rollback-only
+     *
+     * @throws DatabaseException if the commit fails (the transaction is rolled back)
+     */
+    public void commit() {
+        if (closed) {
+            return;
+        }
+        if (rollbackOnly) {
+            if (transaction != null && transaction.isActive()) {
+                transaction.rollback();
+            }
+            // Also when no session was opened: nothing was committed, so nothing follows
+            afterCommit.clear();
+            runRollbackActions();
+            return;
+        }
+        if (transaction != null && transaction.isActive()) {
+            try {
+                transaction.commit();
+            } catch (RuntimeException e) {
+                rollbackQuietly();
+                afterCommit.clear();
+                runRollbackActions();
+                throw new DatabaseException("Error committing transaction", e);
+            }
+        }
+        afterRollback.clear();
+        List<Runnable> actions = new ArrayList<>(afterCommit);
+        afterCommit.clear();
+        for (Runnable action : actions) {
+            action.run();
+        }
+    }
+
+    /**
+     * Roll back anything not committed, close the session and unbind
+     */
+    @Override
+    public void close() {
+        if (CURRENT.get() == this) {
+            CURRENT.remove();
+        }
+        if (closed) {
+            return;
+        }
+        closed = true;
+        afterCommit.clear();
+        if (session != null) {
+            rollbackQuietly();
+            session.close();
+        }
+        runRollbackActions();
+    }
+
+    // Latest change first, like the database undoes them
+    private void runRollbackActions() {
+        List<Runnable> actions = new ArrayList<>(afterRollback);
+        afterRollback.clear();
+        for (int i = actions.size() - 1; i >= 0; i--) {
+            try {
+                actions.get(i).run();
+            } catch (RuntimeException e) {
+                System.err.println("Rollback action failed: " + e.getMessage());
+            }
+        }
+    }
+
+    private void rollbackQuietly() {
+        try {
+            if (transaction != null && transaction.isActive()) {
+                transaction.rollback();
+            }
+        } catch (RuntimeException e) {
+            System.err.println("Rollback failed: " + e.getMessage());
+        }
+    }
+}
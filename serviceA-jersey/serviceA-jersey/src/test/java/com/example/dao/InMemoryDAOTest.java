@@ -0,0 +1,236 @@
+package com.example.dao;
+
+import com.example.exception.DatabaseException;
+import com.example.model.Category;
+import com.example.model.Item;
+import com.example.util.UnitOfWork;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * The in-memory DAOs share one store: every test uses its own SKUs and codes
+ */
+class InMemoryDAOTest {
+
+    private static final AtomicInteger keys = new AtomicInteger();
+
+    private final InMemoryItemDAO itemDAO = new InMemoryItemDAO();
+    private final InMemoryCategoryDAO categoryDAO = new InMemoryCategoryDAO();
+
+    private Category category;
+
+    @BeforeEach
+    void createCategory() {
+        category = categoryDAO.save(new Category(nextKey(), "Test category"));
+    }
+
+    @Test
+    void duplicateSkuIsRejected() {
+        Item item = itemDAO.save(newItem(nextKey()));
+
+        assertThrows(DatabaseException.class, () -> itemDAO.save(newItem(item.getSku())));
+    }
+
+    @Test
+    void updateKeepingItsOwnSkuIsAllowed() {
+        Item item = itemDAO.save(newItem(nextKey()));
+        item.setName("Renamed");
+
+        assertEquals("Renamed", itemDAO.update(item).getName());
+    }
+
+    @Test
+    void updateTakingAnotherSkuIsRejected() {
+        Item first = itemDAO.save(newItem(nextKey()));
+        Item second = itemDAO.save(newItem(nextKey()));
+        second.setSku(first.getSku());
+
+        assertThrows(DatabaseException.class, () -> itemDAO.update(second));
+    }
+
+    @Test
+    void updateOfMissingItemIsRejected() {
+        Item item = newItem(nextKey());
+        item.setId(Long.MAX_VALUE);
+
+        assertThrows(DatabaseException.class, () -> itemDAO.update(item));
+    }
+
+    @Test
+    void unknownOrMissingCategoryIsRejected() {
+        Category unknown = new Category(nextKey(), "Unknown");
+        unknown.setId(Long.MAX_VALUE);
+        Item item = new Item(nextKey(), "Item", BigDecimal.ONE, 1, unknown);
+
+        assertThrows(DatabaseException.class, () -> itemDAO.save(item));
+        assertThrows(DatabaseException.class, () -> itemDAO.save(new Item(nextKey(), "Item", BigDecimal.ONE, 1, null)));
+        assertFalse(itemDAO.existsBySku(item.getSku(), null));
+    }
+
+    @Test
+    void nullColumnsAreRejected() {
+        assertThrows(DatabaseException.class, () -> itemDAO.save(new Item(null, "Item", BigDecimal.ONE, 1, category)));
+        assertThrows(DatabaseException.class, () -> itemDAO.save(new Item(nextKey(), null, BigDecimal.ONE, 1, category)));
+        assertThrows(DatabaseException.class, () -> categoryDAO.save(new Category(nextKey(), null)));
+    }
+
+    @Test
+    void batchSkipsTakenSkus() {
+        String taken = itemDAO.save(newItem(nextKey())).getSku();
+        Item fresh = newItem(nextKey());
+        Item conflicting = newItem(taken);
+        Item repeated = newItem(fresh.getSku());
+
+        itemDAO.saveAll(List.of(fresh, conflicting, repeated), 50);
+        assertTrue(fresh.getId() != null);
+        assertNull(conflicting.getId());
+        assertNull(repeated.getId());
+        assertTrue(itemDAO.existsBySku(fresh.getSku(), null));
+    }
+
+    @Test
+    void batchWithUnknownCategoryFailsAsAWhole() {
+        Category unknown = new Category(nextKey(), "Unknown");
+        unknown.setId(Long.MAX_VALUE);
+        String fresh = nextKey();
+
+        assertThrows(DatabaseException.class, () -> itemDAO.saveAll(
+            List.of(newItem(fresh), new Item(nextKey(), "Item", BigDecimal.ONE, 1, unknown)), 50));
+        assertFalse(itemDAO.existsBySku(fresh, null));
+    }
+
+    @Test
+    void duplicateCategoryCodeIsRejected() {
+        assertThrows(DatabaseException.class, () -> categoryDAO.save(new Category(category.getCode(), "Copy")));
+
+        Category other = categoryDAO.save(new Category(nextKey(), "Other"));
+        other.setCode(category.getCode());
+        assertThrows(DatabaseException.class, () -> categoryDAO.update(other));
+    }
+
+    @Test
+    void categoryWithItemsCannotBeDeleted() {
+        Item item = itemDAO.save(newItem(nextKey()));
+
+        assertThrows(DatabaseException.class, () -> categoryDAO.delete(category.getId()));
+        assertTrue(itemDAO.delete(item.getId()));
+        assertTrue(categoryDAO.delete(category.getId()));
+    }
+
+    @Test
+    void pricesAreRoundedToTheCent() {
+        Item item = newItem(nextKey());
+        item.setPrice(new BigDecimal("1.005"));
+        Long id = itemDAO.save(item).getId();
+
+        assertEquals(new BigDecimal("1.01"), itemDAO.findById(id).orElseThrow().getPrice());
+    }
+
+    @Test
+    void stockNeverGoesNegative() {
+        Long id = itemDAO.save(newItem(nextKey())).getId();
+
+        assertTrue(itemDAO.adjustStock(id, -11).isEmpty());
+        assertEquals(0, itemDAO.adjustStock(id, -10).orElseThrow().getStock());
+    }
+
+    @Test
+    void reservationIsAllOrNothing() {
+        Long plenty = itemDAO.save(newItem(nextKey())).getId();
+        Long scarce = itemDAO.save(newItem(nextKey())).getId();
+
+        List<Long> failed = itemDAO.reserveStock(Map.of(plenty, 5, scarce, 11), 50);
+        assertEquals(List.of(scarce), failed);
+        assertEquals(Map.of(plenty, 10, scarce, 10), itemDAO.findStocks(List.of(plenty, scarce)));
+    }
+
+    @Test
+    void rollbackUndoesInserts() {
+        String sku = nextKey();
+        String code = nextKey();
+        long items = itemDAO.count();
+
+        try (UnitOfWork unit = UnitOfWork.begin()) {
+            Category created = categoryDAO.save(new Category(code, "Rolled back"));
+            itemDAO.save(newItem(sku));
+            itemDAO.saveAll(List.of(new Item(nextKey(), "Other", BigDecimal.ONE, 1, created)), 50);
+            assertEquals(items + 2, itemDAO.count());
+            unit.setRollbackOnly();
+            unit.commit();
+        }
+
+        assertEquals(items, itemDAO.count());
+        assertFalse(itemDAO.existsBySku(sku, null));
+        assertTrue(categoryDAO.findByCode(code).isEmpty());
+        // The SKU is free again
+        itemDAO.save(newItem(sku));
+    }
+
+    @Test
+    void closeWithoutCommitUndoesUpdatesAndDeletes() {
+        Item kept = itemDAO.save(newItem(nextKey()));
+        Item removed = itemDAO.save(newItem(nextKey()));
+        String oldSku = kept.getSku();
+
+        try (UnitOfWork unit = UnitOfWork.begin()) {
+            kept.setSku(nextKey());
+            kept.setName("Renamed");
+            itemDAO.update(kept);
+            itemDAO.adjustStock(kept.getId(), -4);
+            itemDAO.reserveStock(Map.of(removed.getId(), 3), 50);
+            itemDAO.delete(removed.getId());
+        }
+
+        Item restored = itemDAO.findById(kept.getId()).orElseThrow();
+        assertEquals(oldSku, restored.getSku());
+        assertEquals("Item " + oldSku, restored.getName());
+        assertEquals(10, restored.getStock());
+        assertEquals(10, itemDAO.findById(removed.getId()).orElseThrow().getStock());
+        assertTrue(itemDAO.existsBySku(removed.getSku(), null));
+    }
+
+    @Test
+    void commitKeepsTheWrites() {
+        String sku = nextKey();
+
+        try (UnitOfWork unit = UnitOfWork.begin()) {
+            itemDAO.save(newItem(sku));
+            unit.commit();
+        }
+
+        assertTrue(itemDAO.existsBySku(sku, null));
+    }
+
+    @Test
+    void laterWriteWinsOverUndo() {
+        Item item = itemDAO.save(newItem(nextKey()));
+
+        UnitOfWork unit = UnitOfWork.begin();
+        itemDAO.adjustStock(item.getId(), -1);
+        UnitOfWork.detach();
+        // Another request changes the row, then the first one rolls back
+        itemDAO.adjustStock(item.getId(), -2);
+        unit.close();
+
+        assertEquals(7, itemDAO.findById(item.getId()).orElseThrow().getStock());
+    }
+
+    private Item newItem(String sku) {
+        return new Item(sku, "Item " + sku, new BigDecimal("2.50"), 10, category);
+    }
+
+    private static String nextKey() {
+        return "MEM-" + keys.incrementAndGet();
+    }
+}
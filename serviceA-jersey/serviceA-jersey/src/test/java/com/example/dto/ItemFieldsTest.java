@@ -0,0 +1,86 @@
+package com.example.dto;
+
+import com.example.dto.ItemFields.Field;
+import com.example.exception.ValidationException;
+import org.junit.jupiter.api.Test;
+
+import java.util.EnumSet;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ItemFieldsTest {
+
+    @Test
+    void missingOrBlankMeansEveryField() {
+        assertSame(ItemFields.ALL, ItemFields.forItems(null));
+        assertSame(ItemFields.ALL, ItemFields.forItems("  "));
+        assertSame(ItemFields.ALL, ItemFields.forSummaries(""));
+        assertTrue(ItemFields.ALL.isAll());
+    }
+
+    @Test
+    void idIsAlwaysSelected() {
+        ItemFields fields = ItemFields.forItems("stock");
+
+        assertEquals(EnumSet.of(Field.ID, Field.STOCK), fields.toSet());
+        assertFalse(fields.isAll());
+    }
+
+    @Test
+    void namesAreTrimmedAndEmptyOnesSkipped() {
+        ItemFields fields = ItemFields.forItems(" sku , ,price,");
+
+        assertEquals(EnumSet.of(Field.ID, Field.SKU, Field.PRICE), fields.toSet());
+    }
+
+    @Test
+    void fieldsComeInSerializationOrder() {
+        ItemFields fields = ItemFields.forItems("category,stock,sku");
+
+        assertEquals("id,sku,stock,category", fields.toString());
+    }
+
+    @Test
+    void unknownOrMiscasedNameIsRejected() {
+        ValidationException e = assertThrows(ValidationException.class, () -> ItemFields.forItems("sku,colour"));
+        assertTrue(e.getMessage().contains("'colour'"), e.getMessage());
+        assertThrows(ValidationException.class, () -> ItemFields.forItems("updatedat"));
+    }
+
+    @Test
+    void summariesOnlyAcceptSummaryFields() {
+        assertEquals(EnumSet.of(Field.ID, Field.NAME), ItemFields.forSummaries("name").toSet());
+        assertThrows(ValidationException.class, () -> ItemFields.forSummaries("updatedAt"));
+        assertThrows(ValidationException.class, () -> ItemFields.forSummaries("category"));
+    }
+
+    @Test
+    void askingForEveryFieldIsTheFullRepresentation() {
+        assertSame(ItemFields.ALL, ItemFields.forItems("id,sku,name,price,stock,updatedAt,category"));
+        assertSame(ItemFields.ALL, ItemFields.forSummaries("sku,name,price,stock"));
+    }
+
+    @Test
+    void withAddsOneField() {
+        ItemFields fields = ItemFields.forItems("name");
+
+        ItemFields widened = fields.with(Field.UPDATED_AT);
+        assertEquals(EnumSet.of(Field.ID, Field.NAME, Field.UPDATED_AT), widened.toSet());
+        assertEquals(EnumSet.of(Field.ID, Field.NAME), fields.toSet());
+        assertSame(widened, widened.with(Field.NAME));
+        assertSame(ItemFields.ALL, ItemFields.forItems("sku,name,price,stock,updatedAt").with(Field.CATEGORY));
+    }
+
+    @Test
+    void equalSelectionsAreEqual() {
+        ItemFields a = ItemFields.forItems("price,sku");
+        ItemFields b = ItemFields.forItems("id,sku,price");
+
+        assertEquals(a, b);
+        assertEquals(a.hashCode(), b.hashCode());
+    }
+}
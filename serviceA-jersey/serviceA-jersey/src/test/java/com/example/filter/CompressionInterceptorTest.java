@@ -0,0 +1,52 @@
+package com.example.filter;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class CompressionInterceptorTest {
+
+    @Test
+    void noHeaderMeansNoGzip() {
+        assertFalse(CompressionInterceptor.acceptsGzip(null));
+        assertFalse(CompressionInterceptor.acceptsGzip(""));
+    }
+
+    @Test
+    void gzipAliasesAndWildcardAreAccepted() {
+        assertTrue(CompressionInterceptor.acceptsGzip("gzip"));
+        assertTrue(CompressionInterceptor.acceptsGzip("x-gzip"));
+        assertTrue(CompressionInterceptor.acceptsGzip("*"));
+        assertTrue(CompressionInterceptor.acceptsGzip("GZIP"));
+    }
+
+    @Test
+    void gzipIsFoundAmongOtherCodings() {
+        assertTrue(CompressionInterceptor.acceptsGzip("deflate, gzip, br"));
+        assertTrue(CompressionInterceptor.acceptsGzip("br;q=1.0 , gzip ; q=0.5"));
+        assertFalse(CompressionInterceptor.acceptsGzip("deflate, br, identity"));
+    }
+
+    @Test
+    void zeroQualityRefusesGzip() {
+        assertFalse(CompressionInterceptor.acceptsGzip("gzip;q=0"));
+        assertFalse(CompressionInterceptor.acceptsGzip("gzip;q=0.0, br"));
+        assertTrue(CompressionInterceptor.acceptsGzip("gzip;q=0.001"));
+    }
+
+    @Test
+    void explicitGzipEntryOverridesWildcard() {
+        assertFalse(CompressionInterceptor.acceptsGzip("gzip;q=0, *"));
+        assertFalse(CompressionInterceptor.acceptsGzip("*, x-gzip;q=0"));
+        assertTrue(CompressionInterceptor.acceptsGzip("gzip;q=0.5, *;q=0"));
+        assertFalse(CompressionInterceptor.acceptsGzip("br, *;q=0"));
+        assertTrue(CompressionInterceptor.acceptsGzip("br, *;q=0.1"));
+    }
+
+    @Test
+    void malformedQualityRefusesGzip() {
+        assertFalse(CompressionInterceptor.acceptsGzip("gzip;q=high"));
+        assertTrue(CompressionInterceptor.acceptsGzip("gzip;level=9"));
+    }
+}
@@ -0,0 +1,130 @@
+package com.example.service;
+
+import com.example.dto.ChangeEventDTO;
+import com.example.service.ChangeFeed.Batch;
+import com.example.util.UnitOfWork;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ChangeFeedTest {
+
+    private final ChangeFeed feed = new ChangeFeed(4);
+
+    @Test
+    void readsEventsAfterTheGivenId() throws InterruptedException {
+        long start = feed.lastId();
+        publish(3);
+
+        Batch batch = feed.read(start + 1, 10, 0);
+        assertFalse(batch.missed());
+        assertEquals(start + 1, batch.resumeFrom());
+        assertEquals(List.of(start + 2, start + 3), ids(batch));
+        assertEquals(List.of(2L, 3L), entityIds(batch));
+    }
+
+    @Test
+    void readIsCappedAtMax() throws InterruptedException {
+        long start = feed.lastId();
+        publish(3);
+
+        assertEquals(List.of(start + 1, start + 2), ids(feed.read(start, 2, 0)));
+    }
+
+    @Test
+    void ringWrapsAroundKeepingTheNewestEvents() throws InterruptedException {
+        long start = feed.lastId();
+        publish(10);
+
+        // The last four events, read across the wrap of the ring
+        Batch batch = feed.read(start + 6, 10, 0);
+        assertFalse(batch.missed());
+        assertEquals(List.of(start + 7, start + 8, start + 9, start + 10), ids(batch));
+        assertEquals(List.of(7L, 8L, 9L, 10L), entityIds(batch));
+    }
+
+    @Test
+    void tooOldIdIsReportedAsMissed() throws InterruptedException {
+        long start = feed.lastId();
+        publish(10);
+
+        Batch batch = feed.read(start + 2, 10, 0);
+        assertTrue(batch.missed());
+        assertEquals(start + 6, batch.resumeFrom());
+        assertEquals(List.of(start + 7, start + 8, start + 9, start + 10), ids(batch));
+    }
+
+    @Test
+    void unknownIdsAreReportedAsMissed() throws InterruptedException {
+        long start = feed.lastId();
+        publish(2);
+
+        // From a previous run, and from the future
+        assertTrue(feed.read(0, 10, 0).missed());
+        Batch ahead = feed.read(start + 100, 10, 0);
+        assertTrue(ahead.missed());
+        assertEquals(List.of(start + 1, start + 2), ids(ahead));
+    }
+
+    @Test
+    void emptyBatchWhenNothingIsPublishedInTime() throws InterruptedException {
+        Batch batch = feed.read(feed.lastId(), 10, 20);
+
+        assertFalse(batch.missed());
+        assertTrue(batch.events().isEmpty());
+    }
+
+    @Test
+    void waitingReaderIsWokenByPublish() throws Exception {
+        long start = feed.lastId();
+        CompletableFuture<Batch> reader = CompletableFuture.supplyAsync(() -> {
+            try {
+                return feed.read(start, 10, TimeUnit.SECONDS.toMillis(5));
+            } catch (InterruptedException e) {
+                throw new IllegalStateException(e);
+            }
+        });
+        Thread.sleep(50);
+        publish(1);
+
+        assertEquals(List.of(start + 1), ids(reader.get(5, TimeUnit.SECONDS)));
+    }
+
+    @Test
+    void publishAfterCommitWaitsForTheCommit() throws InterruptedException {
+        long start = feed.lastId();
+        try (UnitOfWork unit = UnitOfWork.begin()) {
+            feed.publishAfterCommit(ChangeEventDTO.ITEM, ChangeEventDTO.UPDATED, 1L, 5);
+            assertEquals(start, feed.lastId());
+            unit.commit();
+        }
+        assertEquals(start + 1, feed.lastId());
+
+        try (UnitOfWork unit = UnitOfWork.begin()) {
+            feed.publishAfterCommit(ChangeEventDTO.ITEM, ChangeEventDTO.UPDATED, 1L, 5);
+        }
+        assertEquals(start + 1, feed.lastId());
+        assertEquals(List.of(5), feed.read(start, 10, 0).events().stream().map(ChangeEventDTO::getStock).toList());
+    }
+
+    // Events for entity ids 1..count
+    private void publish(int count) {
+        for (long i = 1; i <= count; i++) {
+            feed.publish(ChangeEventDTO.ITEM, ChangeEventDTO.STOCK, i, (int) i);
+        }
+    }
+
+    private static List<Long> ids(Batch batch) {
+        return batch.events().stream().map(ChangeEventDTO::getId).toList();
+    }
+
+    private static List<Long> entityIds(Batch batch) {
+        return batch.events().stream().map(ChangeEventDTO::getEntityId).toList();
+    }
+}
@@ -0,0 +1,138 @@
+package com.example.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class InventoryTotalsTest {
+
+    private static final long[] CATEGORIES = {3, 7, 42};
+
+    @Test
+    void itemsLandInTheirCategorySlot() {
+        InventoryTotals totals = new InventoryTotals(CATEGORIES);
+        totals.add(7, 250, 4);
+        totals.add(7, 100, 1);
+        totals.add(42, 999, 2);
+
+        assertEquals(4, totals.slots());
+        assertEquals(0, totals.items(0));
+        assertEquals(2, totals.items(1));
+        assertEquals(5, totals.stockUnits(1));
+        assertEquals(new BigDecimal("11.00"), totals.stockValue(1));
+        assertEquals(1, totals.items(2));
+        assertEquals(new BigDecimal("19.98"), totals.stockValue(2));
+    }
+
+    @Test
+    void unknownCategoriesShareTheLastSlot() {
+        InventoryTotals totals = new InventoryTotals(CATEGORIES);
+        totals.add(0, 100, 1);
+        totals.add(5, 100, 2);
+        totals.add(1000, 100, 3);
+
+        assertEquals(3, totals.items(3));
+        assertEquals(6, totals.stockUnits(3));
+        assertEquals(new BigDecimal("6.00"), totals.stockValue(3));
+    }
+
+    @Test
+    void priceStatistics() {
+        InventoryTotals totals = new InventoryTotals(CATEGORIES);
+        totals.add(3, 100, 0);
+        totals.add(3, 250, 0);
+        totals.add(3, 333, 0);
+
+        assertEquals(new BigDecimal("1.00"), totals.minPrice(0));
+        assertEquals(new BigDecimal("3.33"), totals.maxPrice(0));
+        // 6.83 / 3 = 2.2766..., half-up to the cent
+        assertEquals(new BigDecimal("2.28"), totals.avgPrice(0));
+    }
+
+    @Test
+    void itemsWithoutPriceCountOnlyInItemsAndStock() {
+        InventoryTotals totals = new InventoryTotals(CATEGORIES);
+        totals.add(3, -1, 5);
+
+        assertEquals(1, totals.items(0));
+        assertEquals(5, totals.stockUnits(0));
+        assertEquals(new BigDecimal("0.00"), totals.stockValue(0));
+        assertNull(totals.minPrice(0));
+        assertNull(totals.maxPrice(0));
+        assertNull(totals.avgPrice(0));
+
+        totals.add(3, 0, 5);
+        assertEquals(new BigDecimal("0.00"), totals.minPrice(0));
+    }
+
+    @Test
+    void stockValueBeyondALongIsExact() {
+        InventoryTotals totals = new InventoryTotals(CATEGORIES);
+        long price = Long.MAX_VALUE / 3;
+        int stock = Integer.MAX_VALUE;
+        BigInteger expected = BigInteger.ZERO;
+        // Enough lines for the low word to wrap several times
+        for (int i = 0; i < 5; i++) {
+            totals.add(42, price, stock);
+            expected = expected.add(BigInteger.valueOf(price).multiply(BigInteger.valueOf(stock)));
+        }
+
+        assertEquals(new BigDecimal(expected, 2), totals.stockValue(2));
+    }
+
+    @Test
+    void lowWordCarry() {
+        InventoryTotals totals = new InventoryTotals(CATEGORIES);
+        // Each product is just under 2^63: two of them carry out of a signed long,
+        // three out of the unsigned low word
+        long price = Long.MAX_VALUE;
+        for (int i = 0; i < 3; i++) {
+            totals.add(3, price, 1);
+        }
+
+        BigInteger expected = BigInteger.valueOf(Long.MAX_VALUE).multiply(BigInteger.valueOf(3));
+        assertEquals(new BigDecimal(expected, 2), totals.stockValue(0));
+    }
+
+    @Test
+    void mergeMatchesASingleScan() {
+        InventoryTotals whole = new InventoryTotals(CATEGORIES);
+        InventoryTotals left = new InventoryTotals(CATEGORIES);
+        InventoryTotals right = new InventoryTotals(CATEGORIES);
+        long[][] lines = {
+            {3, 100, 2}, {7, Long.MAX_VALUE / 2, Integer.MAX_VALUE}, {7, 5, 1}, {42, -1, 9},
+            {99, 700, 3}, {7, Long.MAX_VALUE / 2, Integer.MAX_VALUE}, {3, 50, 0}, {0, 1, 1}
+        };
+        for (int i = 0; i < lines.length; i++) {
+            long[] line = lines[i];
+            whole.add(line[0], line[1], (int) line[2]);
+            (i % 2 == 0 ? left : right).add(line[0], line[1], (int) line[2]);
+        }
+
+        InventoryTotals merged = left.merge(right);
+        for (int slot = 0; slot < whole.slots(); slot++) {
+            assertEquals(whole.items(slot), merged.items(slot));
+            assertEquals(whole.stockUnits(slot), merged.stockUnits(slot));
+            assertEquals(whole.stockValue(slot), merged.stockValue(slot));
+            assertEquals(whole.minPrice(slot), merged.minPrice(slot));
+            assertEquals(whole.maxPrice(slot), merged.maxPrice(slot));
+            assertEquals(whole.avgPrice(slot), merged.avgPrice(slot));
+        }
+    }
+
+    @Test
+    void mergingAnEmptyScanChangesNothing() {
+        InventoryTotals totals = new InventoryTotals(CATEGORIES);
+        totals.add(7, 120, 3);
+
+        totals.merge(new InventoryTotals(CATEGORIES));
+        assertEquals(1, totals.items(1));
+        assertEquals(new BigDecimal("3.60"), totals.stockValue(1));
+        assertEquals(new BigDecimal("1.20"), totals.minPrice(1));
+        assertEquals(new BigDecimal("1.20"), totals.maxPrice(1));
+    }
+}
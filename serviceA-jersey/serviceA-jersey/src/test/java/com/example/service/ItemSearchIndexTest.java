@@ -0,0 +1,174 @@
+package com.example.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ItemSearchIndexTest {
+
+    private final ItemSearchIndex index = ItemSearchIndex.getInstance();
+
+    @BeforeEach
+    void reset() {
+        index.rebuild(sink -> {});
+    }
+
+    @Test
+    void ranksExactThenPrefixThenWordThenAnywhere() {
+        Map<Long, String> items = new LinkedHashMap<>();
+        items.put(1L, "Big laptop stand");
+        items.put(2L, "Laptops");
+        items.put(3L, "Gaming laptop");
+        items.put(4L, "Laptop");
+        items.put(5L, "Ultralaptop");
+        items.put(6L, "Phone");
+        index.rebuild(sink -> items.forEach(sink));
+
+        assertEquals(List.of(4L, 2L, 3L, 1L, 5L), index.search("laptop", 10));
+    }
+
+    @Test
+    void tiesGoToShorterNameThenLowerId() {
+        index.rebuild(sink -> {
+            sink.accept(3L, "Cable long");
+            sink.accept(1L, "Cable long");
+            sink.accept(2L, "Cable");
+            sink.accept(4L, "Cable xl");
+        });
+
+        // "Cable" is an exact match; the others are prefixes, shortest first, then by id
+        assertEquals(List.of(2L, 4L, 1L, 3L), index.search("cable", 10));
+    }
+
+    @Test
+    void matchingIsCaseInsensitiveAndTrimmed() {
+        index.rebuild(sink -> sink.accept(1L, "  USB-C Charger "));
+
+        assertEquals(List.of(1L), index.search("usb-c charger", 5));
+        assertEquals(List.of(1L), index.search("  CHARGER  ", 5));
+        assertEquals(List.of(1L), index.search("Sb", 5));
+    }
+
+    @Test
+    void keepsOnlyTheBestHitsUpToTheLimit() {
+        index.rebuild(sink -> {
+            for (long id = 1; id <= 50; id++) {
+                sink.accept(id, "item " + id);
+            }
+            sink.accept(100L, "item");
+        });
+
+        assertEquals(List.of(100L, 1L, 2L), index.search("item", 3));
+    }
+
+    @Test
+    void missingTrigramMeansNoMatch() {
+        index.rebuild(sink -> sink.accept(1L, "Keyboard"));
+
+        assertTrue(index.search("keyboards", 5).isEmpty());
+        assertTrue(index.search("mouse", 5).isEmpty());
+    }
+
+    @Test
+    void putRemoveAndRenameAreSeenBySearch() {
+        index.rebuild(sink -> sink.accept(1L, "Desk lamp"));
+
+        index.put(5L, "Floor lamp");
+        index.put(3L, "Lamp shade");
+        assertEquals(List.of(3L, 1L, 5L), index.search("lamp", 10));
+
+        index.put(1L, "Desk chair");
+        assertEquals(List.of(3L, 5L), index.search("lamp", 10));
+        assertEquals(List.of(1L), index.search("chair", 10));
+
+        index.remove(3L);
+        index.remove(42L);
+        assertEquals(List.of(5L), index.search("lamp", 10));
+    }
+
+    @Test
+    void updatesMadeDuringRebuildAreKept() {
+        index.rebuild(sink -> {
+            sink.accept(1L, "Desk lamp");
+            sink.accept(2L, "Floor lamp");
+            // Committed while the scan runs: one new item, one renamed after it was read,
+            // one removed after it was read
+            index.put(9L, "Lamp shade");
+            index.put(1L, "Desk chair");
+            index.remove(2L);
+            sink.accept(3L, "Table lamp");
+        });
+
+        assertEquals(List.of(9L, 3L), index.search("lamp", 10));
+        assertEquals(List.of(1L), index.search("chair", 10));
+        assertTrue(index.search("floor", 10).isEmpty());
+    }
+
+    @Test
+    void failedRebuildKeepsTheCurrentIndex() {
+        index.rebuild(sink -> sink.accept(1L, "Desk lamp"));
+
+        assertThrows(IllegalStateException.class, () -> index.rebuild(sink -> {
+            sink.accept(2L, "Floor lamp");
+            throw new IllegalStateException("scan failed");
+        }));
+        index.put(3L, "Lamp shade");
+
+        assertEquals(List.of(3L, 1L), index.search("lamp", 10));
+    }
+
+    @Test
+    void concurrentUpdatesLeaveAConsistentIndex() throws Exception {
+        int writers = 4;
+        int perWriter = 2000;
+        ExecutorService pool = Executors.newFixedThreadPool(writers + 1);
+        try {
+            List<Future<?>> tasks = new ArrayList<>();
+            for (int w = 0; w < writers; w++) {
+                long base = (long) w * perWriter;
+                tasks.add(pool.submit(() -> {
+                    for (long id = base + 1; id <= base + perWriter; id++) {
+                        index.put(id, "widget " + id);
+                        // Every other item is renamed, every fourth one removed
+                        if (id % 2 == 0) {
+                            index.put(id, "gadget " + id);
+                        }
+                        if (id % 4 == 0) {
+                            index.remove(id);
+                        }
+                    }
+                }));
+            }
+            tasks.add(pool.submit(() -> {
+                for (int i = 0; i < 200; i++) {
+                    // Names change under the reader: hits must still be distinct known ids
+                    List<Long> hits = index.search("widget", 50);
+                    assertEquals(hits.size(), hits.stream().distinct().count(), hits::toString);
+                    assertTrue(hits.stream().allMatch(id -> id >= 1 && id <= (long) writers * perWriter));
+                }
+            }));
+            for (Future<?> task : tasks) {
+                task.get(30, TimeUnit.SECONDS);
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+
+        int total = writers * perWriter;
+        assertEquals(total / 2, index.search("widget", total).size());
+        assertEquals(total / 4, index.search("gadget", total).size());
+        assertEquals(List.of(1L, 3L, 5L), index.search("widget", 3));
+    }
+}
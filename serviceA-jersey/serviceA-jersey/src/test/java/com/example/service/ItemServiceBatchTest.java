@@ -0,0 +1,117 @@
+package com.example.service;
+
+import com.example.dao.InMemoryCategoryDAO;
+import com.example.dao.InMemoryItemDAO;
+import com.example.dto.BatchItemResultDTO;
+import com.example.dto.BatchResultDTO;
+import com.example.dto.ItemRequestDTO;
+import com.example.exception.ValidationException;
+import com.example.model.Category;
+import com.example.model.Item;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * ItemService.createItems on the in-memory DAOs (shared store: every test uses its own SKUs)
+ */
+class ItemServiceBatchTest {
+
+    private static final AtomicInteger keys = new AtomicInteger();
+
+    private final InMemoryItemDAO itemDAO = new InMemoryItemDAO();
+    private final InMemoryCategoryDAO categoryDAO = new InMemoryCategoryDAO();
+
+    private Long categoryId;
+
+    @BeforeEach
+    void createCategory() {
+        categoryId = categoryDAO.save(new Category(nextKey(), "Batch")).getId();
+    }
+
+    @Test
+    void emptyBatchIsRejected() {
+        ItemService service = new ItemService(itemDAO, categoryDAO);
+
+        assertThrows(ValidationException.class, () -> service.createItems(List.of()));
+    }
+
+    @Test
+    void eachElementGetsItsOwnOutcome() {
+        ItemService service = new ItemService(itemDAO, categoryDAO);
+        String taken = itemDAO.save(new Item(nextKey(), "Taken", BigDecimal.ONE, 1,
+            categoryDAO.findById(categoryId).orElseThrow())).getSku();
+        String fresh = nextKey();
+
+        BatchResultDTO result = service.createItems(List.of(
+            request(fresh, categoryId),
+            request(fresh, categoryId),
+            request(taken, categoryId),
+            request(nextKey(), Long.MAX_VALUE),
+            request(null, categoryId),
+            request(nextKey(), categoryId)));
+
+        assertEquals(2, result.getCreated());
+        assertEquals(4, result.getRejected());
+        assertEquals(List.of("CREATED", "REJECTED", "REJECTED", "REJECTED", "REJECTED", "CREATED"),
+            statuses(result));
+        assertTrue(result.getResults().get(1).getError().contains("duplicated in the batch"));
+        assertTrue(result.getResults().get(2).getError().contains("already exists"));
+        assertTrue(result.getResults().get(3).getError().contains("not found"));
+        assertNotNull(result.getResults().get(0).getId());
+        assertNull(result.getResults().get(1).getId());
+    }
+
+    @Test
+    void skuInsertedConcurrentlyIsRejectedNotFatal() {
+        String raced = nextKey();
+        String fresh = nextKey();
+        // Another request inserts the SKU between the uniqueness check and the insert
+        InMemoryItemDAO racingDAO = new InMemoryItemDAO() {
+            @Override
+            public Set<String> findExistingSkus(Collection<String> skus) {
+                Set<String> existing = super.findExistingSkus(skus);
+                save(new Item(raced, "Concurrent", BigDecimal.ONE, 1, categoryDAO.findById(categoryId).orElseThrow()));
+                return existing;
+            }
+        };
+        ItemService service = new ItemService(racingDAO, categoryDAO);
+        long before = itemDAO.count();
+
+        BatchResultDTO result = service.createItems(List.of(request(raced, categoryId), request(fresh, categoryId)));
+
+        assertEquals(List.of("REJECTED", "CREATED"), statuses(result));
+        assertTrue(result.getResults().get(0).getError().contains("already exists"));
+        assertEquals(1, result.getCreated());
+        assertEquals(1, result.getRejected());
+        assertEquals(before + 2, itemDAO.count());
+    }
+
+    private static ItemRequestDTO request(String sku, Long categoryId) {
+        return new ItemRequestDTO(sku, "Item " + sku, new BigDecimal("9.99"), 5, categoryId);
+    }
+
+    private static List<String> statuses(BatchResultDTO result) {
+        List<String> statuses = new ArrayList<>();
+        for (BatchItemResultDTO item : result.getResults()) {
+            statuses.add(item.getStatus());
+        }
+        return statuses;
+    }
+
+    private static String nextKey() {
+        return "BATCH-" + keys.incrementAndGet();
+    }
+}
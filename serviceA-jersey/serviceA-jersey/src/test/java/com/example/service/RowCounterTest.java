@@ -0,0 +1,147 @@
+package com.example.service;
+
+import com.example.util.UnitOfWork;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class RowCounterTest {
+
+    private final RowCounter counter = new RowCounter();
+
+    @Test
+    void overlappingReloadsCountOnce() throws Exception {
+        CountDownLatch counting = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        AtomicInteger queries = new AtomicInteger();
+
+        // Startup reconciliation still counting when a count request arrives
+        CompletableFuture<Void> reconcile = CompletableFuture.runAsync(() -> counter.reload(() -> {
+            queries.incrementAndGet();
+            counting.countDown();
+            await(release);
+            return 100;
+        }));
+        assertTrue(counting.await(5, TimeUnit.SECONDS));
+        CompletableFuture<Void> request = CompletableFuture.runAsync(() -> counter.loadIfNeeded(() -> {
+            queries.incrementAndGet();
+            return 100;
+        }));
+        release.countDown();
+        reconcile.get(5, TimeUnit.SECONDS);
+        request.get(5, TimeUnit.SECONDS);
+
+        assertEquals(100, counter.get());
+        // The request waited for the load in progress instead of counting again
+        assertEquals(1, queries.get());
+    }
+
+    @Test
+    void concurrentReloadsDoNotAddUp() throws Exception {
+        CompletableFuture<?>[] reloads = new CompletableFuture<?>[8];
+        for (int i = 0; i < reloads.length; i++) {
+            reloads[i] = CompletableFuture.runAsync(() -> counter.reload(() -> 42));
+        }
+        CompletableFuture.allOf(reloads).get(5, TimeUnit.SECONDS);
+
+        assertEquals(42, counter.get());
+    }
+
+    @Test
+    void changeCommittedDuringCountIsCountedOnce() {
+        counter.reload(() -> 10);
+        AtomicInteger queries = new AtomicInteger();
+
+        counter.reload(() -> {
+            if (queries.incrementAndGet() == 1) {
+                // Commits while the first count runs, which already sees its row
+                counter.change(1, () -> null);
+            }
+            return 11;
+        });
+
+        assertEquals(11, counter.get());
+        assertEquals(2, queries.get());
+    }
+
+    @Test
+    void countWaitsForChangesInFlight() {
+        counter.reload(() -> 10);
+        AtomicInteger queries = new AtomicInteger();
+
+        try (UnitOfWork unit = UnitOfWork.begin()) {
+            counter.change(1, () -> null);
+            // Not committed yet: whether the count includes it is unknown, so the current value stays
+            counter.reload(() -> {
+                queries.incrementAndGet();
+                return 11;
+            });
+            assertEquals(10, counter.get());
+            assertTrue(queries.get() > 1);
+
+            unit.commit();
+        }
+        assertEquals(11, counter.get());
+
+        counter.reload(() -> 11);
+        assertEquals(11, counter.get());
+    }
+
+    @Test
+    void rolledBackChangeIsDropped() {
+        counter.reload(() -> 10);
+
+        try (UnitOfWork unit = UnitOfWork.begin()) {
+            counter.change(-1, () -> null);
+            unit.setRollbackOnly();
+            unit.commit();
+        }
+        assertEquals(10, counter.get());
+
+        // Nothing left in flight: the next count is taken at once
+        AtomicInteger queries = new AtomicInteger();
+        counter.reload(() -> {
+            queries.incrementAndGet();
+            return 12;
+        });
+        assertEquals(12, counter.get());
+        assertEquals(1, queries.get());
+    }
+
+    @Test
+    void failedWriteIsNotInFlight() {
+        counter.reload(() -> 10);
+
+        assertThrows(IllegalStateException.class, () -> counter.change(1, () -> {
+            throw new IllegalStateException("constraint violation");
+        }));
+        assertEquals(10, counter.get());
+
+        counter.reload(() -> 7);
+        assertEquals(7, counter.get());
+    }
+
+    @Test
+    void changeWithoutUnitOfWorkAppliesAtOnce() {
+        assertFalse(counter.isLoaded());
+        counter.change(3, () -> null);
+
+        assertEquals(3, counter.get());
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
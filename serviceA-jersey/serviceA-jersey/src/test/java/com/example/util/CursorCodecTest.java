@@ -0,0 +1,52 @@
+package com.example.util;
+
+import com.example.exception.ValidationException;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class CursorCodecTest {
+
+    @Test
+    void decodesWhatItEncodes() {
+        for (long id : new long[] {0, 1, 42, Long.MAX_VALUE, -1}) {
+            assertEquals(id, CursorCodec.decode(CursorCodec.encode(id)));
+        }
+    }
+
+    @Test
+    void cursorIsUrlSafeWithoutPadding() {
+        String cursor = CursorCodec.encode(Long.MAX_VALUE);
+        assertTrue(cursor.matches("[A-Za-z0-9_-]+"), cursor);
+    }
+
+    @Test
+    void emptyCursorMeansFirstPage() {
+        assertNull(CursorCodec.decode(null));
+        assertNull(CursorCodec.decode(""));
+        assertNull(CursorCodec.decode("   "));
+    }
+
+    @Test
+    void surroundingBlanksAreIgnored() {
+        assertEquals(7L, CursorCodec.decode(" " + CursorCodec.encode(7L) + " "));
+    }
+
+    @Test
+    void malformedCursorsAreRejected() {
+        assertThrows(ValidationException.class, () -> CursorCodec.decode("not base64!"));
+        assertThrows(ValidationException.class, () -> CursorCodec.decode(encodeRaw("name:7")));
+        assertThrows(ValidationException.class, () -> CursorCodec.decode(encodeRaw("id:seven")));
+        assertThrows(ValidationException.class, () -> CursorCodec.decode(encodeRaw("id:")));
+    }
+
+    private static String encodeRaw(String raw) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.US_ASCII));
+    }
+}
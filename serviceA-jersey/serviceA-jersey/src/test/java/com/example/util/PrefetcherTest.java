@@ -0,0 +1,74 @@
+package com.example.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class PrefetcherTest {
+
+    @Test
+    void deliversEveryElementInOrder() {
+        List<Integer> received = new ArrayList<>();
+
+        Prefetcher.<Integer>run(sink -> IntStream.range(0, 100).forEach(sink::accept), 4, received::add);
+
+        assertEquals(IntStream.range(0, 100).boxed().toList(), received);
+    }
+
+    @Test
+    void producerFailureReachesTheCaller() {
+        IllegalStateException failure = new IllegalStateException("boom");
+
+        IllegalStateException thrown = assertThrows(IllegalStateException.class,
+                () -> Prefetcher.<Integer>run(sink -> {
+                    sink.accept(1);
+                    throw failure;
+                }, 4, element -> { }));
+
+        assertEquals(failure, thrown);
+    }
+
+    @Test
+    void consumerFailureCancelsABlockedProducer() throws Exception {
+        // Stands for a JDBC read: deaf to interrupts, released only by cancelling it
+        CountDownLatch statement = new CountDownLatch(1);
+        CountDownLatch stopped = new CountDownLatch(1);
+
+        assertThrows(IllegalStateException.class, () -> Prefetcher.<Integer>run(sink -> {
+            Prefetcher.onCancel(statement::countDown);
+            sink.accept(1);
+            awaitUninterruptibly(statement);
+            stopped.countDown();
+        }, 4, element -> {
+            throw new IllegalStateException("consumer failed");
+        }));
+
+        assertTrue(stopped.await(5, TimeUnit.SECONDS));
+    }
+
+    @Test
+    void onCancelOutsideAProducerIsIgnored() {
+        Prefetcher.onCancel(() -> {
+            throw new AssertionError("must not run");
+        });
+    }
+
+    private static void awaitUninterruptibly(CountDownLatch latch) {
+        while (true) {
+            try {
+                latch.await();
+                return;
+            } catch (InterruptedException ignored) {
+                // Keep waiting, like a socket read would
+            }
+        }
+    }
+}
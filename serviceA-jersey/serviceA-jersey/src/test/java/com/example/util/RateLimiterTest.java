@@ -0,0 +1,105 @@
+package com.example.util;
+
+import com.example.util.RateLimiter.Decision;
+import com.example.util.RateLimiter.Limit;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class RateLimiterTest {
+
+    private static final long SECOND = TimeUnit.SECONDS.toNanos(1);
+
+    private final RateLimiter limiter = new RateLimiter(3600);
+
+    @Test
+    void limitRejectsRatesOutOfRange() {
+        assertThrows(IllegalArgumentException.class, () -> new Limit(0, 1));
+        assertThrows(IllegalArgumentException.class, () -> new Limit(-5, 1));
+        assertThrows(IllegalArgumentException.class, () -> new Limit(1_000_000_001, 1));
+        assertThrows(IllegalArgumentException.class, () -> new Limit(10, 0));
+    }
+
+    @Test
+    void intervalIsOneSecondOverTheRate() {
+        assertEquals(SECOND, new Limit(1, 1).intervalNanos());
+        assertEquals(333_333_333, new Limit(3, 1).intervalNanos());
+        assertEquals(1, new Limit(1_000_000_000, 1).intervalNanos());
+    }
+
+    @Test
+    void fullBucketAllowsTheBurstThenRejects() {
+        Limit limit = new Limit(1, 3);
+
+        for (int remaining = 2; remaining >= 0; remaining--) {
+            Decision decision = limiter.tryAcquire("client", limit);
+            assertTrue(decision.allowed());
+            assertEquals(remaining, decision.remaining());
+            assertEquals(0, decision.retryAfterNanos());
+        }
+
+        Decision rejected = limiter.tryAcquire("client", limit);
+        assertFalse(rejected.allowed());
+        assertEquals(0, rejected.remaining());
+        // The next token comes one interval after the burst was taken
+        assertTrue(rejected.retryAfterNanos() > 0 && rejected.retryAfterNanos() <= SECOND,
+            "retry after " + rejected.retryAfterNanos());
+        assertTrue(rejected.resetNanos() > 2 * SECOND && rejected.resetNanos() <= 3 * SECOND,
+            "reset " + rejected.resetNanos());
+    }
+
+    @Test
+    void rejectionDoesNotTakeAToken() {
+        Limit limit = new Limit(1, 1);
+        limiter.tryAcquire("client", limit);
+
+        Decision first = limiter.tryAcquire("client", limit);
+        Decision second = limiter.tryAcquire("client", limit);
+        assertFalse(first.allowed());
+        assertFalse(second.allowed());
+        assertTrue(second.retryAfterNanos() <= first.retryAfterNanos());
+    }
+
+    @Test
+    void bucketRefillsOverTime() throws InterruptedException {
+        Limit limit = new Limit(100, 1);
+        assertTrue(limiter.tryAcquire("client", limit).allowed());
+        Decision rejected = limiter.tryAcquire("client", limit);
+        assertFalse(rejected.allowed());
+
+        TimeUnit.NANOSECONDS.sleep(rejected.retryAfterNanos() + TimeUnit.MILLISECONDS.toNanos(1));
+        assertTrue(limiter.tryAcquire("client", limit).allowed());
+    }
+
+    @Test
+    void bucketsAreIndependent() {
+        Limit limit = new Limit(1, 1);
+
+        assertTrue(limiter.tryAcquire("a", limit).allowed());
+        assertFalse(limiter.tryAcquire("a", limit).allowed());
+        assertTrue(limiter.tryAcquire("b", limit).allowed());
+        assertEquals(2, limiter.size());
+    }
+
+    @Test
+    void sweepDropsRefilledBuckets() throws InterruptedException {
+        RateLimiter swept = new RateLimiter(1);
+        swept.tryAcquire("fast", new Limit(1000, 1));
+        for (int i = 0; i < 5; i++) {
+            swept.tryAcquire("slow", new Limit(1, 10));
+        }
+        assertEquals(2, swept.size());
+
+        long deadline = System.nanoTime() + 3 * SECOND;
+        while (swept.size() > 1 && System.nanoTime() < deadline) {
+            Thread.sleep(50);
+        }
+        // Five tokens taken from the slow bucket: five seconds to refill
+        assertEquals(1, swept.size());
+    }
+}
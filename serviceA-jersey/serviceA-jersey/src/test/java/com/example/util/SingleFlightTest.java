@@ -0,0 +1,165 @@
+package com.example.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class SingleFlightTest {
+
+    private static final int FOLLOWERS = 4;
+
+    private static final AtomicInteger names = new AtomicInteger();
+
+    @Test
+    void concurrentCallersShareOneLoad() throws Exception {
+        String name = nextName();
+        SingleFlight<String, Object> flight = new SingleFlight<>(name);
+        AtomicInteger loads = new AtomicInteger();
+        CountDownLatch release = new CountDownLatch(1);
+        Object value = new Object();
+
+        List<Object> results = runConcurrently(flight, name, release, () -> {
+            loads.incrementAndGet();
+            await(release);
+            return value;
+        });
+
+        assertEquals(1, loads.get());
+        results.forEach(result -> assertSame(value, result));
+    }
+
+    @Test
+    void concurrentCallersShareTheFailure() throws Exception {
+        String name = nextName();
+        SingleFlight<String, Object> flight = new SingleFlight<>(name);
+        CountDownLatch release = new CountDownLatch(1);
+        IllegalStateException failure = new IllegalStateException("load failed");
+
+        List<Object> results = runConcurrently(flight, name, release, () -> {
+            await(release);
+            throw failure;
+        });
+
+        results.forEach(result -> assertSame(failure, result));
+    }
+
+    @Test
+    void completedLoadsAreNotKept() {
+        SingleFlight<String, Integer> flight = new SingleFlight<>(nextName());
+        AtomicInteger loads = new AtomicInteger();
+
+        assertEquals(1, flight.get("key", loads::incrementAndGet));
+        assertEquals(2, flight.get("key", loads::incrementAndGet));
+    }
+
+    @Test
+    void failedLoadIsRetriedByTheNextCaller() {
+        SingleFlight<String, String> flight = new SingleFlight<>(nextName());
+
+        assertThrows(IllegalStateException.class, () -> flight.get("key", () -> {
+            throw new IllegalStateException("load failed");
+        }));
+        assertEquals("loaded", flight.get("key", () -> "loaded"));
+    }
+
+    @Test
+    void loadsInUnitOfWorkAreNotShared() throws Exception {
+        String name = nextName();
+        SingleFlight<String, String> flight = new SingleFlight<>(name);
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            Future<String> leader = executor.submit(() -> flight.get("key", () -> {
+                await(release);
+                return "shared";
+            }));
+            waitFor(() -> calls(name, "leader") == 1);
+
+            // Own load despite the one in flight, which is left running
+            try (UnitOfWork unit = UnitOfWork.begin()) {
+                assertEquals("own", flight.get("key", () -> "own"));
+            }
+            assertEquals(0, calls(name, "shared"));
+
+            release.countDown();
+            assertEquals("shared", leader.get(5, TimeUnit.SECONDS));
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    /**
+     * Start a leader, then followers once its load is running; release the
+     * load once every follower joined it
+     *
+     * @return Value or exception each caller got
+     */
+    private static List<Object> runConcurrently(SingleFlight<String, Object> flight, String name,
+                                                CountDownLatch release, Supplier<Object> loader) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(FOLLOWERS + 1);
+        try {
+            List<Future<Object>> calls = new ArrayList<>();
+            calls.add(executor.submit(() -> flight.get("key", loader)));
+            waitFor(() -> calls(name, "leader") == 1);
+            for (int i = 0; i < FOLLOWERS; i++) {
+                calls.add(executor.submit(() -> flight.get("key", () -> {
+                    throw new AssertionError("follower ran its own load");
+                })));
+            }
+            waitFor(() -> calls(name, "shared") == FOLLOWERS);
+            release.countDown();
+
+            List<Object> results = new ArrayList<>();
+            for (Future<Object> call : calls) {
+                try {
+                    results.add(call.get(5, TimeUnit.SECONDS));
+                } catch (ExecutionException e) {
+                    results.add(e.getCause());
+                }
+            }
+            return results;
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private static double calls(String name, String result) {
+        return MetricsUtil.getRegistry().get("singleflight.calls")
+                .tags("name", name, "result", result)
+                .counter().count();
+    }
+
+    private static void waitFor(Supplier<Boolean> condition) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (!condition.get()) {
+            assertTrue(System.nanoTime() < deadline, "timed out");
+            Thread.sleep(5);
+        }
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static String nextName() {
+        return "test-" + names.incrementAndGet();
+    }
+}
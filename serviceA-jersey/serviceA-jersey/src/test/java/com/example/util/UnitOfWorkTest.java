@@ -0,0 +1,194 @@
+package com.example.util;
+
+import com.example.model.Category;
+import org.hibernate.Session;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class UnitOfWorkTest {
+
+    private static final AtomicInteger codes = new AtomicInteger();
+
+    @AfterEach
+    void unbind() {
+        UnitOfWork unit = UnitOfWork.detach();
+        if (unit != null) {
+            unit.close();
+        }
+    }
+
+    @Test
+    void afterCommitRunsAtOnceWithoutUnitOfWork() {
+        List<String> log = new ArrayList<>();
+        UnitOfWork.afterCommit(() -> log.add("run"));
+        assertEquals(List.of("run"), log);
+    }
+
+    @Test
+    void afterCommitActionsRunOnCommitInOrder() {
+        List<String> log = new ArrayList<>();
+        UnitOfWork unit = UnitOfWork.begin();
+        UnitOfWork.afterCommit(() -> log.add("first"));
+        UnitOfWork.afterCommit(() -> log.add("second"));
+        assertEquals(List.of(), log);
+
+        unit.commit();
+        assertEquals(List.of("first", "second"), log);
+
+        // Committing again runs nothing twice
+        unit.commit();
+        assertEquals(List.of("first", "second"), log);
+    }
+
+    @Test
+    void closeWithoutCommitDropsActions() {
+        List<String> log = new ArrayList<>();
+        UnitOfWork unit = UnitOfWork.begin();
+        UnitOfWork.afterCommit(() -> log.add("run"));
+        unit.close();
+        unit.commit();
+
+        assertEquals(List.of(), log);
+        assertNull(UnitOfWork.current());
+    }
+
+    @Test
+    void rollbackOnlyDropsActionsEvenWithoutSession() {
+        List<String> log = new ArrayList<>();
+        UnitOfWork unit = UnitOfWork.begin();
+        UnitOfWork.afterCommit(() -> log.add("run"));
+        unit.setRollbackOnly();
+        unit.commit();
+
+        assertEquals(List.of(), log);
+    }
+
+    @Test
+    void afterRollbackActionsRunOnRollbackLatestFirst() {
+        List<String> log = new ArrayList<>();
+        UnitOfWork unit = UnitOfWork.begin();
+        UnitOfWork.afterRollback(() -> log.add("first"));
+        UnitOfWork.afterRollback(() -> log.add("second"));
+        unit.setRollbackOnly();
+        unit.commit();
+        unit.close();
+
+        assertEquals(List.of("second", "first"), log);
+    }
+
+    @Test
+    void afterRollbackActionsRunOnCloseWithoutCommit() {
+        List<String> log = new ArrayList<>();
+        UnitOfWork unit = UnitOfWork.begin();
+        UnitOfWork.afterRollback(() -> log.add("undo"));
+        unit.close();
+
+        assertEquals(List.of("undo"), log);
+    }
+
+    @Test
+    void afterRollbackActionsAreDroppedOnCommit() {
+        List<String> log = new ArrayList<>();
+        UnitOfWork.afterRollback(() -> log.add("no unit"));
+        UnitOfWork unit = UnitOfWork.begin();
+        UnitOfWork.afterRollback(() -> log.add("undo"));
+        unit.commit();
+        unit.close();
+
+        assertEquals(List.of(), log);
+    }
+
+    @Test
+    void onlyOneUnitOfWorkPerThread() {
+        UnitOfWork.begin();
+        assertThrows(IllegalStateException.class, UnitOfWork::begin);
+    }
+
+    @Test
+    void detachedUnitOfWorkMovesToAnotherThread() throws Exception {
+        UnitOfWork unit = UnitOfWork.begin();
+        assertSame(unit, UnitOfWork.detach());
+        assertNull(UnitOfWork.current());
+
+        UnitOfWork seen = CompletableFuture.supplyAsync(() -> {
+            UnitOfWork.attach(unit);
+            try {
+                return UnitOfWork.current();
+            } finally {
+                UnitOfWork.detach();
+            }
+        }).get();
+        assertSame(unit, seen);
+        unit.close();
+    }
+
+    @Test
+    void sessionIsRefusedOnceClosed() {
+        UnitOfWork unit = UnitOfWork.begin();
+        unit.close();
+        assertThrows(IllegalStateException.class, unit::session);
+    }
+
+    @Test
+    void commitMakesChangesVisible() {
+        String code = nextCode();
+        List<String> log = new ArrayList<>();
+        try (UnitOfWork unit = UnitOfWork.begin()) {
+            unit.session().persist(new Category(code, "Committed"));
+            UnitOfWork.afterCommit(() -> log.add("committed"));
+            unit.commit();
+        }
+
+        assertEquals(1, countCategories(code));
+        assertEquals(List.of("committed"), log);
+    }
+
+    @Test
+    void rollbackOnlyUndoesChanges() {
+        String code = nextCode();
+        List<String> log = new ArrayList<>();
+        try (UnitOfWork unit = UnitOfWork.begin()) {
+            unit.session().persist(new Category(code, "Rolled back"));
+            unit.session().flush();
+            UnitOfWork.afterCommit(() -> log.add("committed"));
+            unit.setRollbackOnly();
+            unit.commit();
+        }
+
+        assertEquals(0, countCategories(code));
+        assertEquals(List.of(), log);
+    }
+
+    @Test
+    void closeWithoutCommitRollsBack() {
+        String code = nextCode();
+        try (UnitOfWork unit = UnitOfWork.begin()) {
+            unit.session().persist(new Category(code, "Abandoned"));
+            unit.session().flush();
+        }
+
+        assertEquals(0, countCategories(code));
+    }
+
+    private static String nextCode() {
+        return "UOW" + codes.incrementAndGet();
+    }
+
+    private static long countCategories(String code) {
+        try (Session session = HibernateUtil.getSessionFactory().openSession()) {
+            return session.createQuery("SELECT count(c) FROM Category c WHERE c.code = :code", Long.class)
+                .setParameter("code", code)
+                .getSingleResult();
+        }
+    }
+}